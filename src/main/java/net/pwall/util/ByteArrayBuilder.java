@@ -27,6 +27,8 @@ package net.pwall.util;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -109,6 +111,37 @@ public class ByteArrayBuilder {
         return count;
     }
 
+    /**
+     * Clear the {@code ByteArrayBuilder}, setting the length to zero but retaining the
+     * allocated buffer for re-use.
+     *
+     * @return  {@code this} (for chaining)
+     */
+    public ByteArrayBuilder clear() {
+        count = 0;
+        return this;
+    }
+
+    /**
+     * Write the bytes used to an {@link OutputStream}.
+     *
+     * @param   os      the {@link OutputStream}
+     * @throws  IOException if thrown by the {@link OutputStream}
+     */
+    public void writeTo(OutputStream os) throws IOException {
+        os.write(buf, 0, count);
+    }
+
+    /**
+     * Write the bytes used to a {@link ByteBuffer}, starting at the buffer's current position.
+     *
+     * @param   byteBuffer  the {@link ByteBuffer}
+     * @throws  java.nio.BufferOverflowException if there is insufficient space in the buffer
+     */
+    public void writeTo(ByteBuffer byteBuffer) {
+        byteBuffer.put(buf, 0, count);
+    }
+
     /**
      * Get a byte array of only the bytes used.
      *
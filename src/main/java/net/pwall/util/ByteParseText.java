@@ -0,0 +1,931 @@
+/*
+ * @(#) ByteParseText.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.IntPredicate;
+
+/**
+ * A class to assist with parsing text held as bytes, for example an HTTP header or a line of a
+ * text-based protocol read into a buffer from a socket.  It provides a subset of the operations
+ * of {@link ParseText}, operating directly on a portion of a {@code byte} array or a
+ * {@link ByteBuffer} (heap or direct) without first decoding the bytes to a {@link String}.
+ *
+ * <p>The characters used in match operations are expected to be ASCII; a byte with the high
+ * bit set will never match an ASCII character.  The result of a match is decoded (as UTF-8)
+ * only when {@link #getResultString()} or {@link #appendResultTo(Appendable)} is called.</p>
+ *
+ * <p>The index and start index are absolute offsets within the {@code byte} array or the
+ * {@link ByteBuffer}.  For a {@link ByteBuffer}, the text consists of the bytes from the
+ * position to the limit at the time the text is set; the position and limit of the buffer
+ * are not modified.</p>
+ *
+ * @author  Peter Wall
+ * @see     ParseText
+ */
+public class ByteParseText {
+
+    private static final int MAX_INT_MASK = 0xF8 << 24;
+    private static final long MAX_LONG_MASK = ((long)0xF8) << 56;
+
+    private byte[] array;
+    private int offset;
+    private ByteBuffer buffer;
+    private int textStart;
+    private int textEnd;
+    private int index;
+    private int start;
+
+    /**
+     * Construct a {@code ByteParseText} object with the given portion of a {@code byte} array.
+     *
+     * @param   bytes   the {@code byte} array
+     * @param   from    the start offset of the text
+     * @param   to      the end offset of the text
+     * @throws  NullPointerException if the array is {@code null}
+     * @throws  IndexOutOfBoundsException if the start or end offset is invalid
+     */
+    public ByteParseText(byte[] bytes, int from, int to) {
+        setText(bytes, from, to);
+    }
+
+    /**
+     * Construct a {@code ByteParseText} object with the given {@code byte} array.
+     *
+     * @param   bytes   the {@code byte} array
+     * @throws  NullPointerException if the array is {@code null}
+     */
+    public ByteParseText(byte[] bytes) {
+        setText(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Construct a {@code ByteParseText} object with the remaining bytes of a
+     * {@link ByteBuffer}.
+     *
+     * @param   byteBuffer  the {@link ByteBuffer}
+     * @throws  NullPointerException if the {@link ByteBuffer} is {@code null}
+     */
+    public ByteParseText(ByteBuffer byteBuffer) {
+        setText(byteBuffer);
+    }
+
+    /**
+     * Set the text to a portion of a {@code byte} array.  The index and start index are set
+     * to the start offset.
+     *
+     * @param   bytes   the {@code byte} array
+     * @param   from    the start offset of the text
+     * @param   to      the end offset of the text
+     * @return          the {@code ByteParseText} object (for chaining purposes)
+     * @throws  NullPointerException if the array is {@code null}
+     * @throws  IndexOutOfBoundsException if the start or end offset is invalid
+     */
+    public ByteParseText setText(byte[] bytes, int from, int to) {
+        if (bytes == null)
+            throw new NullPointerException("ByteParseText data invalid");
+        if (from < 0 || to < from || to > bytes.length)
+            throw new IndexOutOfBoundsException("ByteParseText bounds invalid");
+        array = bytes;
+        offset = 0;
+        buffer = null;
+        textStart = from;
+        textEnd = to;
+        index = from;
+        start = from;
+        return this;
+    }
+
+    /**
+     * Set the text to the remaining bytes of a {@link ByteBuffer} (from the position to the
+     * limit).  The index and start index are set to the position.  If the buffer has an
+     * accessible backing array, the bytes are read directly from the array.
+     *
+     * @param   byteBuffer  the {@link ByteBuffer}
+     * @return              the {@code ByteParseText} object (for chaining purposes)
+     * @throws  NullPointerException if the {@link ByteBuffer} is {@code null}
+     */
+    public ByteParseText setText(ByteBuffer byteBuffer) {
+        if (byteBuffer == null)
+            throw new NullPointerException("ByteParseText data invalid");
+        if (byteBuffer.hasArray()) {
+            array = byteBuffer.array();
+            offset = byteBuffer.arrayOffset();
+            buffer = null;
+        }
+        else {
+            array = null;
+            offset = 0;
+            buffer = byteBuffer;
+        }
+        textStart = byteBuffer.position();
+        textEnd = byteBuffer.limit();
+        index = textStart;
+        start = textStart;
+        return this;
+    }
+
+    /**
+     * Get the start offset of the text.
+     *
+     * @return  the start offset
+     */
+    public int getTextStart() {
+        return textStart;
+    }
+
+    /**
+     * Get the end offset of the text.
+     *
+     * @return  the end offset
+     */
+    public int getTextEnd() {
+        return textEnd;
+    }
+
+    /**
+     * Test whether the {@code ByteParseText} object is exhausted (the index has reached the end
+     * of the text).
+     *
+     * @return  {@code true} if the index has reached the end of the text
+     */
+    public boolean isExhausted() {
+        return index >= textEnd;
+    }
+
+    /**
+     * Get the current index.
+     *
+     * @return  the index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Set the index to a specified value.
+     *
+     * @param   index   the new index
+     * @return          the {@code ByteParseText} object (for chaining purposes)
+     * @throws  IndexOutOfBoundsException if the index is outside the bounds of the text
+     */
+    public ByteParseText setIndex(int index) {
+        if (index < textStart || index > textEnd)
+            throw new IndexOutOfBoundsException("ByteParseText index invalid");
+        this.index = index;
+        return this;
+    }
+
+    /**
+     * Get the start index (the index of the start of the last matched sequence).
+     *
+     * @return  the start index
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Set the start index.  The start index must be less than or equal to the index.
+     *
+     * @param   start   the new start index
+     * @return          the {@code ByteParseText} object (for chaining purposes)
+     * @throws  IndexOutOfBoundsException if the start index is invalid
+     */
+    public ByteParseText setStart(int start) {
+        if (start < textStart || start > index)
+            throw new IndexOutOfBoundsException("ByteParseText start index invalid");
+        this.start = start;
+        return this;
+    }
+
+    /**
+     * Get a byte from the text, as an unsigned value.
+     *
+     * @param   i       the index of the byte
+     * @return          the byte (0 - 255)
+     */
+    private int byteAt(int i) {
+        return (array != null ? array[offset + i] : buffer.get(i)) & 0xFF;
+    }
+
+    /**
+     * Get the byte at the current index (as an unsigned value) and increment the index.
+     *
+     * @return  the current byte
+     * @throws  IndexOutOfBoundsException if the index is at or beyond the end of the text
+     */
+    public int getByte() {
+        start = index;
+        if (index >= textEnd)
+            throw new IndexOutOfBoundsException("ByteParseText exhausted");
+        return byteAt(index++);
+    }
+
+    /**
+     * Test whether the text has at least the specified number of bytes left after the index.
+     *
+     * @param   len     the number of bytes required
+     * @return  {@code true} if that number of bytes are available
+     */
+    public boolean available(int len) {
+        return index + len <= textEnd;
+    }
+
+    /**
+     * Get the length of the result of the last match operation, in bytes.
+     *
+     * @return  the length of the result of the last match
+     */
+    public int getResultLength() {
+        return index - start;
+    }
+
+    /**
+     * Get the result of the last match operation as a {@link String}, decoding the bytes from
+     * UTF-8.
+     *
+     * @return  the result of the last match
+     * @throws  IllegalArgumentException if the bytes contain an invalid UTF-8 sequence
+     */
+    public String getResultString() {
+        return getString(start, index);
+    }
+
+    /**
+     * Extract a string from the text, bounded by the given start and end offsets, decoding the
+     * bytes from UTF-8.
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset
+     * @return  the specified string
+     * @throws  IllegalArgumentException if the offsets are invalid, or if the bytes contain an
+     *          invalid UTF-8 sequence
+     */
+    public String getString(int from, int to) {
+        checkOffsets(from, to);
+        if (array != null)
+            return Strings.fromUTF8(array, offset + from, offset + to);
+        return Strings.fromUTF8(slice(from, to));
+    }
+
+    /**
+     * Decode the result of the last match operation from UTF-8 and append it to an
+     * {@link Appendable}.
+     *
+     * @param   a       the {@link Appendable}
+     * @return          the {@link Appendable} (for chaining purposes)
+     * @throws  IOException if thrown by the {@link Appendable}
+     * @throws  IllegalArgumentException if the bytes contain an invalid UTF-8 sequence
+     */
+    public Appendable appendResultTo(Appendable a) throws IOException {
+        Strings.decodeUTF8(array != null ? ByteBuffer.wrap(array, offset + start, index - start) :
+                slice(start, index), a);
+        return a;
+    }
+
+    private void checkOffsets(int from, int to) {
+        if (from < textStart || to < from || to > textEnd)
+            throw new IllegalArgumentException("ByteParseText offsets invalid");
+    }
+
+    private ByteBuffer slice(int from, int to) {
+        checkOffsets(from, to);
+        ByteBuffer result = buffer.duplicate();
+        result.limit(to);
+        result.position(from);
+        return result;
+    }
+
+    /**
+     * Get the result of the last match operation as an {@code int}.
+     *
+     * @return  the result of the last match as an {@code int} (always positive)
+     * @throws  NumberFormatException if the start and end indices do not describe a valid
+     *          {@code int}
+     */
+    public int getResultInt() {
+        return getInt(start, index);
+    }
+
+    /**
+     * Get an {@code int} from the text.  The conversion is delegated to
+     * {@link Strings#convertToInt(byte[], int, int)} or
+     * {@link Strings#convertToInt(ByteBuffer, int, int)}, which process the digits eight at a
+     * time.
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset
+     * @return  the {@code int} (always positive)
+     * @throws  NumberFormatException if the start and end indices do not describe a valid
+     *          {@code int}
+     * @throws  IndexOutOfBoundsException if the start and end indices are not contained within
+     *          the text
+     */
+    public int getInt(int from, int to) {
+        if (to <= from)
+            throw new NumberFormatException();
+        return array != null ? Strings.convertToInt(array, offset + from, offset + to) :
+                Strings.convertToInt(buffer, from, to);
+    }
+
+    /**
+     * Get the result of the last match operation as a {@code long}.
+     *
+     * @return  the result of the last match as a {@code long} (always positive)
+     * @throws  NumberFormatException if the start and end indices do not describe a valid
+     *          {@code long}
+     */
+    public long getResultLong() {
+        return getLong(start, index);
+    }
+
+    /**
+     * Get a {@code long} from the text.  The conversion is delegated to
+     * {@link Strings#convertToLong(byte[], int, int)} or
+     * {@link Strings#convertToLong(ByteBuffer, int, int)}, which process the digits eight at a
+     * time.
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset
+     * @return  the {@code long} (always positive)
+     * @throws  NumberFormatException if the start and end indices do not describe a valid
+     *          {@code long}
+     * @throws  IndexOutOfBoundsException if the start and end indices are not contained within
+     *          the text
+     */
+    public long getLong(int from, int to) {
+        if (to <= from)
+            throw new NumberFormatException();
+        return array != null ? Strings.convertToLong(array, offset + from, offset + to) :
+                Strings.convertToLong(buffer, from, to);
+    }
+
+    /**
+     * Get the result of the last match operation as an {@code int}, treating the digits as
+     * hexadecimal.
+     *
+     * @return  the result of the last match as an {@code int} (always positive)
+     * @throws  NumberFormatException if the start and end indices do not describe a valid
+     *          {@code int}
+     */
+    public int getResultHexInt() {
+        return getHexInt(start, index);
+    }
+
+    /**
+     * Get an {@code int} from the text, treating the digits as hexadecimal.
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset
+     * @return  the hexadecimal {@code int} (always positive)
+     * @throws  NumberFormatException if the start and end indices do not describe a valid
+     *          {@code int}
+     */
+    public int getHexInt(int from, int to) {
+        if (to <= from)
+            throw new NumberFormatException();
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            if ((result & MAX_INT_MASK) != 0)
+                throw new NumberFormatException();
+            result = result << 4 | Strings.convertHexDigit((char)byteAt(i));
+        }
+        return result;
+    }
+
+    /**
+     * Get the result of the last match operation as a {@code long}, treating the digits as
+     * hexadecimal.
+     *
+     * @return  the result of the last match as a {@code long} (always positive)
+     * @throws  NumberFormatException if the start and end indices do not describe a valid
+     *          {@code long}
+     */
+    public long getResultHexLong() {
+        return getHexLong(start, index);
+    }
+
+    /**
+     * Get a {@code long} from the text, treating the digits as hexadecimal.
+     *
+     * @param   from    the start offset
+     * @param   to      the end offset
+     * @return  the hexadecimal {@code long} (always positive)
+     * @throws  NumberFormatException if the start and end indices do not describe a valid
+     *          {@code long}
+     */
+    public long getHexLong(int from, int to) {
+        if (to <= from)
+            throw new NumberFormatException();
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            if ((result & MAX_LONG_MASK) != 0)
+                throw new NumberFormatException();
+            result = result << 4 | Strings.convertHexDigit((char)byteAt(i));
+        }
+        return result;
+    }
+
+    /**
+     * Match the current byte in the text against a given ASCII character.  Following a
+     * successful match the start index will point to the matched byte and the index will be
+     * incremented past it.
+     *
+     * @param   ch      the character to match against
+     * @return  {@code true} if the byte in the text matches the given character
+     */
+    public boolean match(char ch) {
+        if (index >= textEnd || byteAt(index) != ch)
+            return false;
+        start = index++;
+        return true;
+    }
+
+    /**
+     * Match the current byte in the text against a given ASCII character, ignoring case.
+     *
+     * @param   ch      the character to match against
+     * @return  {@code true} if the byte in the text matches the given character
+     */
+    public boolean matchIgnoreCase(char ch) {
+        if (index >= textEnd || !equalIgnoreCase(byteAt(index), ch))
+            return false;
+        start = index++;
+        return true;
+    }
+
+    private static boolean equalIgnoreCase(int b, char ch) {
+        return b == ch || (b | 0x20) == (ch | 0x20) && (ch | 0x20) >= 'a' && (ch | 0x20) <= 'z';
+    }
+
+    /**
+     * Match the current byte in the text against a given character range.
+     *
+     * @param   from    the low character in the range to match against
+     * @param   to      the high character in the range to match against (inclusive)
+     * @return  {@code true} if the byte in the text falls in the given range
+     */
+    public boolean matchRange(char from, char to) {
+        if (index >= textEnd)
+            return false;
+        int b = byteAt(index);
+        if (b < from || b > to)
+            return false;
+        start = index++;
+        return true;
+    }
+
+    /**
+     * Match the current byte in the text against any of the ASCII characters in a given
+     * {@link String}.
+     *
+     * @param   str     the characters to match against
+     * @return  {@code true} if the byte in the text matches any of the characters
+     */
+    public boolean matchAnyOf(String str) {
+        if (index >= textEnd || str.indexOf(byteAt(index)) < 0)
+            return false;
+        start = index++;
+        return true;
+    }
+
+    /**
+     * Match the bytes at the index against a given ASCII {@link CharSequence}.  Following a
+     * successful match the start index will point to the first byte of the matched sequence
+     * and the index will be incremented past it.
+     *
+     * @param   target  the target {@link CharSequence}
+     * @return  {@code true} if the bytes in the text at the index match the target
+     */
+    public boolean match(CharSequence target) {
+        int len = target.length();
+        if (index + len > textEnd)
+            return false;
+        for (int i = 0; i < len; i++)
+            if (byteAt(index + i) != target.charAt(i))
+                return false;
+        start = index;
+        index += len;
+        return true;
+    }
+
+    /**
+     * Match the bytes at the index against a given ASCII {@link CharSequence}, ignoring case.
+     *
+     * @param   target  the target {@link CharSequence}
+     * @return  {@code true} if the bytes in the text at the index match the target
+     */
+    public boolean matchIgnoreCase(CharSequence target) {
+        int len = target.length();
+        if (index + len > textEnd)
+            return false;
+        for (int i = 0; i < len; i++)
+            if (!equalIgnoreCase(byteAt(index + i), target.charAt(i)))
+                return false;
+        start = index;
+        index += len;
+        return true;
+    }
+
+    /**
+     * Match the bytes at the index as decimal digits, with a given minimum number of digits
+     * and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number digits to match (or 0 to indicate no limit)
+     * @param   minDigits   the minimum number digits for a successful match
+     * @return  {@code true} if the bytes in the text at the index are decimal digits (subject
+     *          to the specified minimum and maximum number of digits)
+     */
+    public boolean matchDec(int maxDigits, int minDigits) {
+        int i = index;
+        int stopper = textEnd;
+        if (maxDigits > 0)
+            stopper = Math.min(stopper, i + maxDigits);
+        while (i < stopper && isDigit(byteAt(i)))
+            i++;
+        if (i - index < minDigits)
+            return false;
+        start = index;
+        index = i;
+        return true;
+    }
+
+    /**
+     * Match the bytes at the index as decimal digits, with a minimum of 1 digit and an
+     * optional maximum.
+     *
+     * @param   maxDigits   the maximum number digits to match (or 0 to indicate no limit)
+     * @return  {@code true} if the bytes in the text at the index are decimal digits
+     */
+    public boolean matchDec(int maxDigits) {
+        return matchDec(maxDigits, 1);
+    }
+
+    /**
+     * Match the bytes at the index as decimal digits, with a minimum of 1 digit and no
+     * maximum.
+     *
+     * @return  {@code true} if the bytes in the text at the index are decimal digits
+     */
+    public boolean matchDec() {
+        return matchDec(0, 1);
+    }
+
+    /**
+     * Match the bytes at the index as hexadecimal digits, with a given minimum number of
+     * digits and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number digits to match (or 0 to indicate no limit)
+     * @param   minDigits   the minimum number digits for a successful match
+     * @return  {@code true} if the bytes in the text at the index are hexadecimal digits
+     *          (subject to the specified minimum and maximum number of digits)
+     */
+    public boolean matchHex(int maxDigits, int minDigits) {
+        int i = index;
+        int stopper = textEnd;
+        if (maxDigits > 0)
+            stopper = Math.min(stopper, i + maxDigits);
+        while (i < stopper && isHexDigit(byteAt(i)))
+            i++;
+        if (i - index < minDigits)
+            return false;
+        start = index;
+        index = i;
+        return true;
+    }
+
+    /**
+     * Match the bytes at the index as hexadecimal digits, with a minimum of 1 digit and an
+     * optional maximum.
+     *
+     * @param   maxDigits   the maximum number digits to match (or 0 to indicate no limit)
+     * @return  {@code true} if the bytes in the text at the index are hexadecimal digits
+     */
+    public boolean matchHex(int maxDigits) {
+        return matchHex(maxDigits, 1);
+    }
+
+    /**
+     * Match the bytes at the index as hexadecimal digits, with a minimum of 1 digit and no
+     * maximum.
+     *
+     * @return  {@code true} if the bytes in the text at the index are hexadecimal digits
+     */
+    public boolean matchHex() {
+        return matchHex(0, 1);
+    }
+
+    /**
+     * Match the bytes at the index as spaces.
+     *
+     * @return  {@code true} if the bytes in the text at the index are one or more spaces
+     */
+    public boolean matchSpaces() {
+        int i = index;
+        if (i >= textEnd || !isSpace(byteAt(i)))
+            return false;
+        start = i;
+        do {
+            i++;
+        } while (i < textEnd && isSpace(byteAt(i)));
+        index = i;
+        return true;
+    }
+
+    /**
+     * Match the bytes at the index as a name, where a name is defined as starting with a byte
+     * that matches {@link #isNameStart(int)}, followed by zero or more bytes that match
+     * {@link #isNameContinuation(int)}.
+     *
+     * @return  {@code true} if the bytes in the text at the index constitute a name
+     */
+    public boolean matchName() {
+        int i = index;
+        if (i >= textEnd || !isNameStart(byteAt(i)))
+            return false;
+        start = i;
+        do {
+            ++i;
+        } while (i < textEnd && isNameContinuation(byteAt(i)));
+        index = i;
+        return true;
+    }
+
+    /**
+     * Undo the effect of the last match operation.
+     *
+     * @return      the {@code ByteParseText} object (for chaining purposes)
+     */
+    public ByteParseText revert() {
+        index = start;
+        return this;
+    }
+
+    /**
+     * Reset the index to the start of the text.
+     *
+     * @return      the {@code ByteParseText} object (for chaining purposes)
+     */
+    public ByteParseText reset() {
+        index = textStart;
+        return this;
+    }
+
+    /**
+     * Increment the index by <i>n</i>.
+     *
+     * @param   n   the amount to add to the index
+     * @return      the {@code ByteParseText} object (for chaining purposes)
+     * @throws      IndexOutOfBoundsException if the result index would be beyond the end of
+     *              the text
+     */
+    public ByteParseText skip(int n) {
+        start = index;
+        setIndex(index + n);
+        return this;
+    }
+
+    /**
+     * Decrement the index by <i>n</i>.
+     *
+     * @param   n   the amount to subtract from the index
+     * @return      the {@code ByteParseText} object (for chaining purposes)
+     * @throws      IndexOutOfBoundsException if the result index would be before the start of
+     *              the text
+     */
+    public ByteParseText back(int n) {
+        setIndex(index - n);
+        return this;
+    }
+
+    /**
+     * Increment the index to the next occurrence of the given ASCII character.  The index is
+     * left positioned at the matched byte.
+     *
+     * @param   ch      the stopper character
+     * @return          the {@code ByteParseText} object (for chaining purposes)
+     */
+    public ByteParseText skipTo(char ch) {
+        int i = index;
+        start = i;
+        if (array != null) {
+            int j = offset + i;
+            int end = offset + textEnd;
+            while (j < end && (array[j] & 0xFF) != ch)
+                j++;
+            i = j - offset;
+        }
+        else {
+            while (i < textEnd && byteAt(i) != ch)
+                i++;
+        }
+        index = i;
+        return this;
+    }
+
+    /**
+     * Increment the index to the next occurrence of the stopper sequence.  The index is left
+     * positioned at the stopper sequence, or at the end of the text if it is not found.
+     *
+     * @param   target  the stopper sequence (ASCII)
+     * @return          the {@code ByteParseText} object (for chaining purposes)
+     */
+    public ByteParseText skipTo(CharSequence target) {
+        int len = target.length();
+        int i = index;
+        start = i;
+        int stopper = textEnd - len;
+    outer:
+        for (;;) {
+            if (i > stopper) {
+                i = textEnd;
+                break;
+            }
+            int j = 0;
+            for (;;) {
+                if (j >= len)
+                    break outer;
+                if (byteAt(i + j) != target.charAt(j))
+                    break;
+                j++;
+            }
+            i++;
+        }
+        index = i;
+        return this;
+    }
+
+    /**
+     * Increment the index past any bytes matching a given comparison function.
+     *
+     * @param   comparison  the comparison function
+     * @return              the {@code ByteParseText} object (for chaining purposes)
+     */
+    public ByteParseText skipPast(IntPredicate comparison) {
+        int i = index;
+        start = i;
+        while (i < textEnd && comparison.test(byteAt(i)))
+            i++;
+        index = i;
+        return this;
+    }
+
+    /**
+     * Increment the index to the next byte matching a given comparison function.
+     *
+     * @param   comparison  the comparison function
+     * @return              the {@code ByteParseText} object (for chaining purposes)
+     */
+    public ByteParseText skipTo(IntPredicate comparison) {
+        int i = index;
+        start = i;
+        while (i < textEnd && !comparison.test(byteAt(i)))
+            i++;
+        index = i;
+        return this;
+    }
+
+    /**
+     * Increment the index past zero or more spaces.
+     *
+     * @return      the {@code ByteParseText} object (for chaining purposes)
+     */
+    public ByteParseText skipSpaces() {
+        int i = index;
+        start = i;
+        while (i < textEnd && isSpace(byteAt(i)))
+            i++;
+        index = i;
+        return this;
+    }
+
+    /**
+     * Increment the index to the next space.
+     *
+     * @return  the {@code ByteParseText} object (for chaining purposes)
+     */
+    public ByteParseText skipToSpace() {
+        int i = index;
+        start = i;
+        while (i < textEnd && !isSpace(byteAt(i)))
+            i++;
+        index = i;
+        return this;
+    }
+
+    /**
+     * Increment the index directly to the end of the text.
+     *
+     * @return  the {@code ByteParseText} object (for chaining purposes)
+     */
+    public ByteParseText skipToEnd() {
+        start = index;
+        index = textEnd;
+        return this;
+    }
+
+    /**
+     * Test whether the given byte is a space.  This method may be overridden to provide for
+     * different definitions of a space.
+     *
+     * @param   b   the byte (as an unsigned value)
+     * @return      {@code true} if the byte is a space
+     */
+    public boolean isSpace(int b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+    }
+
+    /**
+     * Test whether the given byte is an ASCII decimal digit.
+     *
+     * @param   b   the byte (as an unsigned value)
+     * @return      {@code true} if the byte is a digit
+     */
+    public boolean isDigit(int b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * Test whether the given byte is an ASCII hexadecimal digit.
+     *
+     * @param   b   the byte (as an unsigned value)
+     * @return      {@code true} if the byte is a hexadecimal digit
+     */
+    public boolean isHexDigit(int b) {
+        return b >= '0' && b <= '9' || b >= 'A' && b <= 'F' || b >= 'a' && b <= 'f';
+    }
+
+    /**
+     * Test whether the given byte is the start character of a name.  This method may be
+     * overridden to provide for different definitions of a name.
+     *
+     * @param   b   the byte (as an unsigned value)
+     * @return      {@code true} if the byte is a name start character
+     */
+    public boolean isNameStart(int b) {
+        return b >= 'A' && b <= 'Z' || b >= 'a' && b <= 'z' || b == '_' || b == '$';
+    }
+
+    /**
+     * Test whether the given byte is a continuation character of a name.  This method may be
+     * overridden to provide for different definitions of a name.
+     *
+     * @param   b   the byte (as an unsigned value)
+     * @return      {@code true} if the byte is a name continuation character
+     */
+    public boolean isNameContinuation(int b) {
+        return isNameStart(b) || b >= '0' && b <= '9';
+    }
+
+    /**
+     * Create a {@link String} representation of the {@code ByteParseText} object, for
+     * debugging purposes.  The bytes are shown as ISO-8859-1 characters enclosed in square
+     * brackets, with a "{@code ~}" indicating the {@code start} position and a "{@code ^}" for
+     * the {@code index}.
+     *
+     * @return      the {@link String} representation of the object
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(textEnd - textStart + 4);
+        sb.append('[');
+        int i = textStart;
+        for (;;) {
+            if (i == start)
+                sb.append('~');
+            if (i == index)
+                sb.append('^');
+            if (i >= textEnd)
+                break;
+            sb.append((char)byteAt(i++));
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+
+}
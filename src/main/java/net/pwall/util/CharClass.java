@@ -0,0 +1,268 @@
+/*
+ * @(#) CharClass.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * A compiled set of characters, for use in parsing.  Membership of the first 256 characters
+ * (ASCII and Latin-1) is held in a bit set, so that testing one of those characters requires a
+ * single table lookup; other characters are held as a sorted array of ranges, searched by
+ * binary search.
+ *
+ * <p>A {@code CharClass} is an {@link IntPredicate}, so it may be used wherever a character
+ * test function is accepted (for example {@link ParseText#skipPast(IntPredicate)}), but
+ * {@link ParseText} also has overloads of {@code match}, {@code skipTo} and {@code skipPast}
+ * that take a {@code CharClass} directly.  Instances are immutable.</p>
+ *
+ * @author  Peter Wall
+ */
+public final class CharClass implements IntPredicate {
+
+    private static final int tableSize = 256;
+
+    private final long[] bits;
+    private final int[] ranges;
+    private final boolean inverted;
+
+    private CharClass(long[] bits, int[] ranges, boolean inverted) {
+        this.bits = bits;
+        this.ranges = ranges;
+        this.inverted = inverted;
+    }
+
+    /**
+     * Create a {@code CharClass} containing each of the characters in a {@link CharSequence}.
+     *
+     * @param   chars   the characters
+     * @return          the {@code CharClass}
+     */
+    public static CharClass of(CharSequence chars) {
+        Builder builder = new Builder();
+        for (int i = 0, n = chars.length(); i < n; i++)
+            builder.add(chars.charAt(i), chars.charAt(i));
+        return builder.build();
+    }
+
+    /**
+     * Create a {@code CharClass} containing each of the characters in an array.
+     *
+     * @param   chars   the characters (as an array or varargs list)
+     * @return          the {@code CharClass}
+     */
+    public static CharClass of(char ... chars) {
+        Builder builder = new Builder();
+        for (char ch : chars)
+            builder.add(ch, ch);
+        return builder.build();
+    }
+
+    /**
+     * Create a {@code CharClass} containing a range of characters.
+     *
+     * @param   from    the first character of the range
+     * @param   to      the last character of the range (inclusive)
+     * @return          the {@code CharClass}
+     * @throws  IllegalArgumentException if the range is invalid
+     */
+    public static CharClass range(char from, char to) {
+        if (to < from)
+            throw new IllegalArgumentException("CharClass range invalid");
+        return new Builder().add(from, to).build();
+    }
+
+    /**
+     * Create a {@code CharClass} from a specification in the style of a regular expression
+     * character class (without the enclosing brackets), for example {@code "A-Za-z0-9_"}.  A
+     * hyphen at the start or end of the specification is taken literally, and a backslash
+     * causes the following character to be taken literally.
+     *
+     * @param   spec    the specification
+     * @return          the {@code CharClass}
+     * @throws  IllegalArgumentException if the specification is invalid
+     */
+    public static CharClass parse(String spec) {
+        Builder builder = new Builder();
+        int i = 0;
+        int n = spec.length();
+        while (i < n) {
+            char from = spec.charAt(i++);
+            if (from == '\\') {
+                if (i >= n)
+                    throw new IllegalArgumentException("CharClass specification invalid: " + spec);
+                from = spec.charAt(i++);
+            }
+            char to = from;
+            if (i + 1 < n && spec.charAt(i) == '-') {
+                to = spec.charAt(i + 1);
+                i += 2;
+                if (to == '\\') {
+                    if (i >= n)
+                        throw new IllegalArgumentException("CharClass specification invalid: " +
+                                spec);
+                    to = spec.charAt(i++);
+                }
+                if (to < from)
+                    throw new IllegalArgumentException("CharClass range invalid: " + spec);
+            }
+            builder.add(from, to);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Test whether a character is a member of the class.
+     *
+     * @param   ch      the character (a negative value is never a member)
+     * @return          {@code true} if the character is a member of the class
+     */
+    @Override
+    public boolean test(int ch) {
+        if (ch < 0)
+            return false;
+        if (ch < tableSize)
+            return ((bits[ch >> 6] & (1L << ch)) != 0) != inverted;
+        return inRanges(ch) != inverted;
+    }
+
+    /**
+     * Test whether a character is a member of the class.
+     *
+     * @param   ch      the character
+     * @return          {@code true} if the character is a member of the class
+     */
+    public boolean contains(char ch) {
+        if (ch < tableSize)
+            return ((bits[ch >> 6] & (1L << ch)) != 0) != inverted;
+        return inRanges(ch) != inverted;
+    }
+
+    private boolean inRanges(int ch) {
+        int lo = 0;
+        int hi = ranges.length / 2 - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ch < ranges[mid * 2])
+                hi = mid - 1;
+            else if (ch > ranges[mid * 2 + 1])
+                lo = mid + 1;
+            else
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Create a {@code CharClass} containing all characters not in this class.
+     *
+     * @return          the inverted {@code CharClass}
+     */
+    @Override
+    public CharClass negate() {
+        return new CharClass(bits, ranges, !inverted);
+    }
+
+    /**
+     * Create a {@code CharClass} containing the characters in either this class or another.
+     *
+     * @param   other   the other {@code CharClass}
+     * @return          the union of the two classes
+     */
+    public CharClass union(CharClass other) {
+        Builder builder = new Builder();
+        addTo(builder);
+        other.addTo(builder);
+        return builder.build();
+    }
+
+    private void addTo(Builder builder) {
+        int rangeStart = -1;
+        for (int ch = 0; ch < tableSize; ch++) {
+            if (test(ch)) {
+                if (rangeStart < 0)
+                    rangeStart = ch;
+            }
+            else if (rangeStart >= 0) {
+                builder.add((char)rangeStart, (char)(ch - 1));
+                rangeStart = -1;
+            }
+        }
+        if (rangeStart >= 0)
+            builder.add((char)rangeStart, (char)(tableSize - 1));
+        if (!inverted) {
+            for (int i = 0; i < ranges.length; i += 2)
+                builder.add((char)ranges[i], (char)ranges[i + 1]);
+        }
+        else {
+            int next = tableSize;
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (ranges[i] > next)
+                    builder.add((char)next, (char)(ranges[i] - 1));
+                next = ranges[i + 1] + 1;
+            }
+            if (next <= Character.MAX_VALUE)
+                builder.add((char)next, Character.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Accumulates characters and ranges for a {@code CharClass}.
+     */
+    private static class Builder {
+
+        private final long[] bits = new long[tableSize / 64];
+        private final List<int[]> ranges = new ArrayList<>();
+
+        public Builder add(char from, char to) {
+            int ch = from;
+            for (; ch <= to && ch < tableSize; ch++)
+                bits[ch >> 6] |= 1L << ch;
+            if (ch <= to)
+                ranges.add(new int[] { ch, to });
+            return this;
+        }
+
+        public CharClass build() {
+            ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+            int[] merged = new int[ranges.size() * 2];
+            int n = 0;
+            for (int[] range : ranges) {
+                if (n > 0 && range[0] <= merged[n - 1] + 1)
+                    merged[n - 1] = Math.max(merged[n - 1], range[1]);
+                else {
+                    merged[n++] = range[0];
+                    merged[n++] = range[1];
+                }
+            }
+            return new CharClass(bits, Arrays.copyOf(merged, n), false);
+        }
+
+    }
+
+}
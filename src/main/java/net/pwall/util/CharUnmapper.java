@@ -62,4 +62,19 @@ public interface CharUnmapper {
      */
     int unmap(StringBuilder sb, CharSequence s, int offset);
 
+    /**
+     * Get the characters that may start an escape sequence.  If this method returns a
+     * non-{@code null} value, {@link #isEscape(CharSequence, int)} must return {@code false}
+     * for any character not in the returned string, and the "unescape" functions may then use
+     * {@link String#indexOf(int, int)} or similar to locate the next candidate escape sequence,
+     * copying the characters between candidates in bulk.  The default implementation returns
+     * {@code null}, meaning that every character must be tested.
+     *
+     * @return          the characters that may start an escape sequence, or {@code null}
+     * @see             Strings#unescape(String, CharUnmapper)
+     */
+    default String getTriggerChars() {
+        return null;
+    }
+
 }
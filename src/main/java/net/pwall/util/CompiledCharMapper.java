@@ -0,0 +1,220 @@
+/*
+ * @(#) CompiledCharMapper.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * An implementation of {@link CharMapper} that wraps another {@link CharMapper} and pre-computes
+ * the mappings for the first 256 code points (ASCII and Latin-1).  The result of the delegate
+ * mapper for each of these code points is stored in a table, along with a bit set recording
+ * which of them need to be escaped.  This allows the escape functions to scan forward over
+ * characters that do not need to be escaped without calling the delegate, and to append the
+ * unescaped characters in a single operation.
+ *
+ * <p>The delegate mapper must be stateless, that is, it must always return the same result for
+ * a given code point.</p>
+ *
+ * @author  Peter Wall
+ * @see     Strings#escape(String, CharMapper)
+ * @see     Strings#appendEscaped(Appendable, CharSequence, int, int, CharMapper)
+ */
+public class CompiledCharMapper implements CharMapper {
+
+    private static final int tableSize = 256;
+
+    private final CharMapper mapper;
+    private final String[] table;
+    private final long[] escapeBits;
+
+    /**
+     * Construct a {@code CompiledCharMapper} from the supplied delegate {@link CharMapper}.
+     *
+     * @param   mapper  the delegate {@link CharMapper}
+     * @throws  NullPointerException if the delegate is {@code null}
+     */
+    public CompiledCharMapper(CharMapper mapper) {
+        this.mapper = Objects.requireNonNull(mapper);
+        table = new String[tableSize];
+        escapeBits = new long[tableSize / 64];
+        for (int i = 0; i < tableSize; i++) {
+            String mapped = mapper.map(i);
+            if (mapped != null) {
+                table[i] = mapped;
+                escapeBits[i >> 6] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Get the delegate {@link CharMapper}.
+     *
+     * @return  the delegate
+     */
+    public CharMapper getMapper() {
+        return mapper;
+    }
+
+    /**
+     * Map character to it's "escaped" string equivalent.  Code points in the pre-computed
+     * range are mapped using the table; others are passed to the delegate.
+     *
+     * @param   codePoint   the Unicode code point of the character to be mapped
+     * @return              the escaped string equivalent, or {@code null} if no escape needed
+     */
+    @Override
+    public String map(int codePoint) {
+        return codePoint >= 0 && codePoint < tableSize ? table[codePoint] :
+                mapper.map(codePoint);
+    }
+
+    /**
+     * Test whether a character needs to be escaped.  For characters outside the pre-computed
+     * range this will call the delegate mapper.
+     *
+     * @param   ch      the character
+     * @return          {@code true} if the character will be mapped to an escape sequence
+     */
+    public boolean isEscaped(char ch) {
+        if (ch < tableSize)
+            return (escapeBits[ch >> 6] & (1L << ch)) != 0;
+        return mapper.map(ch) != null;
+    }
+
+    /**
+     * Find the next character in a {@link CharSequence} that needs to be escaped.
+     *
+     * @param   s       the {@link CharSequence}
+     * @param   index   the start index
+     * @param   end     the end index
+     * @return          the index of the next character to be escaped, or {@code end} if none
+     */
+    public int findEscape(CharSequence s, int index, int end) {
+        while (index < end && !isEscaped(s.charAt(index)))
+            index++;
+        return index;
+    }
+
+    /**
+     * Find the next character in a {@link String} that needs to be escaped.  This is the same
+     * as {@link #findEscape(CharSequence, int, int)}, but it avoids the interface call for each
+     * character.
+     *
+     * @param   s       the {@link String}
+     * @param   index   the start index
+     * @param   end     the end index
+     * @return          the index of the next character to be escaped, or {@code end} if none
+     */
+    public int findEscape(String s, int index, int end) {
+        while (index < end && !isEscaped(s.charAt(index)))
+            index++;
+        return index;
+    }
+
+    /**
+     * Find the end of a run of characters in a {@link CharSequence} that lie within the
+     * pre-computed table range and do not need to be escaped.  Unlike
+     * {@link #findEscape(CharSequence, int, int)}, this stops at the first character outside the
+     * table range, whether or not it needs to be escaped, so the run may be copied without
+     * further checks.
+     *
+     * @param   s       the {@link CharSequence}
+     * @param   index   the start index
+     * @param   end     the end index
+     * @return          the index of the first character that is escaped or outside the table
+     *                  range, or {@code end} if none
+     */
+    int findTableRunEnd(CharSequence s, int index, int end) {
+        while (index < end) {
+            char ch = s.charAt(index);
+            if (ch >= tableSize || (escapeBits[ch >> 6] & (1L << ch)) != 0)
+                break;
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Replace certain characters in a string with their mapped equivalents.  If the string
+     * contains no characters to be mapped, the original string is returned unmodified.
+     *
+     * @param   s       the string to be converted
+     * @return  the string with characters mapped as required
+     */
+    public String escape(String s) {
+        int n = s.length();
+        int i = findEscape(s, 0, n);
+        if (i == n)
+            return s;
+        StringBuilder sb = new StringBuilder(n + 16);
+        sb.append(s, 0, i);
+        try {
+            appendEscaped(sb, s, i, n);
+        }
+        catch (IOException e) {
+            // can't happen - StringBuilder.append() does not throw IOException
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Append characters to an {@link Appendable}, mapping them to their "escaped" equivalents.
+     * Runs of characters that do not need to be escaped are appended in a single operation.
+     *
+     * @param   a       the {@link Appendable} (e.g. a {@link StringBuilder})
+     * @param   s       the source {@link CharSequence}
+     * @param   index   the start index within the source
+     * @param   end     the end index within the source
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    public void appendEscaped(Appendable a, CharSequence s, int index, int end)
+            throws IOException {
+        int runStart = index;
+        while (index < end) {
+            char ch = s.charAt(index);
+            String mapped;
+            if (ch < tableSize) {
+                if ((escapeBits[ch >> 6] & (1L << ch)) == 0) {
+                    index++;
+                    continue;
+                }
+                mapped = table[ch];
+            }
+            else if ((mapped = mapper.map(ch)) == null) {
+                index++;
+                continue;
+            }
+            if (index > runStart)
+                a.append(s, runStart, index);
+            a.append(mapped);
+            runStart = ++index;
+        }
+        if (index > runStart)
+            a.append(s, runStart, index);
+    }
+
+}
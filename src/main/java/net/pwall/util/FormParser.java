@@ -0,0 +1,339 @@
+/*
+ * @(#) FormParser.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Objects;
+
+/**
+ * A parser for {@code application/x-www-form-urlencoded} data, as used in HTML form
+ * submissions and URI query strings.  The input is examined in a single pass, and each
+ * name/value pair is passed to a {@link Handler} as a {@link Field}; the name and value are
+ * decoded (using {@link URI#unescape(CharSequence, int, int)}) only when requested.
+ *
+ * <p>The parser may be configured with a limit on the number of fields and on the length of
+ * an individual field (name, "=" and value).  When input is taken from a {@link Reader}, only
+ * a single field is held in memory at any time, so memory use is bounded by the maximum field
+ * length regardless of the size of the input.</p>
+ *
+ * <p>For example, to process a query string:</p>
+ * <pre>
+ *     new FormParser().parse(queryString, field -&gt; {
+ *         if (field.nameEquals("id"))
+ *             processId(field.getValue());
+ *     });
+ * </pre>
+ *
+ * @author  Peter Wall
+ */
+public class FormParser {
+
+    public static final int defaultReadBufferSize = 4096;
+
+    private final int maxFields;
+    private final int maxFieldLength;
+
+    /**
+     * Construct a {@code FormParser} with the specified limits.
+     *
+     * @param   maxFields       the maximum number of fields (or 0 to indicate no limit)
+     * @param   maxFieldLength  the maximum length of an individual field in its encoded form
+     *                          (or 0 to indicate no limit)
+     * @throws  IllegalArgumentException if either limit is negative
+     */
+    public FormParser(int maxFields, int maxFieldLength) {
+        if (maxFields < 0)
+            throw new IllegalArgumentException("Maximum fields must be >= 0");
+        if (maxFieldLength < 0)
+            throw new IllegalArgumentException("Maximum field length must be >= 0");
+        this.maxFields = maxFields;
+        this.maxFieldLength = maxFieldLength;
+    }
+
+    /**
+     * Construct a {@code FormParser} with no limits.
+     */
+    public FormParser() {
+        this(0, 0);
+    }
+
+    /**
+     * Get the maximum number of fields.
+     *
+     * @return  the maximum number of fields (0 indicates no limit)
+     */
+    public int getMaxFields() {
+        return maxFields;
+    }
+
+    /**
+     * Get the maximum field length.
+     *
+     * @return  the maximum field length (0 indicates no limit)
+     */
+    public int getMaxFieldLength() {
+        return maxFieldLength;
+    }
+
+    /**
+     * Parse form data from a {@link CharSequence}, passing each field to the supplied
+     * {@link Handler}.  Empty fields (e.g. from consecutive "&amp;" characters) are ignored.
+     *
+     * @param   text    the form data
+     * @param   handler the {@link Handler}
+     * @throws  IllegalArgumentException if either of the limits is exceeded
+     */
+    public void parse(CharSequence text, Handler handler) {
+        Objects.requireNonNull(handler);
+        ParseText pt = new ParseText(text);
+        Field field = new Field();
+        int count = 0;
+        while (!pt.isExhausted()) {
+            pt.skipTo('&');
+            int fieldStart = pt.getStart();
+            int fieldEnd = pt.getIndex();
+            if (fieldEnd > fieldStart) {
+                checkLimits(++count, fieldEnd - fieldStart);
+                handler.field(field.set(text, fieldStart, fieldEnd));
+            }
+            pt.match('&');
+        }
+    }
+
+    /**
+     * Parse form data from a {@link CharSequence}, returning the fields in a {@link ListMap}
+     * of decoded names and values.  A field with no "=" is stored with a value of
+     * {@code null}; if a name occurs more than once, the last value is retained.
+     *
+     * @param   text    the form data
+     * @return          the {@link ListMap}
+     * @throws  IllegalArgumentException if either of the limits is exceeded
+     */
+    public ListMap<String, String> parse(CharSequence text) {
+        ListMap<String, String> result = new ListMap<>();
+        parse(text, field -> result.put(field.getName(), field.getValue()));
+        return result;
+    }
+
+    /**
+     * Parse form data from a {@link Reader}, passing each field to the supplied
+     * {@link Handler}.  Only the current field is held in memory.
+     *
+     * @param   rdr     the {@link Reader}
+     * @param   handler the {@link Handler}
+     * @throws  IOException if thrown by the {@link Reader}
+     * @throws  IllegalArgumentException if either of the limits is exceeded
+     */
+    public void parse(Reader rdr, Handler handler) throws IOException {
+        Objects.requireNonNull(handler);
+        char[] buffer = new char[defaultReadBufferSize];
+        StringBuilder sb = new StringBuilder();
+        Field field = new Field();
+        int count = 0;
+        for (;;) {
+            int n = rdr.read(buffer);
+            if (n < 0)
+                break;
+            int runStart = 0;
+            for (int i = 0; i < n; i++) {
+                if (buffer[i] == '&') {
+                    sb.append(buffer, runStart, i - runStart);
+                    if (sb.length() > 0) {
+                        checkLimits(++count, sb.length());
+                        handler.field(field.set(sb, 0, sb.length()));
+                        sb.setLength(0);
+                    }
+                    runStart = i + 1;
+                }
+            }
+            sb.append(buffer, runStart, n - runStart);
+            if (maxFieldLength > 0 && sb.length() > maxFieldLength)
+                throw new IllegalArgumentException("Form field too long");
+        }
+        if (sb.length() > 0) {
+            checkLimits(++count, sb.length());
+            handler.field(field.set(sb, 0, sb.length()));
+        }
+    }
+
+    /**
+     * Parse form data from a {@link Reader}, returning the fields in a {@link ListMap} of
+     * decoded names and values.
+     *
+     * @param   rdr     the {@link Reader}
+     * @return          the {@link ListMap}
+     * @throws  IOException if thrown by the {@link Reader}
+     * @throws  IllegalArgumentException if either of the limits is exceeded
+     * @see     #parse(CharSequence)
+     */
+    public ListMap<String, String> parse(Reader rdr) throws IOException {
+        ListMap<String, String> result = new ListMap<>();
+        parse(rdr, field -> result.put(field.getName(), field.getValue()));
+        return result;
+    }
+
+    /**
+     * Check the field count and field length against the limits.
+     *
+     * @param   count   the field count
+     * @param   length  the field length
+     * @throws  IllegalArgumentException if either limit is exceeded
+     */
+    private void checkLimits(int count, int length) {
+        if (maxFields > 0 && count > maxFields)
+            throw new IllegalArgumentException("Too many form fields");
+        if (maxFieldLength > 0 && length > maxFieldLength)
+            throw new IllegalArgumentException("Form field too long");
+    }
+
+    /**
+     * The interface for the callback function to process each field.
+     */
+    @FunctionalInterface
+    public interface Handler {
+
+        /**
+         * Process a field.  The {@link Field} object is re-used for each field, so the
+         * function must not retain a reference to it.
+         *
+         * @param   field   the {@link Field}
+         */
+        void field(Field field);
+
+    }
+
+    /**
+     * A field in the form data.  The name and value are held in encoded form, and are decoded
+     * only on request (the decoded form is retained in case of repeated requests).
+     */
+    public static class Field {
+
+        private CharSequence text;
+        private int nameStart;
+        private int nameEnd;
+        private int valueStart;
+        private int valueEnd;
+        private String name;
+        private String value;
+
+        /**
+         * Set the field to a new location in the text.
+         *
+         * @param   text    the text
+         * @param   start   the start index of the field
+         * @param   end     the end index of the field
+         * @return          {@code this} (for chaining)
+         */
+        private Field set(CharSequence text, int start, int end) {
+            this.text = text;
+            nameStart = start;
+            int i = start;
+            while (i < end && text.charAt(i) != '=')
+                i++;
+            nameEnd = i;
+            valueStart = i < end ? i + 1 : -1;
+            valueEnd = end;
+            name = null;
+            value = null;
+            return this;
+        }
+
+        /**
+         * Get the decoded name.
+         *
+         * @return  the name
+         * @throws  IllegalArgumentException if the name contains invalid escape sequences
+         */
+        public String getName() {
+            if (name == null)
+                name = URI.unescape(text, nameStart, nameEnd);
+            return name;
+        }
+
+        /**
+         * Get the decoded value.
+         *
+         * @return  the value, or {@code null} if the field has no "="
+         * @throws  IllegalArgumentException if the value contains invalid escape sequences
+         */
+        public String getValue() {
+            if (value == null && valueStart >= 0)
+                value = URI.unescape(text, valueStart, valueEnd);
+            return value;
+        }
+
+        /**
+         * Test whether the field has a value (i.e. whether it includes an "=").
+         *
+         * @return  {@code true} if the field has a value
+         */
+        public boolean hasValue() {
+            return valueStart >= 0;
+        }
+
+        /**
+         * Get the name in its encoded form.
+         *
+         * @return  the encoded name
+         */
+        public CharSequence getRawName() {
+            return new SubSequence(text, nameStart, nameEnd);
+        }
+
+        /**
+         * Get the value in its encoded form.
+         *
+         * @return  the encoded value, or {@code null} if the field has no "="
+         */
+        public CharSequence getRawValue() {
+            return valueStart >= 0 ? new SubSequence(text, valueStart, valueEnd) : null;
+        }
+
+        /**
+         * Test whether the name matches a given string.  If the name does not include any
+         * escape sequences, the comparison is performed without decoding.
+         *
+         * @param   str     the string to compare against
+         * @return          {@code true} if the name is equal to the string
+         */
+        public boolean nameEquals(String str) {
+            if (name != null)
+                return name.equals(str);
+            int len = nameEnd - nameStart;
+            for (int i = 0; i < len; i++) {
+                char ch = text.charAt(nameStart + i);
+                if (ch == '%' || ch == '+')
+                    return getName().equals(str);
+                if (i >= str.length() || str.charAt(i) != ch)
+                    return false;
+            }
+            return len == str.length();
+        }
+
+    }
+
+}
@@ -35,7 +35,7 @@ import java.io.IOException;
  */
 public class Java {
 
-    public static final CharMapper stringMapper = codePoint -> {
+    public static final CharMapper stringMapper = new CompiledCharMapper(codePoint -> {
         if (codePoint == '"')
             return "\\\"";
         if (codePoint == '\\')
@@ -53,9 +53,9 @@ public class Java {
         if (codePoint == '\f')
             return "\\f";
         return CharMapper.hexMapping(codePoint, 4, "\\u");
-    };
+    });
 
-    public static final CharMapper charMapper = codePoint -> {
+    public static final CharMapper charMapper = new CompiledCharMapper(codePoint -> {
         if (codePoint == '\'')
             return "\\'";
         if (codePoint == '\\')
@@ -73,7 +73,7 @@ public class Java {
         if (codePoint == '\f')
             return "\\f";
         return CharMapper.hexMapping(codePoint, 4, "\\u");
-    };
+    });
 
     /**
      * Private constructor - class is not to be instantiated.
@@ -0,0 +1,235 @@
+/*
+ * @(#) KeywordSet.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A compiled set of keywords, held as a trie so that the longest keyword matching the text at
+ * a given position may be found in a single pass over the text, regardless of the number of
+ * keywords.  Each keyword is identified by its position in the list supplied to the
+ * constructor; if the same keyword occurs more than once, the first occurrence is used.
+ *
+ * <p>A {@code KeywordSet} may be created to ignore case, in which case characters are compared
+ * after conversion to upper case and then to lower case (in the same manner as
+ * {@link String#equalsIgnoreCase(String)}).  Instances are immutable.</p>
+ *
+ * @author  Peter Wall
+ * @see     ParseText#matchKeyword(KeywordSet)
+ */
+public class KeywordSet {
+
+    private final String[] keywords;
+    private final boolean ignoreCase;
+    private final char[][] keys;
+    private final int[][] next;
+    private final int[] keywordIndex;
+
+    /**
+     * Construct a {@code KeywordSet} from an array of keywords.
+     *
+     * @param   ignoreCase  if {@code true}, the keywords are matched ignoring case
+     * @param   keywords    the keywords (as an array or varargs list)
+     * @throws  NullPointerException if any keyword is {@code null}
+     */
+    public KeywordSet(boolean ignoreCase, CharSequence ... keywords) {
+        this(ignoreCase, Arrays.asList(keywords));
+    }
+
+    /**
+     * Construct a case-sensitive {@code KeywordSet} from an array of keywords.
+     *
+     * @param   keywords    the keywords (as an array or varargs list)
+     * @throws  NullPointerException if any keyword is {@code null}
+     */
+    public KeywordSet(CharSequence ... keywords) {
+        this(false, Arrays.asList(keywords));
+    }
+
+    /**
+     * Construct a case-sensitive {@code KeywordSet} from a {@link Collection} of keywords.
+     *
+     * @param   keywords    the keywords
+     * @throws  NullPointerException if any keyword is {@code null}
+     */
+    public KeywordSet(Collection<? extends CharSequence> keywords) {
+        this(false, keywords);
+    }
+
+    /**
+     * Construct a {@code KeywordSet} from a {@link Collection} of keywords.
+     *
+     * @param   ignoreCase  if {@code true}, the keywords are matched ignoring case
+     * @param   keywords    the keywords
+     * @throws  NullPointerException if any keyword is {@code null}
+     */
+    public KeywordSet(boolean ignoreCase, Collection<? extends CharSequence> keywords) {
+        this.ignoreCase = ignoreCase;
+        this.keywords = new String[keywords.size()];
+        List<char[]> keyList = new ArrayList<>();
+        List<int[]> nextList = new ArrayList<>();
+        List<Integer> indexList = new ArrayList<>();
+        keyList.add(new char[0]);
+        nextList.add(new int[0]);
+        indexList.add(-1);
+        int k = 0;
+        for (CharSequence keyword : keywords) {
+            String s = keyword.toString();
+            this.keywords[k] = s;
+            int node = 0;
+            for (int i = 0, n = s.length(); i < n; i++) {
+                char ch = fold(s.charAt(i));
+                char[] nodeKeys = keyList.get(node);
+                int j = Arrays.binarySearch(nodeKeys, ch);
+                if (j >= 0)
+                    node = nextList.get(node)[j];
+                else {
+                    int child = keyList.size();
+                    keyList.add(new char[0]);
+                    nextList.add(new int[0]);
+                    indexList.add(-1);
+                    int insert = -j - 1;
+                    int[] nodeNext = nextList.get(node);
+                    char[] newKeys = new char[nodeKeys.length + 1];
+                    int[] newNext = new int[nodeKeys.length + 1];
+                    System.arraycopy(nodeKeys, 0, newKeys, 0, insert);
+                    System.arraycopy(nodeNext, 0, newNext, 0, insert);
+                    newKeys[insert] = ch;
+                    newNext[insert] = child;
+                    int rest = nodeKeys.length - insert;
+                    System.arraycopy(nodeKeys, insert, newKeys, insert + 1, rest);
+                    System.arraycopy(nodeNext, insert, newNext, insert + 1, rest);
+                    keyList.set(node, newKeys);
+                    nextList.set(node, newNext);
+                    node = child;
+                }
+            }
+            if (indexList.get(node) < 0)
+                indexList.set(node, k);
+            k++;
+        }
+        int nodes = keyList.size();
+        keys = keyList.toArray(new char[nodes][]);
+        next = nextList.toArray(new int[nodes][]);
+        keywordIndex = new int[nodes];
+        for (int i = 0; i < nodes; i++)
+            keywordIndex[i] = indexList.get(i);
+    }
+
+    /**
+     * Get the number of keywords.
+     *
+     * @return  the number of keywords
+     */
+    public int size() {
+        return keywords.length;
+    }
+
+    /**
+     * Get a keyword.
+     *
+     * @param   index   the index of the keyword
+     * @return          the keyword
+     * @throws  IndexOutOfBoundsException if the index is not valid
+     */
+    public String getKeyword(int index) {
+        return keywords[index];
+    }
+
+    /**
+     * Test whether the keywords are matched ignoring case.
+     *
+     * @return  {@code true} if the keywords are matched ignoring case
+     */
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    /**
+     * Find the longest keyword matching the characters of a {@link CharSequence} at a given
+     * position.
+     *
+     * @param   cs      the {@link CharSequence}
+     * @param   start   the start index
+     * @param   end     the end index (the match will not extend beyond this point)
+     * @return          the index of the matching keyword, or -1 if no keyword matches
+     */
+    public int match(CharSequence cs, int start, int end) {
+        int node = 0;
+        int result = keywordIndex[0];
+        for (int i = start; i < end; i++) {
+            node = step(node, cs.charAt(i));
+            if (node < 0)
+                break;
+            if (keywordIndex[node] >= 0)
+                result = keywordIndex[node];
+        }
+        return result;
+    }
+
+    /**
+     * Get the keyword index for a node of the trie (for use by {@link ParseText}).
+     *
+     * @param   node    the node (0 for the root)
+     * @return          the index of the keyword ending at that node, or -1
+     */
+    int getKeywordIndex(int node) {
+        return keywordIndex[node];
+    }
+
+    /**
+     * Follow a transition in the trie (for use by {@link ParseText}).
+     *
+     * @param   node    the current node (0 for the root)
+     * @param   ch      the next character
+     * @return          the next node, or -1 if there is no transition
+     */
+    int step(int node, char ch) {
+        char[] nodeKeys = keys[node];
+        int n = nodeKeys.length;
+        if (n == 0)
+            return -1;
+        if (ignoreCase)
+            ch = fold(ch);
+        int j = n <= 8 ? linearSearch(nodeKeys, ch) : Arrays.binarySearch(nodeKeys, ch);
+        return j >= 0 ? next[node][j] : -1;
+    }
+
+    private static int linearSearch(char[] array, char ch) {
+        for (int i = 0; i < array.length; i++)
+            if (array[i] == ch)
+                return i;
+        return -1;
+    }
+
+    private char fold(char ch) {
+        return ignoreCase ? Character.toLowerCase(Character.toUpperCase(ch)) : ch;
+    }
+
+}
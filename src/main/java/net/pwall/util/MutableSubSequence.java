@@ -0,0 +1,233 @@
+/*
+ * @(#) MutableSubSequence.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.util.function.IntPredicate;
+
+/**
+ * A re-usable view of a portion of a {@link CharSequence}.  Unlike {@link SubSequence}, the
+ * underlying sequence and the bounds may be changed after construction, so that a single
+ * instance may be used to process a large number of fields without creating an object for
+ * each one.
+ *
+ * <p>The {@link #toString()} method creates a new {@link String} on each call; the result is
+ * not cached because the view may change.</p>
+ *
+ * @author  Peter Wall
+ * @see     Strings#trimBounds(CharSequence, int, int, IntPredicate)
+ */
+public class MutableSubSequence implements CharSequence {
+
+    private CharSequence seq;
+    private int start;
+    private int end;
+
+    /**
+     * Construct an empty {@code MutableSubSequence}.
+     */
+    public MutableSubSequence() {
+        seq = "";
+        start = 0;
+        end = 0;
+    }
+
+    /**
+     * Construct a {@code MutableSubSequence} as a view of a portion of a {@link CharSequence}.
+     *
+     * @param   seq     the underlying {@link CharSequence}
+     * @param   start   the start index
+     * @param   end     the end index
+     * @throws  NullPointerException if the {@link CharSequence} is {@code null}
+     * @throws  IllegalArgumentException if the start or end index is invalid
+     */
+    public MutableSubSequence(CharSequence seq, int start, int end) {
+        set(seq, start, end);
+    }
+
+    /**
+     * Set the view to a portion of a {@link CharSequence}.
+     *
+     * @param   seq     the underlying {@link CharSequence}
+     * @param   start   the start index
+     * @param   end     the end index
+     * @return          {@code this} (for chaining)
+     * @throws  NullPointerException if the {@link CharSequence} is {@code null}
+     * @throws  IllegalArgumentException if the start or end index is invalid
+     */
+    public MutableSubSequence set(CharSequence seq, int start, int end) {
+        if (start < 0 || start > seq.length())
+            throw new IllegalArgumentException("SubSequence start incorrect");
+        if (end < start || end > seq.length())
+            throw new IllegalArgumentException("SubSequence end incorrect");
+        this.seq = seq;
+        this.start = start;
+        this.end = end;
+        return this;
+    }
+
+    /**
+     * Set the view to the whole of a {@link CharSequence}.
+     *
+     * @param   seq     the underlying {@link CharSequence}
+     * @return          {@code this} (for chaining)
+     * @throws  NullPointerException if the {@link CharSequence} is {@code null}
+     */
+    public MutableSubSequence set(CharSequence seq) {
+        return set(seq, 0, seq.length());
+    }
+
+    /**
+     * Set the bounds of the view within the current underlying {@link CharSequence}, using a
+     * packed bounds value.
+     *
+     * @param   bounds  the packed bounds (see {@link Strings#bounds(int, int)})
+     * @return          {@code this} (for chaining)
+     * @throws  IllegalArgumentException if the start or end index is invalid
+     */
+    public MutableSubSequence setBounds(long bounds) {
+        return set(seq, Strings.boundsStart(bounds), Strings.boundsEnd(bounds));
+    }
+
+    /**
+     * Trim leading and trailing characters from the view, where those characters match a
+     * supplied {@link IntPredicate} function.
+     *
+     * @param   test    the test function
+     * @return          {@code this} (for chaining)
+     * @throws  NullPointerException if the test is {@code null}
+     */
+    public MutableSubSequence trim(IntPredicate test) {
+        long bounds = Strings.trimBounds(seq, start, end, test);
+        start = Strings.boundsStart(bounds);
+        end = Strings.boundsEnd(bounds);
+        return this;
+    }
+
+    /**
+     * Trim leading and trailing whitespace from the view, where white space is determined by
+     * {@link Character#isWhitespace(char)}.
+     *
+     * @return          {@code this} (for chaining)
+     */
+    public MutableSubSequence trim() {
+        return trim(Character::isWhitespace);
+    }
+
+    /**
+     * Get the underlying {@link CharSequence}.
+     *
+     * @return          the underlying {@link CharSequence}
+     */
+    public CharSequence getSequence() {
+        return seq;
+    }
+
+    /**
+     * Get the start index of the view within the underlying {@link CharSequence}.
+     *
+     * @return          the start index
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Get the end index of the view within the underlying {@link CharSequence}.
+     *
+     * @return          the end index
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Get the bounds of the view, packed into a {@code long}.
+     *
+     * @return          the packed bounds
+     */
+    public long getBounds() {
+        return Strings.bounds(start, end);
+    }
+
+    /**
+     * Test whether the content of the view is equal to a given {@link CharSequence}.
+     *
+     * @param   cs      the {@link CharSequence} to compare against
+     * @return          {@code true} if the characters are the same
+     */
+    public boolean contentEquals(CharSequence cs) {
+        int len = end - start;
+        if (cs.length() != len)
+            return false;
+        for (int i = 0; i < len; i++)
+            if (cs.charAt(i) != seq.charAt(start + i))
+                return false;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= end - start)
+            throw new StringIndexOutOfBoundsException("Subsequence index incorrect");
+        return seq.charAt(index + start);
+    }
+
+    /**
+     * {@inheritDoc}  The result is an independent {@link SubSequence}, unaffected by later
+     * changes to this view.
+     */
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        int len = length();
+        if (start < 0 || start > len)
+            throw new StringIndexOutOfBoundsException("Subsequence start index incorrect");
+        if (end < start || end > len)
+            throw new StringIndexOutOfBoundsException("Subsequence end index incorrect");
+        return new SubSequence(seq, start + this.start, end + this.start);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        if (seq instanceof String)
+            return ((String)seq).substring(start, end);
+        return new StringBuilder(end - start).append(seq, start, end).toString();
+    }
+
+}
@@ -26,6 +26,7 @@
 package net.pwall.util;
 
 import java.io.IOException;
+import java.nio.CharBuffer;
 import java.util.Collection;
 import java.util.function.IntPredicate;
 
@@ -49,11 +50,19 @@ import java.util.function.IntPredicate;
  * results of any method of this class are undefined in the case of concurrent modification of
  * the text.</p>
  *
+ * <p>When the text is a {@link String} or a {@code char} array, characters are read directly
+ * from the {@link String} or the array rather than through the {@link CharSequence} interface;
+ * this avoids a polymorphic call for each character when the class is used with several
+ * different implementations of {@link CharSequence}.</p>
+ *
  * @author Peter Wall
  */
 public class ParseText {
 
     private CharSequence text;
+    private String string;
+    private char[] chars;
+    private int fixedLength;
     private int index;
     private int start;
 
@@ -94,6 +103,15 @@ public class ParseText {
         if (text == null)
             throw new NullPointerException("ParseText data invalid");
         this.text = text;
+        chars = null;
+        if (text instanceof String) {
+            string = (String)text;
+            fixedLength = string.length();
+        }
+        else {
+            string = null;
+            fixedLength = -1;
+        }
         setIndex(index);
         start = index;
         return this;
@@ -111,6 +129,66 @@ public class ParseText {
         return this;
     }
 
+    /**
+     * Set the text to a {@code char} array, and set the index within the text.  The start
+     * index is set to the same value as the index.  The array is not copied, so changes to the
+     * array will be visible to the {@code ParseText}; {@link #getText()} will return a
+     * {@link CharBuffer} wrapping the array.
+     *
+     * @param   chars   the {@code char} array
+     * @param   index   the index
+     * @return          the {@code ParseText} object (for chaining purposes)
+     * @throws  NullPointerException if the array is {@code null}
+     * @throws  StringIndexOutOfBoundsException if the index is outside the bounds of the text
+     */
+    public ParseText setChars(char[] chars, int index) {
+        if (chars == null)
+            throw new NullPointerException("ParseText data invalid");
+        text = CharBuffer.wrap(chars);
+        string = null;
+        this.chars = chars;
+        fixedLength = chars.length;
+        setIndex(index);
+        start = index;
+        return this;
+    }
+
+    /**
+     * Set the text to a {@code char} array.  The index and start index are set to zero.
+     *
+     * @param   chars   the {@code char} array
+     * @return          the {@code ParseText} object (for chaining purposes)
+     * @throws  NullPointerException if the array is {@code null}
+     */
+    public ParseText setChars(char[] chars) {
+        return setChars(chars, 0);
+    }
+
+    /**
+     * Get a character from the text, using the {@link String} or {@code char} array directly
+     * where possible.
+     *
+     * @param   i       the index of the character
+     * @return          the character
+     */
+    private char textChar(int i) {
+        if (chars != null)
+            return chars[i];
+        if (string != null)
+            return string.charAt(i);
+        return text.charAt(i);
+    }
+
+    /**
+     * Get the length of the text, avoiding the interface call for a {@link String} or a
+     * {@code char} array.
+     *
+     * @return          the length
+     */
+    private int textLength() {
+        return fixedLength >= 0 ? fixedLength : text.length();
+    }
+
     /**
      * Get the entire text from the {@code ParseText} object (as a {@link CharSequence}).
      *
@@ -126,7 +204,7 @@ public class ParseText {
      * @return  the text length
      */
     public int getTextLength() {
-        return text.length();
+        return textLength();
     }
 
     /**
@@ -136,7 +214,7 @@ public class ParseText {
      * @return  {@code true} if the index has reached the end of the text
      */
     public boolean isExhausted() {
-        return index >= text.length();
+        return index >= textLength();
     }
 
     /**
@@ -156,7 +234,7 @@ public class ParseText {
      * @throws  StringIndexOutOfBoundsException if the index is outside the bounds of the text
      */
     public ParseText setIndex(int index) {
-        if (index < 0 || index > text.length())
+        if (index < 0 || index > textLength())
             throw new StringIndexOutOfBoundsException("ParseText index invalid");
         this.index = index;
         return this;
@@ -182,9 +260,9 @@ public class ParseText {
      */
     public char getChar() {
         start = index;
-        if (index >= text.length())
+        if (index >= textLength())
             throw new StringIndexOutOfBoundsException("ParseText exhausted");
-        return text.charAt(index++);
+        return textChar(index++);
     }
 
     /**
@@ -196,11 +274,11 @@ public class ParseText {
      */
     public int getCodePoint() {
         start = index;
-        if (index >= text.length())
+        if (index >= textLength())
             throw new StringIndexOutOfBoundsException("ParseText exhausted");
-        char ch = text.charAt(index++);
-        if (Character.isHighSurrogate(ch) && index < text.length()) {
-            char ch2 = text.charAt(index);
+        char ch = textChar(index++);
+        if (Character.isHighSurrogate(ch) && index < textLength()) {
+            char ch2 = textChar(index);
             if (Character.isLowSurrogate(ch2)) {
                 index++;
                 return (Character.toCodePoint(ch, ch2));
@@ -218,6 +296,8 @@ public class ParseText {
      * @throws  IndexOutOfBoundsException if the start and end offsets are invalid
      */
     public String getString(int from, int to) {
+        if (string != null)
+            return string.substring(from, to);
         return text.subSequence(from, to).toString();
     }
 
@@ -260,7 +340,9 @@ public class ParseText {
     }
 
     /**
-     * Get an {@code int} from the text.
+     * Get an {@code int} from the text.  If {@link #useFastConversion()} returns {@code true},
+     * the conversion is delegated to {@link Strings#convertToInt(CharSequence, int, int)} (or
+     * the {@code char} array equivalent), which processes the digits eight at a time.
      *
      * @param   from    the start offset
      * @param   to      the end offset
@@ -273,9 +355,12 @@ public class ParseText {
     public int getInt(int from, int to) {
         if (to <= from)
             throw new NumberFormatException();
+        if (useFastConversion())
+            return chars != null ? Strings.convertToInt(chars, from, to) :
+                    Strings.convertToInt(text, from, to);
         int result = 0;
         for (int i = from; i < to; i++) {
-            int n = convertDecDigit(text.charAt(i));
+            int n = convertDecDigit(textChar(i));
             if (result > MAX_INT_DIV_10 || result == MAX_INT_DIV_10 && n > MAX_INT_MOD_10)
                 throw new NumberFormatException();
             result = result * 10 + n;
@@ -298,7 +383,9 @@ public class ParseText {
     }
 
     /**
-     * Get a {@code long} from the text.
+     * Get a {@code long} from the text.  If {@link #useFastConversion()} returns {@code true},
+     * the conversion is delegated to {@link Strings#convertToLong(CharSequence, int, int)} (or
+     * the {@code char} array equivalent), which processes the digits eight at a time.
      *
      * @param   from    the start offset
      * @param   to      the end offset
@@ -311,9 +398,12 @@ public class ParseText {
     public long getLong(int from, int to) {
         if (to <= from)
             throw new NumberFormatException();
+        if (useFastConversion())
+            return chars != null ? Strings.convertToLong(chars, from, to) :
+                    Strings.convertToLong(text, from, to);
         long result = 0;
         for (int i = from; i < to; i++) {
-            int n = convertDecDigit(text.charAt(i));
+            int n = convertDecDigit(textChar(i));
             if (result > MAX_LONG_DIV_10 || result == MAX_LONG_DIV_10 && n > MAX_LONG_MOD_10)
                 throw new NumberFormatException();
             result = result * 10 + n;
@@ -321,6 +411,20 @@ public class ParseText {
         return result;
     }
 
+    /**
+     * Test whether {@link #getInt(int, int)} and {@link #getLong(int, int)} may delegate to the
+     * optimised conversion functions in {@link Strings}, which use the standard definition of a
+     * decimal digit ({@code '0'} to {@code '9'}).  The default implementation returns
+     * {@code true} only if the class has not been extended, because a subclass may have
+     * overridden {@link #isDigit(char)} or {@link #convertDecDigit(char)}; a subclass that uses
+     * the standard definition may override this method to return {@code true}.
+     *
+     * @return  {@code true} if the optimised conversion functions may be used
+     */
+    protected boolean useFastConversion() {
+        return getClass() == ParseText.class;
+    }
+
     /**
      * Convert a decimal digit to the integer value of the digit.  This method may be overridden
      * to provide for different definitions of a decimal digit.  If this method is overridden it
@@ -368,7 +472,7 @@ public class ParseText {
         for (int i = from; i < to; i++) {
             if ((result & MAX_INT_MASK) != 0)
                 throw new NumberFormatException();
-            result = result << 4 | convertHexDigit(text.charAt(i));
+            result = result << 4 | convertHexDigit(textChar(i));
         }
         return result;
     }
@@ -405,7 +509,7 @@ public class ParseText {
         for (int i = from; i < to; i++) {
             if ((result & MAX_LONG_MASK) != 0)
                 throw new NumberFormatException();
-            result = result << 4 | convertHexDigit(text.charAt(i));
+            result = result << 4 | convertHexDigit(textChar(i));
         }
         return result;
     }
@@ -438,6 +542,26 @@ public class ParseText {
         return index - start;
     }
 
+    /**
+     * Get the end offset of the result of the last match operation (the current index).  The
+     * start offset of the result is returned by {@link #getStart()}.
+     *
+     * @return  the end offset of the result
+     */
+    public int getResultEnd() {
+        return index;
+    }
+
+    /**
+     * Get the start and end offsets of the result of the last match operation, packed into a
+     * {@code long} (see {@link Strings#bounds(int, int)}).
+     *
+     * @return  the bounds of the result
+     */
+    public long getResultBounds() {
+        return Strings.bounds(start, index);
+    }
+
     /**
      * Get the result of the last match operation (or the first character of a longer match) as
      * a single character.
@@ -445,7 +569,7 @@ public class ParseText {
      * @return  the first character of the result of the last match
      */
     public char getResultChar() {
-        return text.charAt(start);
+        return textChar(start);
     }
 
     /**
@@ -464,9 +588,51 @@ public class ParseText {
      * @return  the result of the last match
      */
     public String getResultString() {
+        if (string != null)
+            return string.substring(start, index);
+        if (chars != null)
+            return new String(chars, start, index - start);
         return text.subSequence(start, index).toString();
     }
 
+    /**
+     * Get the result of the last match operation as a {@link String}, using a
+     * {@link StringCache} to avoid creating a new {@link String} when the same result has been
+     * seen recently.
+     *
+     * @param   cache   the {@link StringCache}
+     * @return          the result of the last match
+     */
+    public String getResultString(StringCache cache) {
+        if (chars != null)
+            return cache.get(chars, start, index);
+        return cache.get(text, start, index);
+    }
+
+    /**
+     * Copy the result character sequence to a {@code char} array.
+     *
+     * @param   array   the {@code char} array
+     * @param   offset  the offset in the array at which to store the characters
+     * @return          the offset following the copied characters
+     * @throws  IndexOutOfBoundsException if the array is too small
+     */
+    public int appendResultTo(char[] array, int offset) {
+        int len = index - start;
+        if (offset < 0 || offset + len > array.length)
+            throw new IndexOutOfBoundsException();
+        if (chars != null)
+            System.arraycopy(chars, start, array, offset, len);
+        else if (string != null)
+            string.getChars(start, index, array, offset);
+        else {
+            for (int i = start; i < index; i++)
+                array[offset++] = text.charAt(i);
+            return offset;
+        }
+        return offset + len;
+    }
+
     /**
      * Copy the result character sequence to a {@link StringBuilder}.  This is equivalent to but
      * more efficient than
@@ -479,6 +645,8 @@ public class ParseText {
      * @return          the {@link StringBuilder} (for chaining purposes)
      */
     public StringBuilder appendResultTo(StringBuilder sb) {
+        if (chars != null)
+            return sb.append(chars, start, index - start);
         return sb.append(text, start, index);
     }
 
@@ -506,7 +674,7 @@ public class ParseText {
      * @return  {@code true} if that number of characters are available
      */
     public boolean available(int len) {
-        return index + len <= text.length();
+        return index + len <= textLength();
     }
 
     /**
@@ -515,7 +683,7 @@ public class ParseText {
      * @return  the length of the text
      */
     public int length() {
-        return text.length();
+        return textLength();
     }
 
     /**
@@ -526,7 +694,7 @@ public class ParseText {
      * @throws  IndexOutOfBoundsException if the index is negative or beyond the end of the text
      */
     public char charAt(int index) {
-        return text.charAt(index);
+        return textChar(index);
     }
 
     /**
@@ -539,13 +707,13 @@ public class ParseText {
      */
     public boolean match(int cp) {
         int i = index;
-        if (i >= text.length())
+        if (i >= textLength())
             return false;
-        char ch = text.charAt(i++);
+        char ch = textChar(i++);
         if (Character.isHighSurrogate(ch)) {
-            if (i >= text.length())
+            if (i >= textLength())
                 return false;
-            char ch2 = text.charAt(i++);
+            char ch2 = textChar(i++);
             if (!Character.isLowSurrogate(ch2))
                 return false;
             if (Character.toCodePoint(ch, ch2) != cp)
@@ -568,7 +736,7 @@ public class ParseText {
      * @return  {@code true} if the character in the text matches the given character
      */
     public boolean match(char ch) {
-        if (index >= text.length() || text.charAt(index) != ch)
+        if (index >= textLength() || textChar(index) != ch)
             return false;
         start = index++;
         return true;
@@ -583,7 +751,7 @@ public class ParseText {
      * @return    {@code true} if the character in the text matches the given character
      */
     public boolean matchIgnoreCase(char ch) {
-        if (index >= text.length() || !equalIgnoreCase(text.charAt(index), ch))
+        if (index >= textLength() || !equalIgnoreCase(textChar(index), ch))
             return false;
         start = index++;
         return true;
@@ -612,9 +780,9 @@ public class ParseText {
      * @return     {@code true} if the character in the text falls in the given range
      */
     public boolean matchRange(char from, char to) {
-        if (index >= text.length())
+        if (index >= textLength())
             return false;
-        char ch = text.charAt(index);
+        char ch = textChar(index);
         if (ch < from || ch > to)
             return false;
         start = index++;
@@ -631,9 +799,9 @@ public class ParseText {
      *              the string
      */
     public boolean matchAnyOf(String str) {
-        if (index >= text.length())
+        if (index >= textLength())
             return false;
-        if (str.indexOf(text.charAt(index)) < 0)
+        if (str.indexOf(textChar(index)) < 0)
             return false;
         start = index++;
         return true;
@@ -652,9 +820,9 @@ public class ParseText {
     public boolean matchAnyOf(char ... array) {
         if (array.length == 0)
             throw new IllegalArgumentException("Array must not be empty");
-        if (index >= text.length())
+        if (index >= textLength())
             return false;
-        char ch = text.charAt(index);
+        char ch = textChar(index);
         for (int i = 0, n = array.length; i < n; i++) {
             if (ch == array[i]) {
                 start = index++;
@@ -664,6 +832,21 @@ public class ParseText {
         return false;
     }
 
+    /**
+     * Match the current character in the text against a {@link CharClass}.  Following a
+     * successful match the start index will point to the matched character and the index will
+     * be incremented past it.
+     *
+     * @param charClass the {@link CharClass}
+     * @return          {@code true} if the character in the text is a member of the class
+     */
+    public boolean match(CharClass charClass) {
+        if (index >= textLength() || !charClass.contains(textChar(index)))
+            return false;
+        start = index++;
+        return true;
+    }
+
     /**
      * Match the characters at the index against a given {@link CharSequence} ({@link String},
      * {@link StringBuilder} etc.).  Following a successful match the start index will point to
@@ -674,12 +857,12 @@ public class ParseText {
      */
     public boolean match(CharSequence target) {
         int len = target.length();
-        if (index + len > text.length())
+        if (index + len > textLength())
             return false;
         int i = index;
         int j = 0;
         for (; len > 0; len--)
-            if (text.charAt(i++) != target.charAt(j++))
+            if (textChar(i++) != target.charAt(j++))
                 return false;
         start = index;
         index = i;
@@ -697,14 +880,14 @@ public class ParseText {
      */
     public boolean matchName(CharSequence target) {
         int len = target.length();
-        if (index + len > text.length())
+        if (index + len > textLength())
             return false;
         int i = index;
         int j = 0;
         for (; len > 0; len--)
-            if (text.charAt(i++) != target.charAt(j++))
+            if (textChar(i++) != target.charAt(j++))
                 return false;
-        if (i < text.length() && isNameContinuation(text.charAt(i)))
+        if (i < textLength() && isNameContinuation(textChar(i)))
             return false;
         start = index;
         index = i;
@@ -748,6 +931,49 @@ public class ParseText {
         return false;
     }
 
+    /**
+     * Match the characters at the index against the keywords in a {@link KeywordSet}, selecting
+     * the longest matching keyword.  The characters are examined in a single pass, regardless
+     * of the number of keywords.  Following a successful match the start index will point to
+     * the first character of the matched keyword and the index will be incremented past it.
+     *
+     * @param keywordSet    the {@link KeywordSet}
+     * @return              the index of the matched keyword in the {@link KeywordSet}, or -1 if
+     *                      no keyword matches
+     */
+    public int matchKeyword(KeywordSet keywordSet) {
+        int node = 0;
+        int result = keywordSet.getKeywordIndex(0);
+        int matchEnd = index;
+        for (int i = index, len = textLength(); i < len; ) {
+            node = keywordSet.step(node, textChar(i++));
+            if (node < 0)
+                break;
+            int k = keywordSet.getKeywordIndex(node);
+            if (k >= 0) {
+                result = k;
+                matchEnd = i;
+            }
+        }
+        if (result >= 0) {
+            start = index;
+            index = matchEnd;
+        }
+        return result;
+    }
+
+    /**
+     * Match the characters at the index against the keywords in a {@link KeywordSet}, selecting
+     * the longest matching keyword (see {@link #matchKeyword(KeywordSet)}).
+     *
+     * @param keywordSet    the {@link KeywordSet}
+     * @return              {@code true} if the characters in the text at the index match any of
+     *                      the keywords
+     */
+    public boolean match(KeywordSet keywordSet) {
+        return matchKeyword(keywordSet) >= 0;
+    }
+
     /**
      * Match the characters at the index against a given {@link CharSequence} ({@link String},
      * {@link StringBuilder} etc.), ignoring case.  Following a successful match the start index
@@ -759,12 +985,12 @@ public class ParseText {
      */
     public boolean matchIgnoreCase(CharSequence target) {
         int len = target.length();
-        if (index + len > text.length())
+        if (index + len > textLength())
             return false;
         int i = index;
         int j = 0;
         for (; len > 0; len--)
-            if (!equalIgnoreCase(text.charAt(i++), target.charAt(j++)))
+            if (!equalIgnoreCase(textChar(i++), target.charAt(j++)))
                 return false;
         start = index;
         index = i;
@@ -782,10 +1008,10 @@ public class ParseText {
      */
     public boolean matchDec(int maxDigits, int minDigits) {
         int i = index;
-        int stopper = text.length();
+        int stopper = textLength();
         if (maxDigits > 0)
             stopper = Math.min(stopper, i + maxDigits);
-        while (i < stopper && isDigit(text.charAt(i)))
+        while (i < stopper && isDigit(textChar(i)))
             i++;
         if (i - index < minDigits)
             return false;
@@ -838,10 +1064,10 @@ public class ParseText {
      */
     public boolean matchHex(int maxDigits, int minDigits) {
         int i = index;
-        int stopper = text.length();
+        int stopper = textLength();
         if (maxDigits > 0)
             stopper = Math.min(stopper, i + maxDigits);
-        while (i < stopper && isHexDigit(text.charAt(i)))
+        while (i < stopper && isHexDigit(textChar(i)))
             i++;
         if (i - index < minDigits)
             return false;
@@ -939,7 +1165,7 @@ public class ParseText {
     public ParseText skipTo(char ch) {
         int i = index;
         start = i;
-        while (i < text.length() && text.charAt(i) != ch)
+        while (i < textLength() && textChar(i) != ch)
             i++;
         index = i;
         return this;
@@ -959,8 +1185,8 @@ public class ParseText {
         int i = index;
         start = i;
     outer:
-        while (i < text.length()) {
-            char ch = text.charAt(i);
+        while (i < textLength()) {
+            char ch = textChar(i);
             for (int j = 0; j < array.length; j++)
                 if (ch == array[j])
                     break outer;
@@ -984,8 +1210,8 @@ public class ParseText {
         int i = index;
         start = i;
     outer:
-        while (i < text.length()) {
-            char ch = text.charAt(i);
+        while (i < textLength()) {
+            char ch = textChar(i);
             for (int j = 0; j < stoppers.length(); j++)
                 if (ch == stoppers.charAt(j))
                     break outer;
@@ -1006,18 +1232,18 @@ public class ParseText {
         int len = target.length();
         int i = index;
         start = i;
-        int stopper = text.length() - len;
+        int stopper = textLength() - len;
     outer:
         for (;;) {
             if (i > stopper) {
-                i = text.length();
+                i = textLength();
                 break;
             }
             int j = 0;
             for (;;) {
                 if (j >= len)
                     break outer;
-                if (text.charAt(i + j) != target.charAt(j))
+                if (textChar(i + j) != target.charAt(j))
                     break;
                 j++;
             }
@@ -1034,13 +1260,13 @@ public class ParseText {
      */
     public boolean matchSpaces() {
         int i = index;
-        int len = text.length();
-        if (i >= len || !isSpace(text.charAt(i)))
+        int len = textLength();
+        if (i >= len || !isSpace(textChar(i)))
             return false;
         start = i;
         do {
             i++;
-        } while (i < len && isSpace(text.charAt(i)));
+        } while (i < len && isSpace(textChar(i)));
         index = i;
         return true;
     }
@@ -1054,8 +1280,24 @@ public class ParseText {
     public ParseText skipPast(IntPredicate comparison) {
         int i = index;
         start = i;
-        int len = text.length();
-        while (i < len && comparison.test(text.charAt(i)))
+        int len = textLength();
+        while (i < len && comparison.test(textChar(i)))
+            i++;
+        index = i;
+        return this;
+    }
+
+    /**
+     * Increment the index past any characters that are members of a {@link CharClass}.
+     *
+     * @param   charClass   the {@link CharClass}
+     * @return              the {@code ParseText} object (for chaining purposes)
+     */
+    public ParseText skipPast(CharClass charClass) {
+        int i = index;
+        start = i;
+        int len = textLength();
+        while (i < len && charClass.contains(textChar(i)))
             i++;
         index = i;
         return this;
@@ -1069,8 +1311,8 @@ public class ParseText {
     public ParseText skipSpaces() {
         int i = index;
         start = i;
-        int len = text.length();
-        while (i < len && isSpace(text.charAt(i)))
+        int len = textLength();
+        while (i < len && isSpace(textChar(i)))
             i++;
         index = i;
         return this;
@@ -1085,8 +1327,24 @@ public class ParseText {
     public ParseText skipTo(IntPredicate comparison) {
         int i = index;
         start = i;
-        int len = text.length();
-        while (i < len && !comparison.test(text.charAt(i)))
+        int len = textLength();
+        while (i < len && !comparison.test(textChar(i)))
+            i++;
+        index = i;
+        return this;
+    }
+
+    /**
+     * Increment the index to the next character that is a member of a {@link CharClass}.
+     *
+     * @param   charClass   the {@link CharClass}
+     * @return              the {@code ParseText} object (for chaining purposes)
+     */
+    public ParseText skipTo(CharClass charClass) {
+        int i = index;
+        start = i;
+        int len = textLength();
+        while (i < len && !charClass.contains(textChar(i)))
             i++;
         index = i;
         return this;
@@ -1100,8 +1358,8 @@ public class ParseText {
     public ParseText skipToSpace() {
         int i = index;
         start = i;
-        int len = text.length();
-        while (i < len && !isSpace(text.charAt(i)))
+        int len = textLength();
+        while (i < len && !isSpace(textChar(i)))
             i++;
         index = i;
         return this;
@@ -1114,7 +1372,7 @@ public class ParseText {
      */
     public ParseText skipToEnd() {
         start = index;
-        index = text.length();
+        index = textLength();
         return this;
     }
 
@@ -1127,13 +1385,13 @@ public class ParseText {
      */
     public boolean matchName() {
         int i = index;
-        int len = text.length();
-        if (i >= len || !isNameStart(text.charAt(i)))
+        int len = textLength();
+        if (i >= len || !isNameStart(textChar(i)))
             return false;
         start = i;
         do {
             ++i;
-        } while (i < len && isNameContinuation(text.charAt(i)));
+        } while (i < len && isNameContinuation(textChar(i)));
         index = i;
         return true;
     }
@@ -1153,9 +1411,9 @@ public class ParseText {
     public String unescape(CharUnmapper charUnmapper, char stopper) {
         int i = index;
         start = i;
-        int len = text.length();
+        int len = textLength();
         while (i < len) {
-            char ch = text.charAt(i);
+            char ch = textChar(i);
             if (ch == stopper)
                 break;
             if (charUnmapper.isEscape(text, i)) {
@@ -1163,7 +1421,7 @@ public class ParseText {
                 sb.append(text, start, i);
                 i += charUnmapper.unmap(sb, text, i);
                 while (i < len) {
-                    ch = text.charAt(i);
+                    ch = textChar(i);
                     if (ch == stopper)
                         break;
                     if (charUnmapper.isEscape(text, i))
@@ -1249,7 +1507,7 @@ public class ParseText {
      */
     @Override
     public String toString() {
-        int n = text.length();
+        int n = textLength();
         StringBuilder sb = new StringBuilder(n + 4);
         sb.append('[');
         int i = 0;
@@ -1260,7 +1518,7 @@ public class ParseText {
                 sb.append('^');
             if (i >= n)
                 break;
-            sb.append(text.charAt(i++));
+            sb.append(textChar(i++));
         }
         sb.append(']');
         return sb.toString();
@@ -1280,10 +1538,10 @@ public class ParseText {
         if (!(o instanceof ParseText))
             return false;
         ParseText pt = (ParseText)o;
-        if (text.length() != pt.text.length() || index != pt.index || start != pt.start)
+        if (textLength() != pt.textLength() || index != pt.index || start != pt.start)
             return false;
-        for (int i = 0; i < text.length(); i++)
-            if (text.charAt(i) != pt.text.charAt(i))
+        for (int i = 0; i < textLength(); i++)
+            if (textChar(i) != pt.textChar(i))
                 return false;
         return true;
     }
@@ -1295,9 +1553,9 @@ public class ParseText {
      */
     @Override
     public int hashCode() {
-        int result = text.length() + index + start;
-        for (int i = 0; i < text.length(); i++)
-            result += text.charAt(i);
+        int result = textLength() + index + start;
+        for (int i = 0; i < textLength(); i++)
+            result += textChar(i);
         return result;
     }
 
@@ -0,0 +1,1002 @@
+/*
+ * @(#) ReaderParseText.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * A streaming version of {@link ParseText}, taking its input from a {@link Reader}.  The
+ * characters are read into a sliding window buffer as they are required, and characters that
+ * precede the start index of the last match (and the current index) are discarded when space is
+ * needed, so that the memory used does not depend on the size of the input.
+ *
+ * <p>The buffer starts at an initial size and is enlarged when a single match operation (plus
+ * its result) needs more space, up to a configurable maximum; if the maximum is exceeded an
+ * {@link IllegalStateException} is thrown.  The {@code skip} operations are not limited in this
+ * way: once the buffer has reached its maximum size, a skip discards the characters it has
+ * passed over as it goes, and the result of the skip then holds only the characters still
+ * retained (its start index is moved forward accordingly).  {@link #revert()} may be used to
+ * undo the last match operation (or a skip that has not discarded any characters), and
+ * {@link #back(int)} may be used to move back over characters that have not yet been
+ * discarded.</p>
+ *
+ * <p>Index values are positions in the input stream, and are {@code long} values to allow for
+ * very large inputs.  Operations that may need to read further input throw
+ * {@link IOException} if it is thrown by the {@link Reader}.</p>
+ *
+ * @author  Peter Wall
+ * @see     ParseText
+ */
+public class ReaderParseText implements Closeable {
+
+    /** Default initial buffer size = 8192 */
+    public static final int defaultBufferSize = 8192;
+
+    /** Default maximum buffer size = 1M characters */
+    public static final int defaultMaxBufferSize = 1 << 20;
+
+    private static final int MAX_INT_MASK = 0xF8 << 24;
+    private static final long MAX_LONG_MASK = ((long)0xF8) << 56;
+
+    private final Reader reader;
+    private final int maxBufferSize;
+    private char[] buffer;
+    private long base;
+    private int count;
+    private boolean eof;
+    private long index;
+    private long start;
+
+    /**
+     * Construct a {@code ReaderParseText} with the specified initial and maximum buffer sizes.
+     *
+     * @param   reader          the {@link Reader}
+     * @param   bufferSize      the initial buffer size
+     * @param   maxBufferSize   the maximum buffer size
+     * @throws  NullPointerException if the {@link Reader} is {@code null}
+     * @throws  IllegalArgumentException if either size is invalid
+     */
+    public ReaderParseText(Reader reader, int bufferSize, int maxBufferSize) {
+        this.reader = Objects.requireNonNull(reader);
+        if (bufferSize <= 0)
+            throw new IllegalArgumentException("Buffer size must be positive");
+        if (maxBufferSize < bufferSize)
+            throw new IllegalArgumentException(
+                    "Maximum buffer size must not be less than buffer size");
+        this.maxBufferSize = maxBufferSize;
+        buffer = new char[bufferSize];
+        base = 0;
+        count = 0;
+        eof = false;
+        index = 0;
+        start = 0;
+    }
+
+    /**
+     * Construct a {@code ReaderParseText} with the default buffer sizes.
+     *
+     * @param   reader          the {@link Reader}
+     * @throws  NullPointerException if the {@link Reader} is {@code null}
+     */
+    public ReaderParseText(Reader reader) {
+        this(reader, defaultBufferSize, defaultMaxBufferSize);
+    }
+
+    /**
+     * Get the current index (the position in the input stream).
+     *
+     * @return  the index
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Get the start index (the position of the start of the last matched sequence).
+     *
+     * @return  the start index
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * Get the position of the earliest character still held in the buffer.  {@link #back(int)}
+     * may be used to move the index back as far as this position.
+     *
+     * @return  the position of the earliest retained character
+     */
+    public long getRetainedStart() {
+        return base;
+    }
+
+    /**
+     * Test whether the input is exhausted (the index has reached the end of the input).
+     *
+     * @return  {@code true} if the index has reached the end of the input
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean isExhausted() throws IOException {
+        return !fill(index);
+    }
+
+    /**
+     * Test whether the input has at least the specified number of characters left after the
+     * index.
+     *
+     * @param   len     the number of characters required
+     * @return  {@code true} if that number of characters are available
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean available(int len) throws IOException {
+        return len <= 0 || fill(index + len - 1);
+    }
+
+    /**
+     * Ensure that the character at the specified position is in the buffer, reading more input
+     * if necessary.
+     *
+     * @param   pos     the position
+     * @return          {@code true} if the character is available, {@code false} at end of input
+     * @throws  IOException if thrown by the {@link Reader}
+     * @throws  IllegalStateException if the maximum buffer size would be exceeded
+     */
+    private boolean fill(long pos) throws IOException {
+        return fill(pos, -1);
+    }
+
+    /**
+     * Ensure that the character at the specified position is in the buffer, reading more input
+     * if necessary.  If the buffer is at its maximum size, characters before the floor position
+     * may be discarded, moving the start and current indices up to the floor; this is used by
+     * the skip operations, which do not need to retain the characters they pass over.
+     *
+     * @param   pos     the position
+     * @param   floor   the earliest position that must be retained, or -1 to retain everything
+     *                  from the start and current indices
+     * @return          {@code true} if the character is available, {@code false} at end of input
+     * @throws  IOException if thrown by the {@link Reader}
+     * @throws  IllegalStateException if the maximum buffer size would be exceeded
+     */
+    private boolean fill(long pos, long floor) throws IOException {
+        while (pos >= base + count) {
+            if (eof)
+                return false;
+            if (count == buffer.length) {
+                int discard = (int)(Math.min(start, index) - base);
+                if (discard <= 0) {
+                    if (buffer.length < maxBufferSize)
+                        buffer = Arrays.copyOf(buffer, (int)Math.min((long)buffer.length * 2,
+                                maxBufferSize));
+                    else {
+                        if (floor <= base)
+                            throw new IllegalStateException(
+                                    "ReaderParseText buffer size exceeded");
+                        discard = (int)(Math.min(floor, base + count) - base);
+                        start = base + discard;
+                        index = start;
+                    }
+                }
+                if (discard > 0) {
+                    System.arraycopy(buffer, discard, buffer, 0, count - discard);
+                    count -= discard;
+                    base += discard;
+                }
+            }
+            int n = reader.read(buffer, count, buffer.length - count);
+            if (n < 0)
+                eof = true;
+            else
+                count += n;
+        }
+        return true;
+    }
+
+    /**
+     * Get the character at the specified position, or -1 if the position is at or beyond the
+     * end of the input.
+     *
+     * @param   pos     the position
+     * @return          the character, or -1
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    private int peek(long pos) throws IOException {
+        return fill(pos) ? buffer[(int)(pos - base)] : -1;
+    }
+
+    /**
+     * Get the character at the specified position, or -1 if the position is at or beyond the
+     * end of the input, allowing characters before the floor position to be discarded (see
+     * {@link #fill(long, long)}).
+     *
+     * @param   pos     the position
+     * @param   floor   the earliest position that must be retained
+     * @return          the character, or -1
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    private int peek(long pos, long floor) throws IOException {
+        return fill(pos, floor) ? buffer[(int)(pos - base)] : -1;
+    }
+
+    /**
+     * Get the character at the current index and increment the index.
+     *
+     * @return  the current character
+     * @throws  IOException if thrown by the {@link Reader}
+     * @throws  IndexOutOfBoundsException if the index is at the end of the input
+     */
+    public char getChar() throws IOException {
+        start = index;
+        int ch = peek(index);
+        if (ch < 0)
+            throw new IndexOutOfBoundsException("ReaderParseText exhausted");
+        index++;
+        return (char)ch;
+    }
+
+    /**
+     * Get the Unicode code point at the current index and increment the index past the code
+     * point.
+     *
+     * @return  the code point
+     * @throws  IOException if thrown by the {@link Reader}
+     * @throws  IndexOutOfBoundsException if the index is at the end of the input
+     */
+    public int getCodePoint() throws IOException {
+        start = index;
+        int ch = peek(index);
+        if (ch < 0)
+            throw new IndexOutOfBoundsException("ReaderParseText exhausted");
+        index++;
+        if (Character.isHighSurrogate((char)ch)) {
+            int ch2 = peek(index);
+            if (ch2 >= 0 && Character.isLowSurrogate((char)ch2)) {
+                index++;
+                return Character.toCodePoint((char)ch, (char)ch2);
+            }
+        }
+        return ch;
+    }
+
+    /**
+     * Get the length of the result of the last match operation.
+     *
+     * @return  the length of the result of the last match
+     */
+    public int getResultLength() {
+        return (int)(index - start);
+    }
+
+    /**
+     * Get the first character of the result of the last match operation.
+     *
+     * @return  the first character of the result of the last match
+     */
+    public char getResultChar() {
+        return buffer[(int)(start - base)];
+    }
+
+    /**
+     * Get the result of the last match operation as a {@link String}.
+     *
+     * @return  the result of the last match
+     */
+    public String getResultString() {
+        return new String(buffer, (int)(start - base), (int)(index - start));
+    }
+
+    /**
+     * Copy the result of the last match operation to an {@link Appendable}.
+     *
+     * @param   a       the {@link Appendable}
+     * @return          the {@link Appendable} (for chaining purposes)
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    public Appendable appendResultTo(Appendable a) throws IOException {
+        int offset = (int)(start - base);
+        int end = offset + (int)(index - start);
+        if (a instanceof StringBuilder)
+            ((StringBuilder)a).append(buffer, offset, end - offset);
+        else
+            a.append(CharBuffer.wrap(buffer), offset, end);
+        return a;
+    }
+
+    /**
+     * Get the result of the last match operation as an {@code int}.  If
+     * {@link #useFastConversion()} returns {@code true}, the conversion is delegated to
+     * {@link Strings#convertToInt(char[], int, int)}, which processes the digits eight at a
+     * time; otherwise each digit is converted by {@link #convertDecDigit(char)}.
+     *
+     * @return  the result of the last match as an {@code int} (always positive)
+     * @throws  NumberFormatException if the result is not a valid {@code int}
+     */
+    public int getResultInt() {
+        if (index <= start)
+            throw new NumberFormatException();
+        int offset = (int)(start - base);
+        int end = (int)(index - base);
+        if (useFastConversion())
+            return Strings.convertToInt(buffer, offset, end);
+        int result = 0;
+        for (int i = offset; i < end; i++) {
+            int n = convertDecDigit(buffer[i]);
+            if (result > (Integer.MAX_VALUE - n) / 10)
+                throw new NumberFormatException();
+            result = result * 10 + n;
+        }
+        return result;
+    }
+
+    /**
+     * Get the result of the last match operation as a {@code long}.  If
+     * {@link #useFastConversion()} returns {@code true}, the conversion is delegated to
+     * {@link Strings#convertToLong(char[], int, int)}, which processes the digits eight at a
+     * time; otherwise each digit is converted by {@link #convertDecDigit(char)}.
+     *
+     * @return  the result of the last match as a {@code long} (always positive)
+     * @throws  NumberFormatException if the result is not a valid {@code long}
+     */
+    public long getResultLong() {
+        if (index <= start)
+            throw new NumberFormatException();
+        int offset = (int)(start - base);
+        int end = (int)(index - base);
+        if (useFastConversion())
+            return Strings.convertToLong(buffer, offset, end);
+        long result = 0;
+        for (int i = offset; i < end; i++) {
+            int n = convertDecDigit(buffer[i]);
+            if (result > (Long.MAX_VALUE - n) / 10)
+                throw new NumberFormatException();
+            result = result * 10 + n;
+        }
+        return result;
+    }
+
+    /**
+     * Test whether {@link #getResultInt()} and {@link #getResultLong()} may delegate to the
+     * optimised conversion functions in {@link Strings}, which use the standard definition of a
+     * decimal digit ({@code '0'} to {@code '9'}).  The default implementation returns
+     * {@code true} only if the class has not been extended, because a subclass may have
+     * overridden {@link #isDigit(char)} or {@link #convertDecDigit(char)}; a subclass that uses
+     * the standard definition may override this method to return {@code true}.
+     *
+     * @return  {@code true} if the optimised conversion functions may be used
+     */
+    protected boolean useFastConversion() {
+        return getClass() == ReaderParseText.class;
+    }
+
+    /**
+     * Convert a decimal digit to the integer value of the digit.  This method may be overridden
+     * to provide for different definitions of a decimal digit.  If this method is overridden it
+     * may be necessary to override {@link #isDigit(char)} and {@link #useFastConversion()} as
+     * well.
+     *
+     * @param   ch      the decimal digit
+     * @return          the integer value (0 - 9)
+     * @throws          NumberFormatException if the digit is not valid
+     */
+    public int convertDecDigit(char ch) {
+        return Strings.convertDecDigit(ch);
+    }
+
+    /**
+     * Get the result of the last match operation as an {@code int}, treating the digits as
+     * hexadecimal.
+     *
+     * @return  the result of the last match as an {@code int} (always positive)
+     * @throws  NumberFormatException if the result is not a valid {@code int}
+     */
+    public int getResultHexInt() {
+        if (index <= start)
+            throw new NumberFormatException();
+        int result = 0;
+        for (int i = (int)(start - base), end = (int)(index - base); i < end; i++) {
+            if ((result & MAX_INT_MASK) != 0)
+                throw new NumberFormatException();
+            result = result << 4 | convertHexDigit(buffer[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Get the result of the last match operation as a {@code long}, treating the digits as
+     * hexadecimal.
+     *
+     * @return  the result of the last match as a {@code long} (always positive)
+     * @throws  NumberFormatException if the result is not a valid {@code long}
+     */
+    public long getResultHexLong() {
+        if (index <= start)
+            throw new NumberFormatException();
+        long result = 0;
+        for (int i = (int)(start - base), end = (int)(index - base); i < end; i++) {
+            if ((result & MAX_LONG_MASK) != 0)
+                throw new NumberFormatException();
+            result = result << 4 | convertHexDigit(buffer[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Convert a hexadecimal digit to the integer value of the digit.  This method may be
+     * overridden to provide for different definitions of a hexadecimal digit.  If this method
+     * is overridden it may be necessary to override {@link #isHexDigit(char)} as well.
+     *
+     * @param   ch      the hexadecimal digit
+     * @return          the integer value (0 - 15)
+     * @throws          NumberFormatException if the digit is not valid
+     */
+    public int convertHexDigit(char ch) {
+        return Strings.convertHexDigit(ch);
+    }
+
+    private boolean matchSuccess(long i) {
+        start = index;
+        index = i;
+        return true;
+    }
+
+    /**
+     * Match the current character against a given Unicode code point.  If the character is a
+     * high surrogate, it is combined with the following low surrogate before comparison.
+     *
+     * @param   cp      the code point to match against
+     * @return  {@code true} if the code point at the index matches
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean match(int cp) throws IOException {
+        int c = peek(index);
+        if (c < 0)
+            return false;
+        long i = index + 1;
+        if (Character.isHighSurrogate((char)c)) {
+            int c2 = peek(i++);
+            if (c2 < 0 || !Character.isLowSurrogate((char)c2) ||
+                    Character.toCodePoint((char)c, (char)c2) != cp)
+                return false;
+        }
+        else if (c != cp)
+            return false;
+        return matchSuccess(i);
+    }
+
+    /**
+     * Match the current character against a given character.
+     *
+     * @param   ch      the character to match against
+     * @return  {@code true} if the character matches
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean match(char ch) throws IOException {
+        return peek(index) == ch && matchSuccess(index + 1);
+    }
+
+    /**
+     * Match the current character against a given character, ignoring case.
+     *
+     * @param   ch      the character to match against
+     * @return  {@code true} if the character matches
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean matchIgnoreCase(char ch) throws IOException {
+        int c = peek(index);
+        return c >= 0 && equalIgnoreCase((char)c, ch) && matchSuccess(index + 1);
+    }
+
+    private static boolean equalIgnoreCase(char a, char b) {
+        return a == b ||
+                a == (Character.isLowerCase(a) ? Character.toLowerCase(b) :
+                        Character.toUpperCase(b));
+    }
+
+    /**
+     * Match the current character against a given character range.
+     *
+     * @param   from    the low character in the range to match against
+     * @param   to      the high character in the range to match against (inclusive)
+     * @return  {@code true} if the character falls in the given range
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean matchRange(char from, char to) throws IOException {
+        int c = peek(index);
+        return c >= from && c <= to && matchSuccess(index + 1);
+    }
+
+    /**
+     * Match the current character against any of the characters in a given {@link String}.
+     *
+     * @param   str     the characters to match against
+     * @return  {@code true} if the character matches any of the characters in the string
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean matchAnyOf(String str) throws IOException {
+        int c = peek(index);
+        return c >= 0 && str.indexOf(c) >= 0 && matchSuccess(index + 1);
+    }
+
+    /**
+     * Match the current character against any of the characters in a given array.
+     *
+     * @param   array   the characters to match against (as an array or varargs list)
+     * @return  {@code true} if the character matches any of the characters in the array
+     * @throws  IOException if thrown by the {@link Reader}
+     * @throws  IllegalArgumentException if the array is empty
+     */
+    public boolean matchAnyOf(char ... array) throws IOException {
+        if (array.length == 0)
+            throw new IllegalArgumentException("Array must not be empty");
+        int c = peek(index);
+        for (char ch : array)
+            if (c == ch)
+                return matchSuccess(index + 1);
+        return false;
+    }
+
+    /**
+     * Match the characters at the index against a given {@link CharSequence}.
+     *
+     * @param   target  the target {@link CharSequence}
+     * @return  {@code true} if the characters at the index match the target
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean match(CharSequence target) throws IOException {
+        int len = target.length();
+        for (int i = 0; i < len; i++)
+            if (peek(index + i) != target.charAt(i))
+                return false;
+        return matchSuccess(index + len);
+    }
+
+    /**
+     * Match the characters at the index against a given {@link CharSequence}, checking that
+     * the character following the match is not part of a name.
+     *
+     * @param   target  the target {@link CharSequence}
+     * @return  {@code true} if the characters at the index match the target
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean matchName(CharSequence target) throws IOException {
+        int len = target.length();
+        for (int i = 0; i < len; i++)
+            if (peek(index + i) != target.charAt(i))
+                return false;
+        int c = peek(index + len);
+        return !(c >= 0 && isNameContinuation((char)c)) && matchSuccess(index + len);
+    }
+
+    /**
+     * Match the characters at the index against a given {@link CharSequence}, ignoring case.
+     *
+     * @param   target  the target {@link CharSequence}
+     * @return  {@code true} if the characters at the index match the target
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean matchIgnoreCase(CharSequence target) throws IOException {
+        int len = target.length();
+        for (int i = 0; i < len; i++) {
+            int c = peek(index + i);
+            if (c < 0 || !equalIgnoreCase((char)c, target.charAt(i)))
+                return false;
+        }
+        return matchSuccess(index + len);
+    }
+
+    /**
+     * Match the characters at the index as decimal digits, with a given minimum number of
+     * digits and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number digits to match (or 0 to indicate no limit)
+     * @param   minDigits   the minimum number digits for a successful match
+     * @return  {@code true} if the characters at the index are decimal digits (subject to the
+     *          specified minimum and maximum number of digits)
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean matchDec(int maxDigits, int minDigits) throws IOException {
+        long i = index;
+        long stopper = maxDigits > 0 ? i + maxDigits : Long.MAX_VALUE;
+        int c;
+        while (i < stopper && (c = peek(i)) >= 0 && isDigit((char)c))
+            i++;
+        return i - index >= minDigits && matchSuccess(i);
+    }
+
+    /**
+     * Match the characters at the index as decimal digits, with a minimum of 1 digit and an
+     * optional maximum.
+     *
+     * @param   maxDigits   the maximum number digits to match (or 0 to indicate no limit)
+     * @return  {@code true} if the characters at the index are decimal digits
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean matchDec(int maxDigits) throws IOException {
+        return matchDec(maxDigits, 1);
+    }
+
+    /**
+     * Match the characters at the index as decimal digits, with a minimum of 1 digit and no
+     * maximum.
+     *
+     * @return  {@code true} if the characters at the index are decimal digits
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean matchDec() throws IOException {
+        return matchDec(0, 1);
+    }
+
+    /**
+     * Match the characters at the index as hexadecimal digits, with a given minimum number of
+     * digits and an optional maximum.
+     *
+     * @param   maxDigits   the maximum number digits to match (or 0 to indicate no limit)
+     * @param   minDigits   the minimum number digits for a successful match
+     * @return  {@code true} if the characters at the index are hexadecimal digits (subject to
+     *          the specified minimum and maximum number of digits)
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean matchHex(int maxDigits, int minDigits) throws IOException {
+        long i = index;
+        long stopper = maxDigits > 0 ? i + maxDigits : Long.MAX_VALUE;
+        int c;
+        while (i < stopper && (c = peek(i)) >= 0 && isHexDigit((char)c))
+            i++;
+        return i - index >= minDigits && matchSuccess(i);
+    }
+
+    /**
+     * Match the characters at the index as hexadecimal digits, with a minimum of 1 digit and no
+     * maximum.
+     *
+     * @return  {@code true} if the characters at the index are hexadecimal digits
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean matchHex() throws IOException {
+        return matchHex(0, 1);
+    }
+
+    /**
+     * Match the characters at the index as spaces.
+     *
+     * @return  {@code true} if the characters at the index are one or more spaces
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean matchSpaces() throws IOException {
+        long i = index;
+        int c;
+        while ((c = peek(i)) >= 0 && isSpace((char)c))
+            i++;
+        return i > index && matchSuccess(i);
+    }
+
+    /**
+     * Match the characters at the index as a name, where a name is defined as starting with a
+     * character that matches {@link #isNameStart(char)}, followed by zero or more characters
+     * that match {@link #isNameContinuation(char)}.
+     *
+     * @return  {@code true} if the characters at the index constitute a name
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public boolean matchName() throws IOException {
+        long i = index;
+        int c = peek(i);
+        if (c < 0 || !isNameStart((char)c))
+            return false;
+        do {
+            i++;
+        } while ((c = peek(i)) >= 0 && isNameContinuation((char)c));
+        return matchSuccess(i);
+    }
+
+    /**
+     * Undo the effect of the last match operation.
+     *
+     * @return      the {@code ReaderParseText} object (for chaining purposes)
+     */
+    public ReaderParseText revert() {
+        index = start;
+        return this;
+    }
+
+    /**
+     * Increment the index by <i>n</i>.
+     *
+     * @param   n   the amount to add to the index
+     * @return      the {@code ReaderParseText} object (for chaining purposes)
+     * @throws  IOException if thrown by the {@link Reader}
+     * @throws  IndexOutOfBoundsException if the result index would be beyond the end of the
+     *          input
+     */
+    public ReaderParseText skip(int n) throws IOException {
+        long target = index + n;
+        if (n > 0 && !fill(target - 1, target - 1))
+            throw new IndexOutOfBoundsException("ReaderParseText index invalid");
+        start = index;
+        index = target;
+        return this;
+    }
+
+    /**
+     * Decrement the index by <i>n</i>.  The index may be moved back only as far as the earliest
+     * character still held in the buffer (see {@link #getRetainedStart()}).
+     *
+     * @param   n   the amount to subtract from the index
+     * @return      the {@code ReaderParseText} object (for chaining purposes)
+     * @throws  IndexOutOfBoundsException if the characters have been discarded
+     */
+    public ReaderParseText back(int n) {
+        if (n < 0 || index - n < base)
+            throw new IndexOutOfBoundsException("ReaderParseText index invalid");
+        index -= n;
+        return this;
+    }
+
+    /**
+     * Increment the index to the next occurrence of the given character.  The index is left
+     * positioned at the matched character, or at the end of the input if it is not found.
+     *
+     * @param   ch      the stopper character
+     * @return          the {@code ReaderParseText} object (for chaining purposes)
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public ReaderParseText skipTo(char ch) throws IOException {
+        start = index;
+        long i = index;
+        int c;
+        while ((c = peek(i, i)) >= 0 && c != ch)
+            i++;
+        index = i;
+        return this;
+    }
+
+    /**
+     * Increment the index to the next occurrence of any of the given characters.  The index is
+     * left positioned at the matched character, or at the end of the input if none is found.
+     *
+     * @param   array   the array (or varargs list) of possible stopper characters
+     * @return          the {@code ReaderParseText} object (for chaining purposes)
+     * @throws  IOException if thrown by the {@link Reader}
+     * @throws  IllegalArgumentException if the array is empty
+     */
+    public ReaderParseText skipToAnyOf(char ... array) throws IOException {
+        if (array.length == 0)
+            throw new IllegalArgumentException("Array must not be empty");
+        start = index;
+        long i = index;
+        int c;
+    outer:
+        while ((c = peek(i, i)) >= 0) {
+            for (char ch : array)
+                if (c == ch)
+                    break outer;
+            i++;
+        }
+        index = i;
+        return this;
+    }
+
+    /**
+     * Increment the index to the next occurrence of any of the given characters.  The index is
+     * left positioned at the stopper character, or at the end of the input if none is found.
+     *
+     * @param   stoppers    a {@link CharSequence} of possible stopper characters
+     * @return              the {@code ReaderParseText} object (for chaining purposes)
+     * @throws  IOException if thrown by the {@link Reader}
+     * @throws  IllegalArgumentException if the {@link CharSequence} is empty
+     */
+    public ReaderParseText skipToAnyOf(CharSequence stoppers) throws IOException {
+        int n = stoppers.length();
+        if (n == 0)
+            throw new IllegalArgumentException("String must not be empty");
+        start = index;
+        long i = index;
+        int c;
+    outer:
+        while ((c = peek(i, i)) >= 0) {
+            for (int j = 0; j < n; j++)
+                if (c == stoppers.charAt(j))
+                    break outer;
+            i++;
+        }
+        index = i;
+        return this;
+    }
+
+    /**
+     * Increment the index to the next occurrence of the stopper sequence.  The index is left
+     * positioned at the stopper sequence, or at the end of the input if it is not found.
+     *
+     * @param   target  the stopper sequence
+     * @return          the {@code ReaderParseText} object (for chaining purposes)
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public ReaderParseText skipTo(CharSequence target) throws IOException {
+        start = index;
+        int len = target.length();
+        long i = index;
+    outer:
+        for (;;) {
+            int j = 0;
+            for (;;) {
+                if (j >= len)
+                    break outer;
+                int c = peek(i + j, i);
+                if (c < 0) {
+                    while (fill(i, i))
+                        i++;
+                    break outer;
+                }
+                if (c != target.charAt(j))
+                    break;
+                j++;
+            }
+            i++;
+        }
+        index = i;
+        return this;
+    }
+
+    /**
+     * Increment the index past any characters matching a given comparison function.
+     *
+     * @param   comparison  the comparison function
+     * @return              the {@code ReaderParseText} object (for chaining purposes)
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public ReaderParseText skipPast(IntPredicate comparison) throws IOException {
+        start = index;
+        long i = index;
+        int c;
+        while ((c = peek(i, i)) >= 0 && comparison.test(c))
+            i++;
+        index = i;
+        return this;
+    }
+
+    /**
+     * Increment the index to the next character matching a given comparison function.
+     *
+     * @param   comparison  the comparison function
+     * @return              the {@code ReaderParseText} object (for chaining purposes)
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public ReaderParseText skipTo(IntPredicate comparison) throws IOException {
+        start = index;
+        long i = index;
+        int c;
+        while ((c = peek(i, i)) >= 0 && !comparison.test(c))
+            i++;
+        index = i;
+        return this;
+    }
+
+    /**
+     * Increment the index past zero or more spaces.
+     *
+     * @return      the {@code ReaderParseText} object (for chaining purposes)
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public ReaderParseText skipSpaces() throws IOException {
+        start = index;
+        long i = index;
+        int c;
+        while ((c = peek(i, i)) >= 0 && isSpace((char)c))
+            i++;
+        index = i;
+        return this;
+    }
+
+    /**
+     * Increment the index to the next space.
+     *
+     * @return      the {@code ReaderParseText} object (for chaining purposes)
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    public ReaderParseText skipToSpace() throws IOException {
+        start = index;
+        long i = index;
+        int c;
+        while ((c = peek(i, i)) >= 0 && !isSpace((char)c))
+            i++;
+        index = i;
+        return this;
+    }
+
+    /**
+     * Test whether the given character is a space.  This method may be overridden to provide
+     * for different definitions of a space.
+     *
+     * @param   ch  the character
+     * @return      {@code true} if the character is a space
+     */
+    public boolean isSpace(char ch) {
+        return ch == ' ' || ch == '\t' || ch == '\n' || ch == '\r';
+    }
+
+    /**
+     * Test whether the given character is a decimal digit.  This method may be overridden to
+     * provide for different definitions of a digit.  If this method is overridden it may be
+     * necessary to override {@link #convertDecDigit(char)} as well.
+     *
+     * @param   ch  the character
+     * @return      {@code true} if the character is a digit
+     */
+    public boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    /**
+     * Test whether the given character is a hexadecimal digit.  This method may be overridden
+     * to provide for different definitions of a hex digit.  If this method is overridden it may
+     * be necessary to override {@link #convertHexDigit(char)} as well.
+     *
+     * @param   ch  the character
+     * @return      {@code true} if the character is a hexadecimal digit
+     */
+    public boolean isHexDigit(char ch) {
+        return ch >= '0' && ch <= '9' || ch >= 'A' && ch <= 'F' || ch >= 'a' && ch <= 'f';
+    }
+
+    /**
+     * Test whether the given character is the start character of a name.  This method may be
+     * overridden to provide for different definitions of a name.
+     *
+     * @param   ch  the character
+     * @return      {@code true} if the character is a name start character
+     */
+    public boolean isNameStart(char ch) {
+        return ch >= 'A' && ch <= 'Z' || ch >= 'a' && ch <= 'z' || ch == '_' || ch == '$';
+    }
+
+    /**
+     * Test whether the given character is a continuation character of a name.  This method may
+     * be overridden to provide for different definitions of a name.
+     *
+     * @param   ch  the character
+     * @return      {@code true} if the character is a name continuation character
+     */
+    public boolean isNameContinuation(char ch) {
+        return isNameStart(ch) || ch >= '0' && ch <= '9';
+    }
+
+    /**
+     * Close the underlying {@link Reader}.
+     *
+     * @throws  IOException if thrown by the {@link Reader}
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+}
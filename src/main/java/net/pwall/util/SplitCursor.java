@@ -0,0 +1,259 @@
+/*
+ * @(#) SplitCursor.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.util.function.IntPredicate;
+
+/**
+ * A reusable cursor to iterate over the fields of a {@link CharSequence} separated by a given
+ * character.  The fields are returned one at a time as start and end indices, so no
+ * allocation takes place unless the caller requests the field as a {@link String} or
+ * {@link CharSequence}.  The rules for trimming spaces and skipping empty fields are the same
+ * as those of {@link Strings#split(String, int, int, char, boolean, IntPredicate)}.
+ *
+ * <p>For example, to extract the third field of each of a number of lines:</p>
+ * <pre>
+ *     SplitCursor cursor = new SplitCursor(',', false, null);
+ *     for (String line : lines) {
+ *         cursor.reset(line);
+ *         if (cursor.next() &amp;&amp; cursor.next() &amp;&amp; cursor.next())
+ *             process(cursor.getString());
+ *     }
+ * </pre>
+ *
+ * @author  Peter Wall
+ */
+public class SplitCursor {
+
+    private final char separator;
+    private final boolean skipEmpty;
+    private final IntPredicate spaceTest;
+
+    private CharSequence text;
+    private int index;
+    private int end;
+    private int fieldStart;
+    private int fieldEnd;
+    private boolean exhausted;
+
+    /**
+     * Construct a {@code SplitCursor} with the given separator and options.
+     *
+     * @param   separator   the separator
+     * @param   skipEmpty   if {@code true}, ignore zero-length items (possibly after trimming)
+     * @param   spaceTest   if not {@code null}, use to trim spaces off both ends of each item
+     */
+    public SplitCursor(char separator, boolean skipEmpty, IntPredicate spaceTest) {
+        this.separator = separator;
+        this.skipEmpty = skipEmpty;
+        this.spaceTest = spaceTest;
+        text = "";
+        exhausted = true;
+    }
+
+    /**
+     * Construct a {@code SplitCursor} with the given separator, trimming whitespace from each
+     * item and ignoring empty items (as {@link Strings#split(String, char)}).
+     *
+     * @param   separator   the separator
+     */
+    public SplitCursor(char separator) {
+        this(separator, true, Character::isWhitespace);
+    }
+
+    /**
+     * Construct a {@code SplitCursor} for use by a subclass that overrides
+     * {@link #findSeparator(CharSequence, int, int)}.
+     *
+     * @param   skipEmpty   if {@code true}, ignore zero-length items (possibly after trimming)
+     * @param   spaceTest   if not {@code null}, use to trim spaces off both ends of each item
+     */
+    protected SplitCursor(boolean skipEmpty, IntPredicate spaceTest) {
+        this('\0', skipEmpty, spaceTest);
+    }
+
+    /**
+     * Reset the cursor to the start of a new {@link CharSequence}.
+     *
+     * @param   text    the {@link CharSequence} to be split
+     * @return          {@code this} (for chaining)
+     * @throws          NullPointerException if the text is {@code null}
+     */
+    public SplitCursor reset(CharSequence text) {
+        return reset(text, 0, text.length());
+    }
+
+    /**
+     * Reset the cursor to a portion of a new {@link CharSequence}.
+     *
+     * @param   text    the {@link CharSequence} to be split
+     * @param   start   the start index of the portion to be examined
+     * @param   end     the end index (exclusive) of the portion to be examined
+     * @return          {@code this} (for chaining)
+     * @throws          NullPointerException if the text is {@code null}
+     * @throws          IndexOutOfBoundsException if {@code start} or {@code end} is invalid
+     */
+    public SplitCursor reset(CharSequence text, int start, int end) {
+        if (start < 0 || start > end || end > text.length())
+            throw new IndexOutOfBoundsException();
+        this.text = text;
+        index = start;
+        this.end = end;
+        fieldStart = start;
+        fieldEnd = start;
+        exhausted = false;
+        return this;
+    }
+
+    /**
+     * Advance to the next field.
+     *
+     * @return  {@code true} if there is another field, {@code false} if the text is exhausted
+     */
+    public boolean next() {
+        while (!exhausted) {
+            int i = findSeparator(text, index, end);
+            int itemStart = index;
+            int itemEnd = i;
+            if (i >= end)
+                exhausted = true;
+            else
+                index = i + getSeparatorLength();
+            if (spaceTest != null) {
+                while (itemStart < itemEnd && spaceTest.test(text.charAt(itemStart)))
+                    itemStart++;
+                while (itemStart < itemEnd && spaceTest.test(text.charAt(itemEnd - 1)))
+                    itemEnd--;
+            }
+            if (itemEnd > itemStart || !skipEmpty) {
+                fieldStart = itemStart;
+                fieldEnd = itemEnd;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find the next separator.  This method may be overridden to provide for different forms
+     * of separator.
+     *
+     * @param   text    the text being split
+     * @param   index   the index from which to search
+     * @param   end     the end index of the portion being examined
+     * @return          the index of the next separator, or {@code end} if there are no more
+     */
+    protected int findSeparator(CharSequence text, int index, int end) {
+        while (index < end && text.charAt(index) != separator)
+            index++;
+        return index;
+    }
+
+    /**
+     * Get the length of the separator.  This method must be overridden if
+     * {@link #findSeparator(CharSequence, int, int)} is overridden to locate separators of more
+     * than one character.
+     *
+     * @return  the length of the separator
+     */
+    protected int getSeparatorLength() {
+        return 1;
+    }
+
+    /**
+     * Get the text being split.
+     *
+     * @return  the text
+     */
+    public CharSequence getText() {
+        return text;
+    }
+
+    /**
+     * Get the start index of the current field.
+     *
+     * @return  the start index
+     */
+    public int getStart() {
+        return fieldStart;
+    }
+
+    /**
+     * Get the end index (exclusive) of the current field.
+     *
+     * @return  the end index
+     */
+    public int getEnd() {
+        return fieldEnd;
+    }
+
+    /**
+     * Get the length of the current field.
+     *
+     * @return  the length
+     */
+    public int getLength() {
+        return fieldEnd - fieldStart;
+    }
+
+    /**
+     * Get the current field as a {@link CharSequence}.  The result is a view of the original
+     * text (a {@link SubSequence}), not a copy.
+     *
+     * @return  the current field
+     */
+    public CharSequence getSequence() {
+        return new SubSequence(text, fieldStart, fieldEnd);
+    }
+
+    /**
+     * Get the current field as a {@link String}.
+     *
+     * @return  the current field
+     */
+    public String getString() {
+        return fieldEnd > fieldStart ? text.subSequence(fieldStart, fieldEnd).toString() :
+                "";
+    }
+
+    /**
+     * Test whether the current field is equal to the given {@link CharSequence}, without
+     * creating a {@link String}.
+     *
+     * @param   target  the {@link CharSequence} to compare against
+     * @return          {@code true} if the current field is equal to the target
+     */
+    public boolean fieldEquals(CharSequence target) {
+        int len = fieldEnd - fieldStart;
+        if (target.length() != len)
+            return false;
+        for (int i = 0; i < len; i++)
+            if (text.charAt(fieldStart + i) != target.charAt(i))
+                return false;
+        return true;
+    }
+
+}
@@ -0,0 +1,353 @@
+/*
+ * @(#) Splitter.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntPredicate;
+
+/**
+ * A pre-compiled splitter, for use when the same separator is to be applied to a large number
+ * of strings.  The separator may be either a set of characters, any one of which separates
+ * items, or a multi-character string.
+ *
+ * <p>A set of separator characters is held as a bit set for characters in the range 0 to 255,
+ * so that each character of the input is tested with a single array access.  A multi-character
+ * separator is located using the Boyer-Moore-Horspool algorithm, which uses a table of skip
+ * distances to avoid examining most characters of the input.</p>
+ *
+ * <p>Spaces may optionally be trimmed from the items, and zero-length items (after optional
+ * trimming) may optionally be dropped, as in
+ * {@link Strings#split(String, int, int, char, boolean, IntPredicate)}.  A {@code Splitter}
+ * holds no mutable state, so a single instance may be shared between threads.</p>
+ *
+ * <p>Very large inputs may be split in parallel using {@link #parallelSplit(CharSequence)};
+ * the input is partitioned at separator boundaries, the partitions are split concurrently in a
+ * {@link ForkJoinPool}, and the results are combined in order in a {@link ChunkedArrayList}.</p>
+ *
+ * @author  Peter Wall
+ */
+public class Splitter {
+
+    public static final int defaultParallelChunkSize = 1 << 20;
+
+    private static final int tableSize = 256;
+    private static final String[] emptyStringArray = {};
+
+    private final long[] separatorBits;
+    private final String otherSeparators;
+    private final String separator;
+    private final int[] skipTable;
+    private final boolean selfOverlapping;
+    private final boolean skipEmpty;
+    private final IntPredicate spaceTest;
+
+    private Splitter(long[] separatorBits, String otherSeparators, String separator,
+            int[] skipTable, boolean selfOverlapping, boolean skipEmpty, IntPredicate spaceTest) {
+        this.separatorBits = separatorBits;
+        this.otherSeparators = otherSeparators;
+        this.separator = separator;
+        this.skipTable = skipTable;
+        this.selfOverlapping = selfOverlapping;
+        this.skipEmpty = skipEmpty;
+        this.spaceTest = spaceTest;
+    }
+
+    /**
+     * Create a {@code Splitter} that splits on any of a set of separator characters.
+     *
+     * @param   separators  the separator characters
+     * @param   skipEmpty   if {@code true}, ignore zero-length items (possibly after trimming)
+     * @param   spaceTest   if not {@code null}, use to trim spaces off both ends of each item
+     * @return              the {@code Splitter}
+     * @throws              IllegalArgumentException if the set of separators is empty
+     */
+    public static Splitter anyOf(CharSequence separators, boolean skipEmpty,
+            IntPredicate spaceTest) {
+        int n = separators.length();
+        if (n == 0)
+            throw new IllegalArgumentException("Separator set must not be empty");
+        long[] bits = new long[tableSize / 64];
+        StringBuilder others = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            char ch = separators.charAt(i);
+            if (ch < tableSize)
+                bits[ch >> 6] |= 1L << ch;
+            else
+                others.append(ch);
+        }
+        return new Splitter(bits, others.toString(), null, null, false, skipEmpty, spaceTest);
+    }
+
+    /**
+     * Create a {@code Splitter} that splits on any of a set of separator characters, trimming
+     * whitespace from each item and ignoring empty items (as {@link Strings#split(String,
+     * char)}).
+     *
+     * @param   separators  the separator characters
+     * @return              the {@code Splitter}
+     * @throws              IllegalArgumentException if the set of separators is empty
+     */
+    public static Splitter anyOf(CharSequence separators) {
+        return anyOf(separators, true, Character::isWhitespace);
+    }
+
+    /**
+     * Create a {@code Splitter} that splits on a string separator.
+     *
+     * @param   separator   the separator
+     * @param   skipEmpty   if {@code true}, ignore zero-length items (possibly after trimming)
+     * @param   spaceTest   if not {@code null}, use to trim spaces off both ends of each item
+     * @return              the {@code Splitter}
+     * @throws              IllegalArgumentException if the separator is empty
+     */
+    public static Splitter onString(String separator, boolean skipEmpty, IntPredicate spaceTest) {
+        int m = separator.length();
+        if (m == 0)
+            throw new IllegalArgumentException("Separator must not be empty");
+        if (m == 1)
+            return anyOf(separator, skipEmpty, spaceTest);
+        int[] skip = new int[tableSize];
+        Arrays.fill(skip, m);
+        for (int i = 0; i < m - 1; i++)
+            skip[separator.charAt(i) & (tableSize - 1)] = m - 1 - i;
+        boolean selfOverlapping = false;
+        for (int i = 1; i < m; i++) {
+            if (separator.regionMatches(i, separator, 0, m - i)) {
+                selfOverlapping = true;
+                break;
+            }
+        }
+        return new Splitter(null, null, separator, skip, selfOverlapping, skipEmpty, spaceTest);
+    }
+
+    /**
+     * Create a {@code Splitter} that splits on a string separator, with no trimming and no
+     * removal of empty items (as {@link Strings#split(String, String)}).
+     *
+     * @param   separator   the separator
+     * @return              the {@code Splitter}
+     * @throws              IllegalArgumentException if the separator is empty
+     */
+    public static Splitter onString(String separator) {
+        return onString(separator, false, null);
+    }
+
+    /**
+     * Split a {@link CharSequence}.
+     *
+     * @param   s       the {@link CharSequence} to be split
+     * @return          an array of items (possibly empty)
+     * @throws          NullPointerException if the input is {@code null}
+     */
+    public String[] split(CharSequence s) {
+        return split(s, 0, s.length());
+    }
+
+    /**
+     * Split a portion of a {@link CharSequence}.
+     *
+     * @param   s       the {@link CharSequence} to be split
+     * @param   start   the start index of the portion to be examined
+     * @param   end     the end index (exclusive) of the portion to be examined
+     * @return          an array of items (possibly empty)
+     * @throws          NullPointerException if the input is {@code null}
+     * @throws          IndexOutOfBoundsException if {@code start} or {@code end} is invalid
+     */
+    public String[] split(CharSequence s, int start, int end) {
+        List<String> list = splitToList(s, start, end);
+        return list.isEmpty() ? emptyStringArray : list.toArray(new String[list.size()]);
+    }
+
+    /**
+     * Split a {@link CharSequence}, returning a {@link List}.
+     *
+     * @param   s       the {@link CharSequence} to be split
+     * @return          a {@link List} of items (possibly empty)
+     * @throws          NullPointerException if the input is {@code null}
+     */
+    public List<String> splitToList(CharSequence s) {
+        return splitToList(s, 0, s.length());
+    }
+
+    /**
+     * Split a portion of a {@link CharSequence}, returning a {@link List}.
+     *
+     * @param   s       the {@link CharSequence} to be split
+     * @param   start   the start index of the portion to be examined
+     * @param   end     the end index (exclusive) of the portion to be examined
+     * @return          a {@link List} of items (possibly empty)
+     * @throws          NullPointerException if the input is {@code null}
+     * @throws          IndexOutOfBoundsException if {@code start} or {@code end} is invalid
+     */
+    public List<String> splitToList(CharSequence s, int start, int end) {
+        List<String> list = new ArrayList<>();
+        SplitCursor cursor = cursor().reset(s, start, end);
+        while (cursor.next())
+            list.add(cursor.getString());
+        return list;
+    }
+
+    /**
+     * Split a {@link CharSequence} in parallel, using the common {@link ForkJoinPool} and the
+     * default chunk size.
+     *
+     * @param   s       the {@link CharSequence} to be split
+     * @return          a {@link ChunkedArrayList} of items (possibly empty)
+     * @throws          NullPointerException if the input is {@code null}
+     * @see     #parallelSplit(CharSequence, ForkJoinPool, int)
+     */
+    public ChunkedArrayList<String> parallelSplit(CharSequence s) {
+        return parallelSplit(s, ForkJoinPool.commonPool(), defaultParallelChunkSize);
+    }
+
+    /**
+     * Split a {@link CharSequence} in parallel.  The input is divided into partitions of
+     * approximately {@code chunkSize} characters, each ending at a separator, and the
+     * partitions are split concurrently in the supplied {@link ForkJoinPool}.  The result is
+     * the same as that of {@link #split(CharSequence)}.
+     *
+     * <p>The input must not be modified while the split is in progress.  A string separator
+     * that can overlap itself (for example "::", where a sequence of three colons could be
+     * matched at two positions) can not be partitioned reliably without a sequential scan, so
+     * in that case, or where the input is no longer than {@code chunkSize}, the split is
+     * performed on the current thread.</p>
+     *
+     * @param   s           the {@link CharSequence} to be split (e.g. a {@link ReaderBuffer})
+     * @param   pool        the {@link ForkJoinPool}
+     * @param   chunkSize   the approximate number of characters in each partition
+     * @return              a {@link ChunkedArrayList} of items (possibly empty)
+     * @throws              NullPointerException if the input is {@code null}
+     * @throws              IllegalArgumentException if the chunk size is not positive
+     */
+    public ChunkedArrayList<String> parallelSplit(CharSequence s, ForkJoinPool pool,
+            int chunkSize) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("Chunk size must be > 0");
+        int n = s.length();
+        ChunkedArrayList<String> result = new ChunkedArrayList<>();
+        if (n <= chunkSize || selfOverlapping) {
+            SplitCursor cursor = cursor().reset(s);
+            while (cursor.next())
+                result.add(cursor.getString());
+            return result;
+        }
+        int separatorLength = separator == null ? 1 : separator.length();
+        List<ForkJoinTask<List<String>>> tasks = new ArrayList<>(n / chunkSize + 1);
+        int start = 0;
+        for (;;) {
+            int end = n - start <= chunkSize ? n : findSeparator(s, start + chunkSize, n);
+            int partitionStart = start;
+            tasks.add(pool.submit(() -> splitToList(s, partitionStart, end)));
+            if (end >= n)
+                break;
+            start = end + separatorLength;
+        }
+        for (ForkJoinTask<List<String>> task : tasks)
+            for (String item : task.join())
+                result.add(item);
+        return result;
+    }
+
+    /**
+     * Create a {@link SplitCursor} using this {@code Splitter}.  The cursor may be reused for
+     * any number of inputs, but it is not thread-safe.
+     *
+     * @return  the {@link SplitCursor}
+     */
+    public SplitCursor cursor() {
+        return new SplitCursor(skipEmpty, spaceTest) {
+            @Override
+            protected int findSeparator(CharSequence text, int index, int end) {
+                return Splitter.this.findSeparator(text, index, end);
+            }
+            @Override
+            protected int getSeparatorLength() {
+                return separator == null ? 1 : separator.length();
+            }
+        };
+    }
+
+    /**
+     * Test whether a character is one of the set of separator characters.
+     *
+     * @param   ch      the character
+     * @return          {@code true} if the character is a separator
+     */
+    public boolean isSeparator(char ch) {
+        if (separatorBits == null)
+            return false;
+        if (ch < tableSize)
+            return (separatorBits[ch >> 6] & (1L << ch)) != 0;
+        return otherSeparators.indexOf(ch) >= 0;
+    }
+
+    /**
+     * Find the next separator in a {@link CharSequence}.
+     *
+     * @param   text    the {@link CharSequence}
+     * @param   index   the index from which to search
+     * @param   end     the end index of the portion to be examined
+     * @return          the index of the next separator, or {@code end} if there are no more
+     */
+    public int findSeparator(CharSequence text, int index, int end) {
+        if (separator == null) {
+            long[] bits = separatorBits;
+            boolean others = !otherSeparators.isEmpty();
+            while (index < end) {
+                char ch = text.charAt(index);
+                if (ch < tableSize) {
+                    if ((bits[ch >> 6] & (1L << ch)) != 0)
+                        return index;
+                }
+                else if (others && otherSeparators.indexOf(ch) >= 0)
+                    return index;
+                index++;
+            }
+            return end;
+        }
+        int m = separator.length();
+        int last = m - 1;
+        char lastChar = separator.charAt(last);
+        int stopper = end - m;
+        while (index <= stopper) {
+            char ch = text.charAt(index + last);
+            if (ch == lastChar) {
+                int j = last - 1;
+                while (j >= 0 && text.charAt(index + j) == separator.charAt(j))
+                    j--;
+                if (j < 0)
+                    return index;
+            }
+            index += skipTable[ch & (tableSize - 1)];
+        }
+        return end;
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * @(#) StringCache.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+/**
+ * A cache of {@link String}s, used to avoid creating a new {@link String} each time the same
+ * sequence of characters is extracted from a larger text (for example, header names or
+ * keywords in a tokenizer).  The cache is a fixed-size hash table in which each slot holds a
+ * single {@link String}; a new entry simply replaces the previous occupant of its slot, so the
+ * cache never grows and needs no eviction policy.
+ *
+ * <p>The hash code is computed in the same way as {@link String#hashCode()}, so that the
+ * (cached) hash code of an existing entry can be compared before the characters are.  Strings
+ * longer than a specified maximum length are not cached.</p>
+ *
+ * <p>A {@code StringCache} may be shared between threads without synchronization; concurrent
+ * use may occasionally result in a duplicate {@link String} being created, but never in an
+ * incorrect result.</p>
+ *
+ * @author  Peter Wall
+ * @see     ParseText#getResultString(StringCache)
+ */
+public class StringCache {
+
+    /** Default number of entries = 1024 */
+    public static final int defaultCapacity = 1024;
+
+    /** Default maximum length of a cached string = 64 */
+    public static final int defaultMaxLength = 64;
+
+    private final String[] table;
+    private final int mask;
+    private final int maxLength;
+
+    /**
+     * Construct a {@code StringCache} with the specified capacity and maximum string length.
+     *
+     * @param   capacity    the number of entries (rounded up to a power of two)
+     * @param   maxLength   the maximum length of a string to be cached
+     * @throws  IllegalArgumentException if the capacity is not positive or too large
+     */
+    public StringCache(int capacity, int maxLength) {
+        if (capacity <= 0 || capacity > 1 << 30)
+            throw new IllegalArgumentException("StringCache capacity invalid: " + capacity);
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+        table = new String[size];
+        mask = size - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Construct a {@code StringCache} with the default capacity and maximum string length.
+     */
+    public StringCache() {
+        this(defaultCapacity, defaultMaxLength);
+    }
+
+    /**
+     * Get a {@link String} with the same contents as a portion of a {@link CharSequence},
+     * returning the cached {@link String} if one is present.
+     *
+     * @param   cs      the {@link CharSequence}
+     * @param   start   the start index
+     * @param   end     the end index
+     * @return          the {@link String}
+     * @throws  IndexOutOfBoundsException if the start or end index is invalid
+     */
+    public String get(CharSequence cs, int start, int end) {
+        int len = end - start;
+        if (len > maxLength)
+            return cs.subSequence(start, end).toString();
+        int hash = 0;
+        for (int i = start; i < end; i++)
+            hash = 31 * hash + cs.charAt(i);
+        int slot = spread(hash) & mask;
+        String cached = table[slot];
+        if (cached != null && cached.hashCode() == hash && cached.length() == len) {
+            int i = 0;
+            while (i < len && cached.charAt(i) == cs.charAt(start + i))
+                i++;
+            if (i == len)
+                return cached;
+        }
+        String result = cs.subSequence(start, end).toString();
+        table[slot] = result;
+        return result;
+    }
+
+    /**
+     * Get a {@link String} with the same contents as a portion of a {@code char} array,
+     * returning the cached {@link String} if one is present.
+     *
+     * @param   chars   the {@code char} array
+     * @param   start   the start index
+     * @param   end     the end index
+     * @return          the {@link String}
+     * @throws  IndexOutOfBoundsException if the start or end index is invalid
+     */
+    public String get(char[] chars, int start, int end) {
+        int len = end - start;
+        if (len > maxLength)
+            return new String(chars, start, len);
+        int hash = 0;
+        for (int i = start; i < end; i++)
+            hash = 31 * hash + chars[i];
+        int slot = spread(hash) & mask;
+        String cached = table[slot];
+        if (cached != null && cached.hashCode() == hash && cached.length() == len) {
+            int i = 0;
+            while (i < len && cached.charAt(i) == chars[start + i])
+                i++;
+            if (i == len)
+                return cached;
+        }
+        String result = new String(chars, start, len);
+        table[slot] = result;
+        return result;
+    }
+
+    /**
+     * Get the cached equivalent of a {@link String}, adding it to the cache if no equivalent is
+     * present.
+     *
+     * @param   s       the {@link String}
+     * @return          the cached {@link String}, or the original
+     */
+    public String get(String s) {
+        int len = s.length();
+        if (len > maxLength)
+            return s;
+        int slot = spread(s.hashCode()) & mask;
+        String cached = table[slot];
+        if (s.equals(cached))
+            return cached;
+        table[slot] = s;
+        return s;
+    }
+
+    /**
+     * Remove all entries from the cache.
+     */
+    public void clear() {
+        for (int i = 0; i < table.length; i++)
+            table[i] = null;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+}
@@ -26,11 +26,20 @@
 package net.pwall.util;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.IntPredicate;
+import java.util.stream.Collector;
 
 /**
  * String utility functions.
@@ -47,9 +56,28 @@ public class Strings {
 
     private static char[] hexDigits = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A',
             'B', 'C', 'D', 'E', 'F' };
+    private static final char[] hexPairs = new char[512];
+    private static final byte[] hexValues = new byte[128];
+    private static final int hexChunkSize = 512;
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            hexPairs[i * 2] = hexDigits[i >> 4];
+            hexPairs[i * 2 + 1] = hexDigits[i & 0xF];
+        }
+        Arrays.fill(hexValues, (byte)-1);
+        for (int i = 0; i < 10; i++)
+            hexValues['0' + i] = (byte)i;
+        for (int i = 0; i < 6; i++) {
+            hexValues['A' + i] = (byte)(i + 10);
+            hexValues['a' + i] = (byte)(i + 10);
+        }
+    }
 
     private static final String emptyString = "";
     private static final String[] emptyStringArray = {};
+    private static final int defaultJoinCapacity = 16;
+    private static final int joinItemLengthEstimate = 8;
 
     /**
      * Private constructor to prevent instantiation.  Attempts to instantiate the class via
@@ -472,6 +500,9 @@ public class Strings {
      *          if the collection is empty)
      */
     public static <E> String join(Iterable<E> collection) {
+        if (collection instanceof Collection)
+            return join(collection.iterator(),
+                    joinCapacity(((Collection<?>)collection).size(), 0));
         return join(collection.iterator());
     }
 
@@ -484,9 +515,13 @@ public class Strings {
      *          if the {@link Iterator} has no members)
      */
     public static <E> String join(Iterator<E> it) {
+        return join(it, defaultJoinCapacity);
+    }
+
+    private static <E> String join(Iterator<E> it, int capacity) {
         if (!it.hasNext())
             return emptyString;
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(capacity);
         do {
             sb.append(it.next());
         } while (it.hasNext());
@@ -524,7 +559,7 @@ public class Strings {
         if (n == 0)
             return emptyString;
         int i = 0;
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(joinCapacity(array, 0));
         do {
             sb.append(array[i++]);
         } while (i < n);
@@ -542,6 +577,9 @@ public class Strings {
      *          if the collection is empty)
      */
     public static <E> String join(Iterable<E> collection, char separator) {
+        if (collection instanceof Collection)
+            return join(collection.iterator(), separator,
+                    joinCapacity(((Collection<?>)collection).size(), 1));
         return join(collection.iterator(), separator);
     }
 
@@ -556,9 +594,13 @@ public class Strings {
      *          if the {@link Iterator} has no members)
      */
     public static <E> String join(Iterator<E> it, char separator) {
+        return join(it, separator, defaultJoinCapacity);
+    }
+
+    private static <E> String join(Iterator<E> it, char separator, int capacity) {
         if (!it.hasNext())
             return emptyString;
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(capacity);
         for (;;) {
             sb.append(it.next());
             if (!it.hasNext())
@@ -606,7 +648,7 @@ public class Strings {
         if (n == 0)
             return emptyString;
         int i = 0;
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(joinCapacity(array, 1));
         for (;;) {
             sb.append(array[i++]);
             if (i >= n)
@@ -627,6 +669,9 @@ public class Strings {
      *          if the collection is empty)
      */
     public static <E> String join(Iterable<E> collection, String separator) {
+        if (collection instanceof Collection)
+            return join(collection.iterator(), separator,
+                    joinCapacity(((Collection<?>)collection).size(), separator.length()));
         return join(collection.iterator(), separator);
     }
 
@@ -641,9 +686,13 @@ public class Strings {
      *          if the {@link Iterator} has no members)
      */
     public static <E> String join(Iterator<E> it, String separator) {
+        return join(it, separator, defaultJoinCapacity);
+    }
+
+    private static <E> String join(Iterator<E> it, String separator, int capacity) {
         if (!it.hasNext())
             return emptyString;
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(capacity);
         for (;;) {
             sb.append(it.next());
             if (!it.hasNext())
@@ -691,7 +740,7 @@ public class Strings {
         if (n == 0)
             return emptyString;
         int i = 0;
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(joinCapacity(array, separator.length()));
         for (;;) {
             sb.append(array[i++]);
             if (i >= n)
@@ -701,6 +750,156 @@ public class Strings {
         return sb.length() == 0 ? emptyString : sb.toString();
     }
 
+    /**
+     * Calculate the initial capacity for a join operation on an array.  If every member of the
+     * array is a {@link CharSequence}, the exact length of the result can be determined in
+     * advance; otherwise, the default {@link StringBuilder} capacity is used.
+     *
+     * @param   array           the array
+     * @param   separatorLength the length of the separator
+     * @return  the initial capacity
+     */
+    private static int joinCapacity(Object[] array, int separatorLength) {
+        int n = array.length;
+        long length = (long)separatorLength * (n - 1);
+        for (Object item : array) {
+            if (!(item instanceof CharSequence))
+                return defaultJoinCapacity;
+            length += ((CharSequence)item).length();
+        }
+        return length > Integer.MAX_VALUE - 8 ? defaultJoinCapacity : (int)length;
+    }
+
+    /**
+     * Estimate the initial capacity for a join operation on a collection, from the number of
+     * members and the length of the separator.  The collection is not iterated.
+     *
+     * @param   size            the number of members
+     * @param   separatorLength the length of the separator
+     * @return  the initial capacity
+     */
+    private static int joinCapacity(int size, int separatorLength) {
+        long length = (long)(joinItemLengthEstimate + separatorLength) * size;
+        return length > Integer.MAX_VALUE - 8 ? defaultJoinCapacity :
+                Math.max((int)length, defaultJoinCapacity);
+    }
+
+    /**
+     * Append the string representations of the members of a collection to an
+     * {@link Appendable}, with the specified separator.  Members that are {@link CharSequence}s
+     * are appended directly, without conversion to {@link String}.
+     *
+     * @param   <A>         the type of the {@link Appendable}
+     * @param   <E>         class of collection item
+     * @param   a           the {@link Appendable} (e.g. a {@link java.io.Writer})
+     * @param   collection  the collection (strictly speaking, an {@link Iterable})
+     * @param   separator   the separator (may be empty)
+     * @return  the {@link Appendable} (for chaining)
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    public static <A extends Appendable, E> A joinTo(A a, Iterable<E> collection,
+            CharSequence separator) throws IOException {
+        return joinTo(a, collection.iterator(), separator);
+    }
+
+    /**
+     * Append the string representations of the members of an {@link Iterator} to an
+     * {@link Appendable}, with the specified separator.
+     *
+     * @param   <A>         the type of the {@link Appendable}
+     * @param   <E>         class of collection item
+     * @param   a           the {@link Appendable} (e.g. a {@link java.io.Writer})
+     * @param   it          the {@link Iterator}
+     * @param   separator   the separator (may be empty)
+     * @return  the {@link Appendable} (for chaining)
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    public static <A extends Appendable, E> A joinTo(A a, Iterator<E> it,
+            CharSequence separator) throws IOException {
+        if (it.hasNext()) {
+            boolean hasSeparator = separator.length() > 0;
+            for (;;) {
+                appendItem(a, it.next());
+                if (!it.hasNext())
+                    break;
+                if (hasSeparator)
+                    a.append(separator);
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Append the string representations of the members of an array to an {@link Appendable},
+     * with the specified separator.
+     *
+     * @param   <A>         the type of the {@link Appendable}
+     * @param   <E>         class of array item
+     * @param   a           the {@link Appendable} (e.g. a {@link java.io.Writer})
+     * @param   array       the array
+     * @param   separator   the separator (may be empty)
+     * @return  the {@link Appendable} (for chaining)
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    public static <A extends Appendable, E> A joinTo(A a, E[] array, CharSequence separator)
+            throws IOException {
+        int n = array.length;
+        if (n > 0) {
+            boolean hasSeparator = separator.length() > 0;
+            int i = 0;
+            for (;;) {
+                appendItem(a, array[i++]);
+                if (i >= n)
+                    break;
+                if (hasSeparator)
+                    a.append(separator);
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Append a single item of a join operation to an {@link Appendable}.
+     *
+     * @param   a       the {@link Appendable}
+     * @param   item    the item
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    private static void appendItem(Appendable a, Object item) throws IOException {
+        if (item instanceof CharSequence)
+            a.append((CharSequence)item);
+        else
+            a.append(String.valueOf(item));
+    }
+
+    /**
+     * Create a {@link Collector} that appends the members of a stream to an
+     * {@link Appendable}, with the specified separator.  The result of the collection operation
+     * is the {@link Appendable}.  An {@link IOException} thrown by the {@link Appendable} will
+     * be rethrown as an {@link UncheckedIOException}.
+     *
+     * <p>The first container created by the collector appends the members directly to the
+     * {@link Appendable}, so that a sequential stream is joined without any intermediate copy.
+     * Any further containers (in the case of a parallel stream) accumulate their members in a
+     * {@link StringBuilder}, and the combiner appends the right-hand side to the left.  If the
+     * direct container turns out to be preceded by another container, the preceding members
+     * are inserted before it; this is possible only if the {@link Appendable} is a
+     * {@link StringBuilder}, and in any other case an {@link IllegalStateException} is thrown
+     * (to join a parallel stream to a {@link java.io.Writer}, use
+     * {@link java.util.stream.Collectors#joining(CharSequence)} and write the result).</p>
+     *
+     * @param   <A>         the type of the {@link Appendable}
+     * @param   a           the {@link Appendable} (e.g. a {@link java.io.Writer})
+     * @param   separator   the separator (may be empty)
+     * @return  the {@link Collector}
+     */
+    public static <A extends Appendable> Collector<CharSequence, ?, A> joiningTo(A a,
+            CharSequence separator) {
+        AtomicBoolean claimed = new AtomicBoolean();
+        return Collector.of(() -> new JoinTarget<>(a, separator, claimed), JoinTarget::add,
+                JoinTarget::merge, JoinTarget::finish);
+    }
+
     /**
      * Replace certain characters in a string with their mapped equivalents, as specified in the
      * provided {@link CharMapper} instance.  If the string contains no characters to be mapped,
@@ -711,6 +910,8 @@ public class Strings {
      * @return  the string with characters mapped as required
      */
     public static String escape(String s, CharMapper mapper) {
+        if (mapper instanceof CompiledCharMapper)
+            return ((CompiledCharMapper)mapper).escape(s);
         for (int i = 0, n = s.length(); i < n; ) {
             String mapped = mapper.map(s.charAt(i++));
             if (mapped != null) {
@@ -739,6 +940,22 @@ public class Strings {
      * @return  the sequence with characters mapped as required
      */
     public static CharSequence escape(CharSequence s, CharMapper mapper) {
+        if (mapper instanceof CompiledCharMapper) {
+            CompiledCharMapper compiledMapper = (CompiledCharMapper)mapper;
+            int n = s.length();
+            int i = compiledMapper.findEscape(s, 0, n);
+            if (i == n)
+                return s;
+            StringBuilder sb = new StringBuilder(n + 16);
+            sb.append(s, 0, i);
+            try {
+                compiledMapper.appendEscaped(sb, s, i, n);
+            }
+            catch (IOException e) {
+                // can't happen - StringBuilder.append() does not throw IOException
+            }
+            return sb;
+        }
         for (int i = 0, n = s.length(); i < n; ) {
             String mapped = mapper.map(s.charAt(i++));
             if (mapped != null) {
@@ -759,7 +976,8 @@ public class Strings {
 
     /**
      * Append characters to an {@link Appendable}, mapping them to their "escaped" equivalents
-     * specified in the provided {@link CharMapper} instance.
+     * specified in the provided {@link CharMapper} instance.  Runs of characters that do not
+     * need to be escaped are appended in a single operation.
      *
      * @param   a       the {@link Appendable} (e.g. a {@link StringBuilder})
      * @param   s       the source {@link CharSequence}
@@ -770,14 +988,23 @@ public class Strings {
      */
     public static void appendEscaped(Appendable a, CharSequence s, int index, int end,
             CharMapper mapper) throws IOException {
+        if (mapper instanceof CompiledCharMapper) {
+            ((CompiledCharMapper)mapper).appendEscaped(a, s, index, end);
+            return;
+        }
+        int runStart = index;
         while (index < end) {
-            char ch = s.charAt(index++);
-            String mapped = mapper.map(ch);
-            if (mapped != null)
+            String mapped = mapper.map(s.charAt(index));
+            if (mapped != null) {
+                if (index > runStart)
+                    a.append(s, runStart, index);
                 a.append(mapped);
-            else
-                a.append(ch);
+                runStart = index + 1;
+            }
+            index++;
         }
+        if (index > runStart)
+            a.append(s, runStart, index);
     }
 
     /**
@@ -924,6 +1151,147 @@ public class Strings {
         appendEscapedUTF16(a, s, 0, s.length(), mapper);
     }
 
+    private static final int escapeUTF8SliceSize = 2048;
+
+    /**
+     * Replace certain characters in a {@link CharSequence} with their mapped equivalents, as
+     * specified in the provided {@link CharMapper} instance, and return the result as a byte
+     * array in UTF-8 encoding.  Surrogate sequences are converted to Unicode code points before
+     * mapping.
+     *
+     * @param   s       the {@link CharSequence} to be converted
+     * @param   mapper  the {@link CharMapper} instance
+     * @return  the UTF-8 form of the escaped sequence
+     * @throws  IllegalArgumentException if the sequence contains an invalid surrogate sequence
+     */
+    public static byte[] escapeUTF8(CharSequence s, CharMapper mapper) {
+        int n = s.length();
+        ByteArrayBuilder bab = new ByteArrayBuilder(n + (n >> 3) + 16);
+        appendEscapedUTF8(bab, s, 0, n, mapper);
+        return bab.toByteArray();
+    }
+
+    /**
+     * Append characters to a {@link ByteArrayBuilder} in UTF-8 encoding, mapping them to their
+     * "escaped" equivalents specified in the provided {@link CharMapper} instance.  Surrogate
+     * sequences are converted to Unicode code points before mapping.  If the mapper is a
+     * {@link CompiledCharMapper}, runs of characters that do not need to be escaped are copied
+     * in bulk.
+     *
+     * @param   bab     the {@link ByteArrayBuilder}
+     * @param   s       the source {@link CharSequence}
+     * @param   index   the start index within the source
+     * @param   end     the end index within the source
+     * @param   mapper  the {@link CharMapper}
+     * @throws  IllegalArgumentException if the source contains an invalid surrogate sequence
+     */
+    public static void appendEscapedUTF8(ByteArrayBuilder bab, CharSequence s, int index,
+            int end, CharMapper mapper) {
+        CompiledCharMapper compiled = mapper instanceof CompiledCharMapper ?
+                (CompiledCharMapper)mapper : null;
+        while (index < end) {
+            if (compiled != null) {
+                int runEnd = compiled.findTableRunEnd(s, index, end);
+                if (runEnd > index) {
+                    appendUTF8(bab, s, index, runEnd);
+                    if ((index = runEnd) >= end)
+                        break;
+                }
+            }
+            char ch1 = s.charAt(index++);
+            int codePoint;
+            if (Character.isHighSurrogate(ch1)) {
+                char ch2;
+                if (index >= end || !Character.isLowSurrogate(ch2 = s.charAt(index++)))
+                    throw new IllegalArgumentException("Illegal surrogate sequence");
+                codePoint = Character.toCodePoint(ch1, ch2);
+            }
+            else
+                codePoint = ch1;
+            String mapped = mapper.map(codePoint);
+            if (mapped != null)
+                appendUTF8(bab, mapped, 0, mapped.length());
+            else
+                appendUTF8(bab, codePoint);
+        }
+    }
+
+    /**
+     * Append characters to a {@link ByteArrayBuilder} in UTF-8 encoding, mapping them to their
+     * "escaped" equivalents specified in the provided {@link CharMapper} instance.  Surrogate
+     * sequences are converted to Unicode code points before mapping.
+     *
+     * @param   bab     the {@link ByteArrayBuilder}
+     * @param   s       the source {@link CharSequence}
+     * @param   mapper  the {@link CharMapper}
+     * @throws  IllegalArgumentException if the source contains an invalid surrogate sequence
+     */
+    public static void appendEscapedUTF8(ByteArrayBuilder bab, CharSequence s,
+            CharMapper mapper) {
+        appendEscapedUTF8(bab, s, 0, s.length(), mapper);
+    }
+
+    /**
+     * Write characters to an {@link OutputStream} in UTF-8 encoding, mapping them to their
+     * "escaped" equivalents specified in the provided {@link CharMapper} instance.  The output
+     * is produced in a single pass, using a small intermediate buffer which is written to the
+     * {@link OutputStream} as it fills.
+     *
+     * @param   os      the {@link OutputStream}
+     * @param   s       the source {@link CharSequence}
+     * @param   mapper  the {@link CharMapper}
+     * @throws  IOException if thrown by the {@link OutputStream}
+     * @throws  IllegalArgumentException if the source contains an invalid surrogate sequence
+     */
+    public static void writeEscapedUTF8(OutputStream os, CharSequence s, CharMapper mapper)
+            throws IOException {
+        ByteArrayBuilder bab = new ByteArrayBuilder(escapeUTF8SliceSize * 2);
+        for (int i = 0, n = s.length(); i < n; ) {
+            int sliceEnd = escapeUTF8SliceEnd(s, i, n);
+            appendEscapedUTF8(bab.clear(), s, i, sliceEnd, mapper);
+            bab.writeTo(os);
+            i = sliceEnd;
+        }
+    }
+
+    /**
+     * Put characters into a {@link ByteBuffer} in UTF-8 encoding, mapping them to their
+     * "escaped" equivalents specified in the provided {@link CharMapper} instance.  The output
+     * is produced in a single pass, using a small intermediate buffer which is copied to the
+     * {@link ByteBuffer} as it fills.
+     *
+     * @param   byteBuffer  the {@link ByteBuffer}
+     * @param   s           the source {@link CharSequence}
+     * @param   mapper      the {@link CharMapper}
+     * @throws  java.nio.BufferOverflowException if there is insufficient space in the buffer
+     * @throws  IllegalArgumentException if the source contains an invalid surrogate sequence
+     */
+    public static void putEscapedUTF8(ByteBuffer byteBuffer, CharSequence s, CharMapper mapper) {
+        ByteArrayBuilder bab = new ByteArrayBuilder(escapeUTF8SliceSize * 2);
+        for (int i = 0, n = s.length(); i < n; ) {
+            int sliceEnd = escapeUTF8SliceEnd(s, i, n);
+            appendEscapedUTF8(bab.clear(), s, i, sliceEnd, mapper);
+            bab.writeTo(byteBuffer);
+            i = sliceEnd;
+        }
+    }
+
+    /**
+     * Get the end index of the next slice of a {@link CharSequence} to be processed by the
+     * UTF-8 escape functions, taking care not to split a surrogate pair.
+     *
+     * @param   s       the {@link CharSequence}
+     * @param   index   the start index of the slice
+     * @param   end     the end index of the entire sequence
+     * @return          the end index of the slice
+     */
+    private static int escapeUTF8SliceEnd(CharSequence s, int index, int end) {
+        if (end - index <= escapeUTF8SliceSize)
+            return end;
+        int sliceEnd = index + escapeUTF8SliceSize;
+        return Character.isHighSurrogate(s.charAt(sliceEnd - 1)) ? sliceEnd + 1 : sliceEnd;
+    }
+
     /**
      * Scan a string for escape sequences and replace them by the original characters.  For
      * example, in Java code the backslash character indicates the start of an escape sequence
@@ -931,27 +1299,53 @@ public class Strings {
      * string contains no escape sequences to be unmapped, the original sequence is returned
      * unmodified.
      *
+     * <p>If the {@link CharUnmapper} declares its trigger characters (see
+     * {@link CharUnmapper#getTriggerChars()}), the string is scanned for those characters and
+     * the text between escape sequences is copied in bulk.</p>
+     *
      * @param   s           the string to be converted
      * @param   unmapper    an instance of the {@link CharUnmapper} class, which will perform
      *                      the actual escape sequence mapping
      * @return              the "unescaped" string
      */
     public static String unescape(String s, CharUnmapper unmapper) {
-        for (int i = 0, n = s.length(); i < n; i++) {
+        String triggers = unmapper.getTriggerChars();
+        if (triggers == null) {
+            for (int i = 0, n = s.length(); i < n; i++) {
+                if (unmapper.isEscape(s, i)) {
+                    StringBuilder sb = new StringBuilder(s.length());
+                    sb.append(s, 0, i);
+                    i += unmapper.unmap(sb, s, i);
+                    while (i < n) {
+                        if (unmapper.isEscape(s, i))
+                            i += unmapper.unmap(sb, s, i);
+                        else
+                            sb.append(s.charAt(i++));
+                    }
+                    return sb.toString();
+                }
+            }
+            return s;
+        }
+        StringBuilder sb = null;
+        int runStart = 0;
+        int i = 0;
+        int n = s.length();
+        while ((i = findTrigger(s, i, n, triggers)) < n) {
             if (unmapper.isEscape(s, i)) {
-                StringBuilder sb = new StringBuilder(s.length());
-                sb.append(s, 0, i);
+                if (sb == null)
+                    sb = new StringBuilder(n);
+                sb.append(s, runStart, i);
                 i += unmapper.unmap(sb, s, i);
-                while (i < n) {
-                    if (unmapper.isEscape(s, i))
-                        i += unmapper.unmap(sb, s, i);
-                    else
-                        sb.append(s.charAt(i++));
-                }
-                return sb.toString();
+                runStart = i;
             }
+            else
+                i++;
         }
-        return s;
+        if (sb == null)
+            return s;
+        sb.append(s, runStart, n);
+        return sb.toString();
     }
 
     /**
@@ -965,21 +1359,78 @@ public class Strings {
      * @return              the "unescaped" {@link CharSequence}
      */
     public static CharSequence unescape(CharSequence s, CharUnmapper unmapper) {
-        for (int i = 0, n = s.length(); i < n; i++) {
+        String triggers = unmapper.getTriggerChars();
+        if (triggers == null) {
+            for (int i = 0, n = s.length(); i < n; i++) {
+                if (unmapper.isEscape(s, i)) {
+                    StringBuilder sb = new StringBuilder(s.length());
+                    sb.append(s, 0, i);
+                    i += unmapper.unmap(sb, s, i);
+                    while (i < n) {
+                        if (unmapper.isEscape(s, i))
+                            i += unmapper.unmap(sb, s, i);
+                        else
+                            sb.append(s.charAt(i++));
+                    }
+                    return sb;
+                }
+            }
+            return s;
+        }
+        StringBuilder sb = null;
+        int runStart = 0;
+        int i = 0;
+        int n = s.length();
+        while ((i = findTrigger(s, i, n, triggers)) < n) {
             if (unmapper.isEscape(s, i)) {
-                StringBuilder sb = new StringBuilder(s.length());
-                sb.append(s, 0, i);
+                if (sb == null)
+                    sb = new StringBuilder(n);
+                sb.append(s, runStart, i);
                 i += unmapper.unmap(sb, s, i);
-                while (i < n) {
-                    if (unmapper.isEscape(s, i))
-                        i += unmapper.unmap(sb, s, i);
-                    else
-                        sb.append(s.charAt(i++));
-                }
-                return sb;
+                runStart = i;
             }
+            else
+                i++;
         }
-        return s;
+        if (sb == null)
+            return s;
+        sb.append(s, runStart, n);
+        return sb;
+    }
+
+    /**
+     * Find the next occurrence in a {@link String} of any of a set of trigger characters.  A
+     * single trigger character uses {@link String#indexOf(int, int)}.
+     *
+     * @param   s           the {@link String}
+     * @param   index       the start index
+     * @param   end         the end index
+     * @param   triggers    the trigger characters
+     * @return              the index of the next trigger character, or {@code end} if none
+     */
+    private static int findTrigger(String s, int index, int end, String triggers) {
+        if (triggers.length() == 1) {
+            int i = s.indexOf(triggers.charAt(0), index);
+            return i < 0 || i >= end ? end : i;
+        }
+        while (index < end && triggers.indexOf(s.charAt(index)) < 0)
+            index++;
+        return index;
+    }
+
+    /**
+     * Find the next occurrence in a {@link CharSequence} of any of a set of trigger characters.
+     *
+     * @param   s           the {@link CharSequence}
+     * @param   index       the start index
+     * @param   end         the end index
+     * @param   triggers    the trigger characters
+     * @return              the index of the next trigger character, or {@code end} if none
+     */
+    private static int findTrigger(CharSequence s, int index, int end, String triggers) {
+        while (index < end && triggers.indexOf(s.charAt(index)) < 0)
+            index++;
+        return index;
     }
 
     /**
@@ -1078,21 +1529,88 @@ public class Strings {
         // note - expects the string to be encoded in UTF-16
         if (str == null)
             throw new IllegalArgumentException("String must not be null");
-        ByteArrayBuilder bab = new ByteArrayBuilder((end - start) * 5 / 4);
+        byte[] bytes = new byte[utf8Length(str, start, end)];
+        encodeUTF8(str, start, end, bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Get the number of bytes required to encode a portion of a {@link CharSequence} in UTF-8.
+     *
+     * @param   s       the {@link CharSequence}
+     * @param   start   the start index
+     * @param   end     the end index
+     * @return          the number of bytes
+     * @throws          IllegalArgumentException if the {@link CharSequence} contains an invalid
+     *                  UTF-16 sequence
+     */
+    public static int utf8Length(CharSequence s, int start, int end) {
+        int length = end - start;
         for (int i = start; i < end; i++) {
-            char ch = str.charAt(i);
-            int codePoint;
-            if (Character.isHighSurrogate(ch)) {
+            char ch = s.charAt(i);
+            if (ch >= 0x80) {
+                if (ch < 0x800)
+                    length++;
+                else if (Character.isHighSurrogate(ch)) {
+                    if (++i >= end || !Character.isLowSurrogate(s.charAt(i)))
+                        throw new IllegalArgumentException("Invalid UTF-16 surrogate sequence");
+                    length += 2; // 4 bytes for 2 chars
+                }
+                else
+                    length += 2;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Encode a portion of a {@link CharSequence} in UTF-8 into a byte array.  The array must be
+     * large enough to hold the result (see {@link #utf8Length(CharSequence, int, int)}).
+     * Runs of ASCII characters are copied in a tight loop with no further tests.
+     *
+     * @param   s       the {@link CharSequence}
+     * @param   start   the start index
+     * @param   end     the end index
+     * @param   bytes   the byte array
+     * @param   offset  the offset in the byte array at which to store the result
+     * @return          the offset following the encoded bytes
+     * @throws          IllegalArgumentException if the {@link CharSequence} contains an invalid
+     *                  UTF-16 sequence
+     * @throws          ArrayIndexOutOfBoundsException if the byte array is too small
+     */
+    public static int encodeUTF8(CharSequence s, int start, int end, byte[] bytes, int offset) {
+        int i = start;
+        while (i < end) {
+            char ch = s.charAt(i++);
+            if (ch < 0x80) {
+                bytes[offset++] = (byte)ch;
+                while (i < end && (ch = s.charAt(i)) < 0x80) {
+                    bytes[offset++] = (byte)ch;
+                    i++;
+                }
+            }
+            else if (ch < 0x800) {
+                bytes[offset++] = (byte)((ch >> 6) | 0xC0);
+                bytes[offset++] = (byte)((ch & 0x3F) | 0x80);
+            }
+            else if (Character.isHighSurrogate(ch)) {
                 char lowSurrogate;
-                if (++i >= end || !Character.isLowSurrogate(lowSurrogate = str.charAt(i)))
+                if (i >= end || !Character.isLowSurrogate(lowSurrogate = s.charAt(i)))
                     throw new IllegalArgumentException("Invalid UTF-16 surrogate sequence");
-                codePoint = Character.toCodePoint(ch, lowSurrogate);
+                i++;
+                int codePoint = Character.toCodePoint(ch, lowSurrogate);
+                bytes[offset++] = (byte)((codePoint >> 18) | 0xF0);
+                bytes[offset++] = (byte)(((codePoint >> 12) & 0x3F) | 0x80);
+                bytes[offset++] = (byte)(((codePoint >> 6) & 0x3F) | 0x80);
+                bytes[offset++] = (byte)((codePoint & 0x3F) | 0x80);
+            }
+            else {
+                bytes[offset++] = (byte)((ch >> 12) | 0xE0);
+                bytes[offset++] = (byte)(((ch >> 6) & 0x3F) | 0x80);
+                bytes[offset++] = (byte)((ch & 0x3F) | 0x80);
             }
-            else
-                codePoint = ch;
-            appendUTF8(bab, codePoint);
         }
-        return bab.toByteArray();
+        return offset;
     }
 
     /**
@@ -1122,57 +1640,296 @@ public class Strings {
     }
 
     /**
-     * Convert a sequence of bytes in a {@link ByteBuffer} from UTF-8 encoding to a UTF-16 string.
+     * Append a portion of a {@link CharSequence} to a {@link ByteArrayBuilder} as UTF-8.
+     * Surrogate pairs are combined into a single code point; an unpaired surrogate is encoded
+     * as if it were a code point in its own right.
      *
-     * @param   byteBuffer  the {@link ByteBuffer}
-     * @return              the decoded string
-     * @throws              IllegalArgumentException if the byte array is {@code null}, if the start
-     *                      or end index is invalid, or if the byte array contains an invalid UTF-8
-     *                      sequence
+     * @param   bab     the {@link ByteArrayBuilder}
+     * @param   s       the {@link CharSequence}
+     * @param   start   the start index
+     * @param   end     the end index
      */
-    public static String fromUTF8(ByteBuffer byteBuffer) {
-        if (byteBuffer == null)
-            throw new IllegalArgumentException("ByteBuffer must not be null");
-        return fromUTF8(new Iterator<Byte>() {
-            @Override
-            public boolean hasNext() {
-                return byteBuffer.hasRemaining();
-            }
-            @Override
-            public Byte next() {
-                return byteBuffer.get();
+    public static void appendUTF8(ByteArrayBuilder bab, CharSequence s, int start, int end) {
+        while (start < end) {
+            char ch = s.charAt(start++);
+            if (ch < 0x80)
+                bab.append(ch);
+            else {
+                char ch2;
+                if (Character.isHighSurrogate(ch) && start < end &&
+                        Character.isLowSurrogate(ch2 = s.charAt(start))) {
+                    appendUTF8(bab, Character.toCodePoint(ch, ch2));
+                    start++;
+                }
+                else
+                    appendUTF8(bab, ch);
             }
-        });
+        }
     }
 
+    private static final int utf8DecodeChunkSize = 1024;
+
     /**
-     * Convert a sequence of bytes in an array of {@link ByteBuffer}s from UTF-8 encoding to a UTF-16 string.
+     * Convert a sequence of bytes in a {@link ByteBuffer} from UTF-8 encoding to a UTF-16 string.
+     * The bytes from the current position to the limit are decoded, and the position is then
+     * advanced to the limit; if the bytes are not valid UTF-8, the position is left unchanged.
      *
-     * @param   byteBuffers the {@link ByteBuffer} array
+     * @param   byteBuffer  the {@link ByteBuffer}
      * @return              the decoded string
-     * @throws              IllegalArgumentException if the byte array is {@code null}, if the start
-     *                      or end index is invalid, or if the byte array contains an invalid UTF-8
-     *                      sequence
+     * @throws              IllegalArgumentException if the {@link ByteBuffer} is {@code null}, or
+     *                      if it contains an invalid UTF-8 sequence
      */
-    public static String fromUTF8(ByteBuffer[] byteBuffers) {
-        if (byteBuffers == null)
-            throw new IllegalArgumentException("ByteBuffer array must not be null");
-        return fromUTF8(new Iterator<Byte>() {
-            int i = 0;
-            @Override
-            public boolean hasNext() {
-                while (i < byteBuffers.length) {
-                    if (byteBuffers[i].hasRemaining())
-                        return true;
-                    i++;
-                }
-                return false;
+    public static String fromUTF8(ByteBuffer byteBuffer) {
+        if (byteBuffer == null)
+            throw new IllegalArgumentException("ByteBuffer must not be null");
+        if (byteBuffer.hasArray()) {
+            int start = byteBuffer.arrayOffset() + byteBuffer.position();
+            int end = start + byteBuffer.remaining();
+            String result = fromUTF8(byteBuffer.array(), start, end);
+            byteBuffer.position(byteBuffer.limit());
+            return result;
+        }
+        StringBuilder sb = new StringBuilder(byteBuffer.remaining());
+        try {
+            decodeUTF8(byteBuffer.duplicate(), sb);
+        }
+        catch (IOException e) {
+            // can't happen - StringBuilder.append() does not throw IOException
+        }
+        byteBuffer.position(byteBuffer.limit());
+        return sb.toString();
+    }
+
+    /**
+     * Convert a sequence of bytes in an array of {@link ByteBuffer}s from UTF-8 encoding to a UTF-16 string.
+     * A multi-byte sequence may be split across two or more of the {@link ByteBuffer}s.
+     *
+     * @param   byteBuffers the {@link ByteBuffer} array
+     * @return              the decoded string
+     * @throws              IllegalArgumentException if the array is {@code null}, or if the
+     *                      {@link ByteBuffer}s contain an invalid UTF-8 sequence
+     */
+    public static String fromUTF8(ByteBuffer[] byteBuffers) {
+        if (byteBuffers == null)
+            throw new IllegalArgumentException("ByteBuffer array must not be null");
+        int length = 0;
+        for (ByteBuffer byteBuffer : byteBuffers)
+            length += byteBuffer.remaining();
+        StringBuilder sb = new StringBuilder(length);
+        try {
+            decodeUTF8(byteBuffers, sb);
+        }
+        catch (IOException e) {
+            // can't happen - StringBuilder.append() does not throw IOException
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Decode a sequence of bytes in a {@link ByteBuffer} from UTF-8 and append the result to an
+     * {@link Appendable} (for example, a {@link CharBuffer} or a {@link StringBuilder}).  The
+     * bytes from the current position to the limit are decoded, and the position is advanced to
+     * the limit.  The bytes of a heap buffer are decoded directly from the backing array (and if
+     * the {@link Appendable} is a heap {@link CharBuffer} with sufficient space, directly into
+     * its backing array); those of a direct buffer are copied in blocks using a bulk get
+     * operation.
+     *
+     * @param   byteBuffer  the {@link ByteBuffer}
+     * @param   a           the {@link Appendable}
+     * @throws  IOException if thrown by the {@link Appendable}
+     * @throws  IllegalArgumentException if the bytes contain an invalid UTF-8 sequence
+     * @throws  java.nio.BufferOverflowException if the {@link Appendable} is a {@link CharBuffer}
+     *          with insufficient space
+     */
+    public static void decodeUTF8(ByteBuffer byteBuffer, Appendable a) throws IOException {
+        if (byteBuffer.hasArray()) {
+            int start = byteBuffer.arrayOffset() + byteBuffer.position();
+            int end = start + byteBuffer.remaining();
+            byteBuffer.position(byteBuffer.limit());
+            decodeUTF8(byteBuffer.array(), start, end, a);
+        }
+        else if (byteBuffer.hasRemaining()) {
+            char[] chars = new char[Math.min(byteBuffer.remaining(), utf8DecodeChunkSize)];
+            if (decodeUTF8(byteBuffer, new byte[4], 0, a, chars) > 0)
+                throw new IllegalArgumentException("Incomplete sequence in UTF-8 bytes");
+        }
+    }
+
+    /**
+     * Decode a sequence of bytes in an array of {@link ByteBuffer}s from UTF-8 and append the
+     * result to an {@link Appendable}.  A multi-byte sequence may be split across two or more
+     * of the {@link ByteBuffer}s.
+     *
+     * @param   byteBuffers the {@link ByteBuffer} array
+     * @param   a           the {@link Appendable}
+     * @throws  IOException if thrown by the {@link Appendable}
+     * @throws  IllegalArgumentException if the bytes contain an invalid UTF-8 sequence
+     * @see     #decodeUTF8(ByteBuffer, Appendable)
+     */
+    public static void decodeUTF8(ByteBuffer[] byteBuffers, Appendable a) throws IOException {
+        char[] chars = new char[utf8DecodeChunkSize];
+        byte[] carry = new byte[4];
+        int carryLength = 0;
+        for (ByteBuffer byteBuffer : byteBuffers)
+            carryLength = decodeUTF8(byteBuffer, carry, carryLength, a, chars);
+        if (carryLength > 0)
+            throw new IllegalArgumentException("Incomplete sequence in UTF-8 bytes");
+    }
+
+    /**
+     * Decode the bytes of a single {@link ByteBuffer} from UTF-8, first completing any sequence
+     * carried over from a previous buffer.  An incomplete sequence at the end of the buffer is
+     * copied to the carry array to be completed by the next buffer.
+     *
+     * @param   byteBuffer  the {@link ByteBuffer}
+     * @param   carry       the carry array (4 bytes)
+     * @param   carryLength the number of bytes in the carry array
+     * @param   a           the {@link Appendable}
+     * @param   chars       a {@code char} array for use as a work area
+     * @return              the new number of bytes in the carry array
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    private static int decodeUTF8(ByteBuffer byteBuffer, byte[] carry, int carryLength,
+            Appendable a, char[] chars) throws IOException {
+        if (byteBuffer.hasArray()) {
+            int start = byteBuffer.arrayOffset() + byteBuffer.position();
+            int end = start + byteBuffer.remaining();
+            byteBuffer.position(byteBuffer.limit());
+            return decodeUTF8Chunk(byteBuffer.array(), start, end, carry, carryLength, a, chars);
+        }
+        byte[] scratch = null;
+        while (byteBuffer.hasRemaining()) {
+            if (scratch == null)
+                scratch = new byte[Math.min(byteBuffer.remaining(), utf8DecodeChunkSize)];
+            int n = Math.min(scratch.length, byteBuffer.remaining());
+            byteBuffer.get(scratch, 0, n);
+            carryLength = decodeUTF8Chunk(scratch, 0, n, carry, carryLength, a, chars);
+        }
+        return carryLength;
+    }
+
+    /**
+     * Decode a complete sequence of UTF-8 bytes in an array and append the result to an
+     * {@link Appendable}.  If the {@link Appendable} is a heap {@link CharBuffer} with space for
+     * the maximum possible number of characters, the bytes are decoded directly into its backing
+     * array; otherwise they are decoded in blocks using a work area sized to the input.
+     *
+     * @param   bytes   the byte array
+     * @param   start   the start index
+     * @param   end     the end index
+     * @param   a       the {@link Appendable}
+     * @throws  IOException if thrown by the {@link Appendable}
+     * @throws  IllegalArgumentException if the bytes contain an invalid UTF-8 sequence
+     */
+    private static void decodeUTF8(byte[] bytes, int start, int end, Appendable a)
+            throws IOException {
+        if (a instanceof CharBuffer) {
+            CharBuffer charBuffer = (CharBuffer)a;
+            if (charBuffer.hasArray() && charBuffer.remaining() >= end - start) {
+                int offset = charBuffer.arrayOffset() + charBuffer.position();
+                int length = decodeUTF8(bytes, start, end, charBuffer.array(), offset) - offset;
+                charBuffer.position(charBuffer.position() + length);
+                return;
             }
-            @Override
-            public Byte next() {
-                return byteBuffers[i].get();
+        }
+        if (end > start)
+            appendDecodedUTF8(bytes, start, end, a,
+                    new char[Math.min(end - start, utf8DecodeChunkSize)]);
+    }
+
+    /**
+     * Decode a block of UTF-8 bytes, first completing any sequence carried over from the
+     * previous block.  An incomplete sequence at the end of the block is copied to the carry
+     * array to be completed by the next block.
+     *
+     * @param   bytes       the byte array
+     * @param   start       the start index
+     * @param   end         the end index
+     * @param   carry       the carry array (4 bytes)
+     * @param   carryLength the number of bytes in the carry array
+     * @param   a           the {@link Appendable}
+     * @param   chars       a {@code char} array for use as a work area
+     * @return              the new number of bytes in the carry array
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    private static int decodeUTF8Chunk(byte[] bytes, int start, int end, byte[] carry,
+            int carryLength, Appendable a, char[] chars) throws IOException {
+        int i = start;
+        if (carryLength > 0) {
+            int needed = utf8SequenceLength(carry[0]);
+            while (carryLength < needed && i < end)
+                carry[carryLength++] = bytes[i++];
+            if (carryLength < needed)
+                return carryLength;
+            appendChars(a, chars, decodeUTF8(carry, 0, needed, chars, 0));
+        }
+        int boundary = utf8Boundary(bytes, i, end);
+        appendDecodedUTF8(bytes, i, boundary, a, chars);
+        System.arraycopy(bytes, boundary, carry, 0, end - boundary);
+        return end - boundary;
+    }
+
+    /**
+     * Decode a sequence of UTF-8 bytes and append the result to an {@link Appendable}, using a
+     * {@code char} array as a work area.  If the sequence is longer than the work area, it is
+     * split into blocks at UTF-8 sequence boundaries.
+     *
+     * @param   bytes   the byte array
+     * @param   i       the start index
+     * @param   end     the end index
+     * @param   a       the {@link Appendable}
+     * @param   chars   a {@code char} array for use as a work area
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    private static void appendDecodedUTF8(byte[] bytes, int i, int end, Appendable a,
+            char[] chars) throws IOException {
+        while (i < end) {
+            int chunkEnd = end;
+            if (end - i > chars.length) {
+                chunkEnd = i + chars.length;
+                for (int j = 0; j < 3 && (bytes[chunkEnd] & 0xC0) == 0x80; j++)
+                    chunkEnd--;
             }
-        });
+            appendChars(a, chars, decodeUTF8(bytes, i, chunkEnd, chars, 0));
+            i = chunkEnd;
+        }
+    }
+
+    /**
+     * Find the end of the last complete UTF-8 sequence in a block of bytes.  If the block ends
+     * with the start of a multi-byte sequence that is not complete, the index of the first byte
+     * of that sequence is returned; otherwise the end index is returned.
+     *
+     * @param   bytes   the byte array
+     * @param   start   the start index
+     * @param   end     the end index
+     * @return          the index following the last complete sequence
+     */
+    private static int utf8Boundary(byte[] bytes, int start, int end) {
+        int i = end - 1;
+        int stopper = Math.max(start, end - 3);
+        while (i > stopper && (bytes[i] & 0xC0) == 0x80)
+            i--;
+        if (i >= start && utf8SequenceLength(bytes[i]) > end - i)
+            return i;
+        return end;
+    }
+
+    /**
+     * Get the length of a UTF-8 sequence from its first byte.  An invalid first byte is
+     * reported as a sequence of length 1 (the error will be detected when it is decoded).
+     *
+     * @param   b       the first byte
+     * @return          the length of the sequence
+     */
+    private static int utf8SequenceLength(byte b) {
+        if ((b & 0xE0) == 0xC0)
+            return 2;
+        if ((b & 0xF0) == 0xE0)
+            return 3;
+        if ((b & 0xF8) == 0xF0)
+            return 4;
+        return 1;
     }
 
     /**
@@ -1256,38 +2013,78 @@ public class Strings {
             throw new IllegalArgumentException("Start index invalid: " + start);
         if (end < start || end > bytes.length)
             throw new IllegalArgumentException("End index invalid: " + end);
-        StringBuilder sb = new StringBuilder();
-        for (int i = start; i < end; i++) {
-            int b = bytes[i];
+        // the number of chars can not exceed the number of bytes
+        char[] chars = new char[end - start];
+        return new String(chars, 0, decodeUTF8(bytes, start, end, chars, 0));
+    }
+
+    /**
+     * Decode a portion of a byte array from UTF-8 into a {@code char} array.  The array must be
+     * large enough to hold the result; the number of characters will never be greater than the
+     * number of bytes.  The bytes are examined eight at a time where possible, and a group of
+     * eight ASCII bytes is copied without further tests.
+     *
+     * <p>The decoding rejects overlong forms (for example, 0xC0 0x80 for a null character) and
+     * sequences representing values above U+10FFFF.</p>
+     *
+     * @param   bytes   the byte array
+     * @param   start   the start index
+     * @param   end     the end index
+     * @param   chars   the {@code char} array
+     * @param   offset  the offset in the {@code char} array at which to store the result
+     * @return          the offset following the decoded characters
+     * @throws          IllegalArgumentException if the bytes contain an invalid UTF-8 sequence
+     * @throws          ArrayIndexOutOfBoundsException if the {@code char} array is too small
+     */
+    public static int decodeUTF8(byte[] bytes, int start, int end, char[] chars, int offset) {
+        int i = start;
+        while (i < end) {
+            long packed;
+            if (end - i >= 8 && ((packed = packBytes(bytes, i)) & 0x8080808080808080L) == 0) {
+                // all eight bytes are ASCII - unpack them from the word already loaded
+                chars[offset] = (char)(packed & 0x7F);
+                chars[offset + 1] = (char)(packed >>> 8 & 0x7F);
+                chars[offset + 2] = (char)(packed >>> 16 & 0x7F);
+                chars[offset + 3] = (char)(packed >>> 24 & 0x7F);
+                chars[offset + 4] = (char)(packed >>> 32 & 0x7F);
+                chars[offset + 5] = (char)(packed >>> 40 & 0x7F);
+                chars[offset + 6] = (char)(packed >>> 48 & 0x7F);
+                chars[offset + 7] = (char)(packed >>> 56);
+                offset += 8;
+                i += 8;
+                continue;
+            }
+            int b = bytes[i++];
             if ((b & 0x80) == 0)
-                sb.append((char)b);
+                chars[offset++] = (char)b;
             else if ((b & 0x40) == 0)
                 throw new IllegalArgumentException("Illegal character in UTF-8 bytes");
             else if ((b & 0x20) == 0) {
-                int codePoint = b & 0x1F;
-                codePoint = addToCodePoint(codePoint, bytes, ++i, end);
-                sb.append((char)codePoint);
+                int codePoint = addToCodePoint(b & 0x1F, bytes, i++, end);
+                if (codePoint < 0x80)
+                    throw new IllegalArgumentException("Illegal character in UTF-8 bytes");
+                chars[offset++] = (char)codePoint;
             }
             else if ((b & 0x10) == 0) {
-                int codePoint = b & 0x0F;
-                codePoint = addToCodePoint(codePoint, bytes, ++i, end);
-                codePoint = addToCodePoint(codePoint, bytes, ++i, end);
-                sb.append((char)codePoint);
+                int codePoint = addToCodePoint(b & 0x0F, bytes, i++, end);
+                codePoint = addToCodePoint(codePoint, bytes, i++, end);
+                if (codePoint < 0x800)
+                    throw new IllegalArgumentException("Illegal character in UTF-8 bytes");
+                chars[offset++] = (char)codePoint;
             }
             else {
-                int codePoint = b & 0x07;
-                codePoint = addToCodePoint(codePoint, bytes, ++i, end);
-                codePoint = addToCodePoint(codePoint, bytes, ++i, end);
-                codePoint = addToCodePoint(codePoint, bytes, ++i, end);
-                try {
-                    appendUTF16(sb, codePoint);
-                }
-                catch (IOException ioe) {
-                    // can't happen - StringBuilder.append() does not throw IOException
-                }
+                if ((b & 0x08) != 0)
+                    throw new IllegalArgumentException("Illegal character in UTF-8 bytes");
+                int codePoint = addToCodePoint(b & 0x07, bytes, i++, end);
+                codePoint = addToCodePoint(codePoint, bytes, i++, end);
+                codePoint = addToCodePoint(codePoint, bytes, i++, end);
+                if (codePoint < 0x10000 || codePoint > Character.MAX_CODE_POINT)
+                    throw new IllegalArgumentException("Illegal character in UTF-8 bytes");
+                chars[offset++] = Character.highSurrogate(codePoint);
+                chars[offset++] = Character.lowSurrogate(codePoint);
             }
         }
-        return sb.toString();
+        return offset;
     }
 
     /**
@@ -1322,16 +2119,14 @@ public class Strings {
         int n = s.length();
         if (n == 0)
             return "";
-        StringBuilder sb = new StringBuilder();
+        char[] chars = new char[n * 4];
+        int j = 0;
         for (int i = 0; i < n; i++) {
-            try {
-                appendHex(sb, s.charAt(i));
-            }
-            catch (IOException e) {
-                // can't happen - StringBuilder.append() does not throw IOException
-            }
+            char ch = s.charAt(i);
+            j = storeHexPair(chars, j, ch >> 8);
+            j = storeHexPair(chars, j, ch & 0xFF);
         }
-        return sb.toString();
+        return new String(chars);
     }
 
     /**
@@ -1349,20 +2144,16 @@ public class Strings {
         int n = s.length();
         if (n == 0)
             return "";
-        StringBuilder sb = new StringBuilder();
-        int i = 0;
-        for (;;) {
-            try {
-                appendHex(sb, s.charAt(i++));
-            }
-            catch (IOException e) {
-                // can't happen - StringBuilder.append() does not throw IOException
-            }
-            if (i >= n)
-                break;
-            sb.append(separator);
+        char[] chars = new char[n * 5 - 1];
+        int j = 0;
+        for (int i = 0; i < n; i++) {
+            if (i > 0)
+                chars[j++] = separator;
+            char ch = s.charAt(i);
+            j = storeHexPair(chars, j, ch >> 8);
+            j = storeHexPair(chars, j, ch & 0xFF);
         }
-        return sb.toString();
+        return new String(chars);
     }
 
     /**
@@ -1378,16 +2169,9 @@ public class Strings {
         int n = bytes.length;
         if (n == 0)
             return "";
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < n; i++) {
-            try {
-                appendHex(sb, bytes[i]);
-            }
-            catch (IOException e) {
-                // can't happen - StringBuilder.append() does not throw IOException
-            }
-        }
-        return sb.toString();
+        char[] chars = new char[n * 2];
+        encodeHex(bytes, 0, n, chars, 0);
+        return new String(chars);
     }
 
     /**
@@ -1404,20 +2188,195 @@ public class Strings {
         int n = bytes.length;
         if (n == 0)
             return "";
-        StringBuilder sb = new StringBuilder();
-        int i = 0;
-        for (;;) {
-            try {
-                appendHex(sb, bytes[i++]);
-            }
-            catch (IOException e) {
-                // can't happen - StringBuilder.append() does not throw IOException
-            }
-            if (i >= n)
-                break;
-            sb.append(separator);
+        char[] chars = new char[n * 3 - 1];
+        int j = storeHexPair(chars, 0, bytes[0] & 0xFF);
+        for (int i = 1; i < n; i++) {
+            chars[j++] = separator;
+            j = storeHexPair(chars, j, bytes[i] & 0xFF);
         }
-        return sb.toString();
+        return new String(chars);
+    }
+
+    /**
+     * Encode a portion of a byte array as hexadecimal into a {@code char} array.  Each byte is
+     * converted to a pair of characters using a 256-entry table.
+     *
+     * @param   bytes   the byte array
+     * @param   start   the start index
+     * @param   end     the end index
+     * @param   chars   the {@code char} array (must have room for {@code 2 * (end - start)}
+     *                  characters)
+     * @param   offset  the offset in the {@code char} array at which to store the result
+     * @return          the offset following the stored characters
+     * @throws          ArrayIndexOutOfBoundsException if either array is too small
+     */
+    public static int encodeHex(byte[] bytes, int start, int end, char[] chars, int offset) {
+        for (int i = start; i < end; i++)
+            offset = storeHexPair(chars, offset, bytes[i] & 0xFF);
+        return offset;
+    }
+
+    /**
+     * Encode a portion of a byte array as hexadecimal into a byte array (as ASCII characters).
+     *
+     * @param   bytes   the byte array
+     * @param   start   the start index
+     * @param   end     the end index
+     * @param   out     the output byte array (must have room for {@code 2 * (end - start)}
+     *                  bytes)
+     * @param   offset  the offset in the output array at which to store the result
+     * @return          the offset following the stored bytes
+     * @throws          ArrayIndexOutOfBoundsException if either array is too small
+     */
+    public static int encodeHex(byte[] bytes, int start, int end, byte[] out, int offset) {
+        for (int i = start; i < end; i++) {
+            int j = (bytes[i] & 0xFF) << 1;
+            out[offset++] = (byte)hexPairs[j];
+            out[offset++] = (byte)hexPairs[j + 1];
+        }
+        return offset;
+    }
+
+    /**
+     * Append a portion of a byte array as hexadecimal to an {@link Appendable}.  The bytes are
+     * converted in blocks, and each block is appended in a single operation where the
+     * {@link Appendable} allows it.
+     *
+     * @param   a       the {@link Appendable}
+     * @param   bytes   the byte array
+     * @param   start   the start index
+     * @param   end     the end index
+     * @throws IOException if thrown by the {@link Appendable}
+     */
+    public static void appendHex(Appendable a, byte[] bytes, int start, int end)
+            throws IOException {
+        char[] chars = new char[Math.min(end - start, hexChunkSize) * 2];
+        while (start < end) {
+            int chunkEnd = Math.min(end, start + hexChunkSize);
+            appendChars(a, chars, encodeHex(bytes, start, chunkEnd, chars, 0));
+            start = chunkEnd;
+        }
+    }
+
+    /**
+     * Store a byte value as two hexadecimal digits in a {@code char} array.
+     *
+     * @param   chars   the {@code char} array
+     * @param   offset  the offset
+     * @param   b       the byte value (0 - 255)
+     * @return          the offset following the stored characters
+     */
+    private static int storeHexPair(char[] chars, int offset, int b) {
+        int j = b << 1;
+        chars[offset] = hexPairs[j];
+        chars[offset + 1] = hexPairs[j + 1];
+        return offset + 2;
+    }
+
+    /**
+     * Convert a {@link CharSequence} of hexadecimal digits to a byte array.  Each pair of
+     * digits is converted to a byte; upper and lower case letters are accepted.
+     *
+     * @param   s       the {@link CharSequence}
+     * @return          the byte array
+     * @throws          IllegalArgumentException if the length is not even
+     * @throws          NumberFormatException if any character is not a hexadecimal digit
+     */
+    public static byte[] fromHex(CharSequence s) {
+        return fromHex(s, 0, s.length());
+    }
+
+    /**
+     * Convert a portion of a {@link CharSequence} of hexadecimal digits to a byte array.
+     *
+     * @param   s       the {@link CharSequence}
+     * @param   start   the start index
+     * @param   end     the end index
+     * @return          the byte array
+     * @throws          IllegalArgumentException if the length is not even
+     * @throws          NumberFormatException if any character is not a hexadecimal digit
+     * @throws          IndexOutOfBoundsException if {@code start} or {@code end} is invalid
+     */
+    public static byte[] fromHex(CharSequence s, int start, int end) {
+        if (start < 0 || start > end || end > s.length())
+            throw new IndexOutOfBoundsException();
+        byte[] bytes = new byte[checkHexLength(start, end) / 2];
+        decodeHex(s, start, end, bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Decode a portion of a {@link CharSequence} of hexadecimal digits into a byte array, using
+     * a 128-entry table to convert each digit.
+     *
+     * @param   s       the {@link CharSequence}
+     * @param   start   the start index
+     * @param   end     the end index
+     * @param   bytes   the byte array (must have room for {@code (end - start) / 2} bytes)
+     * @param   offset  the offset in the byte array at which to store the result
+     * @return          the offset following the stored bytes
+     * @throws          IllegalArgumentException if the length is not even
+     * @throws          NumberFormatException if any character is not a hexadecimal digit
+     * @throws          ArrayIndexOutOfBoundsException if the byte array is too small
+     */
+    public static int decodeHex(CharSequence s, int start, int end, byte[] bytes, int offset) {
+        checkHexLength(start, end);
+        for (int i = start; i < end; i += 2)
+            bytes[offset++] = (byte)(hexValue(s.charAt(i)) << 4 | hexValue(s.charAt(i + 1)));
+        return offset;
+    }
+
+    /**
+     * Decode a portion of a {@link CharSequence} of hexadecimal digits and write the bytes to
+     * an {@link OutputStream}.  The digits are converted in blocks, and each block is written
+     * in a single operation.
+     *
+     * @param   s       the {@link CharSequence}
+     * @param   start   the start index
+     * @param   end     the end index
+     * @param   os      the {@link OutputStream}
+     * @throws          IOException if thrown by the {@link OutputStream}
+     * @throws          IllegalArgumentException if the length is not even
+     * @throws          NumberFormatException if any character is not a hexadecimal digit
+     */
+    public static void decodeHex(CharSequence s, int start, int end, OutputStream os)
+            throws IOException {
+        checkHexLength(start, end);
+        byte[] bytes = new byte[Math.min((end - start) / 2, hexChunkSize)];
+        while (start < end) {
+            int chunkEnd = Math.min(end, start + hexChunkSize * 2);
+            os.write(bytes, 0, decodeHex(s, start, chunkEnd, bytes, 0));
+            start = chunkEnd;
+        }
+    }
+
+    /**
+     * Check that the length of a sequence of hexadecimal digits is even.
+     *
+     * @param   start   the start index
+     * @param   end     the end index
+     * @return          the length
+     * @throws          IllegalArgumentException if the length is not even
+     */
+    private static int checkHexLength(int start, int end) {
+        int length = end - start;
+        if ((length & 1) != 0)
+            throw new IllegalArgumentException("Hexadecimal string length must be even");
+        return length;
+    }
+
+    /**
+     * Get the value of a hexadecimal digit using the reverse table.
+     *
+     * @param   ch      the digit
+     * @return          the value (0 - 15)
+     * @throws          NumberFormatException if the character is not a hexadecimal digit
+     */
+    private static int hexValue(char ch) {
+        int value;
+        if (ch >= 128 || (value = hexValues[ch]) < 0)
+            throw new NumberFormatException("Illegal hexadecimal digit: " + ch);
+        return value;
     }
 
     /**
@@ -1496,8 +2455,9 @@ public class Strings {
      * @throws IOException if thrown by the {@link Appendable}
      */
     public static void appendHex(Appendable a, byte b) throws IOException {
-        a.append(hexDigits[(b >>> 4) & 0xF]);
-        a.append(hexDigits[b & 0xF]);
+        int j = (b & 0xFF) << 1;
+        a.append(hexPairs[j]);
+        a.append(hexPairs[j + 1]);
     }
 
     /**
@@ -1572,7 +2532,11 @@ public class Strings {
     private static final int MAX_INT_MOD_10 = Integer.MAX_VALUE % 10;
 
     /**
-     * Convert a group of digits in a {@link CharSequence} to an {@code int}.
+     * Convert a group of digits in a {@link CharSequence} to an {@code int}.  If the
+     * {@link CharSequence} is a {@link String}, the digits are processed eight at a time (see
+     * {@link #convertToLong(byte[], int, int)}); other implementations are converted one digit
+     * at a time, since the cost of the interface call for each character would outweigh the
+     * saving.
      *
      * @param   text    the {@link CharSequence}
      * @param   start   the start offset of the digits
@@ -1585,6 +2549,8 @@ public class Strings {
     public static int convertToInt(CharSequence text, int start, int end) {
         if (start < 0 || end > text.length() || start >= end)
             throw new IndexOutOfBoundsException();
+        if (text instanceof String && end - start >= SWAR_DIGITS)
+            return toIntRange(convertToLongSWAR((String)text, start, end));
         int result = 0;
         for (int i = start; i < end; i++) {
             int n = convertDecDigit(text.charAt(i));
@@ -1599,7 +2565,11 @@ public class Strings {
     private static final int MAX_LONG_MOD_10 = (int)(Long.MAX_VALUE % 10);
 
     /**
-     * Convert a group of digits in a {@link CharSequence} to a {@code long}.
+     * Convert a group of digits in a {@link CharSequence} to a {@code long}.  If the
+     * {@link CharSequence} is a {@link String}, the digits are processed eight at a time (see
+     * {@link #convertToLong(byte[], int, int)}); other implementations are converted one digit
+     * at a time, since the cost of the interface call for each character would outweigh the
+     * saving.
      *
      * @param   text    the {@link CharSequence}
      * @param   start   the start offset of the digits
@@ -1612,16 +2582,469 @@ public class Strings {
     public static long convertToLong(CharSequence text, int start, int end) {
         if (start < 0 || end > text.length() || start >= end)
             throw new IndexOutOfBoundsException();
+        if (text instanceof String && end - start >= SWAR_DIGITS)
+            return convertToLongSWAR((String)text, start, end);
         long result = 0;
         for (int i = start; i < end; i++) {
             int n = convertDecDigit(text.charAt(i));
             if (result > MAX_LONG_DIV_10 || result == MAX_LONG_DIV_10 && n > MAX_LONG_MOD_10)
                 throw new NumberFormatException();
-            result = result * 10 + n;
+            result = result * 10 + n;
+        }
+        return result;
+    }
+
+    /**
+     * Convert a group of digits in a {@code char} array to an {@code int}.  The digits are
+     * processed eight at a time where possible (see {@link #convertToLong(byte[], int, int)}).
+     *
+     * @param   chars   the {@code char} array
+     * @param   start   the start offset of the digits
+     * @param   end     the end offset of the digits
+     * @return  the result as an {@code int}
+     * @throws  IndexOutOfBoundsException if start or end invalid
+     * @throws  NumberFormatException if any digit is invalid, or if the value is too big for an
+     *          {@code int}
+     */
+    public static int convertToInt(char[] chars, int start, int end) {
+        if (start < 0 || end > chars.length || start >= end)
+            throw new IndexOutOfBoundsException();
+        return toIntRange(convertToLongSWAR(chars, start, end));
+    }
+
+    /**
+     * Convert a group of digits in a {@code char} array to a {@code long}.  The digits are
+     * processed eight at a time where possible (see {@link #convertToLong(byte[], int, int)}).
+     *
+     * @param   chars   the {@code char} array
+     * @param   start   the start offset of the digits
+     * @param   end     the end offset of the digits
+     * @return  the result as a {@code long}
+     * @throws  IndexOutOfBoundsException if start or end invalid
+     * @throws  NumberFormatException if any digit is invalid, or if the value is too big for a
+     *          {@code long}
+     */
+    public static long convertToLong(char[] chars, int start, int end) {
+        if (start < 0 || end > chars.length || start >= end)
+            throw new IndexOutOfBoundsException();
+        return convertToLongSWAR(chars, start, end);
+    }
+
+    /**
+     * Convert a group of ASCII digits in a {@code byte} array to an {@code int}.  The digits
+     * are processed eight at a time where possible (see
+     * {@link #convertToLong(byte[], int, int)}).
+     *
+     * @param   bytes   the {@code byte} array
+     * @param   start   the start offset of the digits
+     * @param   end     the end offset of the digits
+     * @return  the result as an {@code int}
+     * @throws  IndexOutOfBoundsException if start or end invalid
+     * @throws  NumberFormatException if any digit is invalid, or if the value is too big for an
+     *          {@code int}
+     */
+    public static int convertToInt(byte[] bytes, int start, int end) {
+        if (start < 0 || end > bytes.length || start >= end)
+            throw new IndexOutOfBoundsException();
+        return toIntRange(convertToLongSWAR(bytes, start, end));
+    }
+
+    /**
+     * Convert a group of ASCII digits in a {@code byte} array to a {@code long}.  Groups of
+     * eight digits are packed into a single {@code long}, which is then validated and converted
+     * using a small number of arithmetic operations on the whole word ("SIMD within a
+     * register"), rather than one digit at a time.  The same technique is used by
+     * {@link #convertToInt(CharSequence, int, int)} and
+     * {@link #convertToLong(CharSequence, int, int)} when the input is a {@link String}.
+     *
+     * @param   bytes   the {@code byte} array
+     * @param   start   the start offset of the digits
+     * @param   end     the end offset of the digits
+     * @return  the result as a {@code long}
+     * @throws  IndexOutOfBoundsException if start or end invalid
+     * @throws  NumberFormatException if any digit is invalid, or if the value is too big for a
+     *          {@code long}
+     */
+    public static long convertToLong(byte[] bytes, int start, int end) {
+        if (start < 0 || end > bytes.length || start >= end)
+            throw new IndexOutOfBoundsException();
+        return convertToLongSWAR(bytes, start, end);
+    }
+
+    /**
+     * Convert a group of ASCII digits in a {@link ByteBuffer} to an {@code int}.  The offsets
+     * are absolute indices within the buffer, and the position and limit of the buffer are not
+     * modified.  The digits are processed eight at a time where possible (see
+     * {@link #convertToLong(ByteBuffer, int, int)}).
+     *
+     * @param   byteBuffer  the {@link ByteBuffer}
+     * @param   start       the start offset of the digits
+     * @param   end         the end offset of the digits
+     * @return  the result as an {@code int}
+     * @throws  IndexOutOfBoundsException if start or end invalid
+     * @throws  NumberFormatException if any digit is invalid, or if the value is too big for an
+     *          {@code int}
+     */
+    public static int convertToInt(ByteBuffer byteBuffer, int start, int end) {
+        return toIntRange(convertToLong(byteBuffer, start, end));
+    }
+
+    /**
+     * Convert a group of ASCII digits in a {@link ByteBuffer} to a {@code long}.  The offsets
+     * are absolute indices within the buffer, and the position and limit of the buffer are not
+     * modified.  If the buffer has an accessible backing array, the conversion is performed on
+     * the array (see {@link #convertToLong(byte[], int, int)}); otherwise, groups of eight
+     * digits are read using a single {@link ByteBuffer#getLong(int)} operation.
+     *
+     * @param   byteBuffer  the {@link ByteBuffer}
+     * @param   start       the start offset of the digits
+     * @param   end         the end offset of the digits
+     * @return  the result as a {@code long}
+     * @throws  IndexOutOfBoundsException if start or end invalid
+     * @throws  NumberFormatException if any digit is invalid, or if the value is too big for a
+     *          {@code long}
+     */
+    public static long convertToLong(ByteBuffer byteBuffer, int start, int end) {
+        if (start < 0 || end > byteBuffer.limit() || start >= end)
+            throw new IndexOutOfBoundsException();
+        if (byteBuffer.hasArray()) {
+            int arrayOffset = byteBuffer.arrayOffset();
+            return convertToLongSWAR(byteBuffer.array(), arrayOffset + start, arrayOffset + end);
+        }
+        return convertToLongSWAR(byteBuffer, start, end);
+    }
+
+    private static final int SWAR_DIGITS = 8;
+    private static final long SWAR_MULTIPLIER = 100000000L;
+
+    /**
+     * Convert a group of digits in a {@link String} to a {@code long}, eight digits at a time.
+     *
+     * @param   s       the {@link String}
+     * @param   start   the start offset of the digits
+     * @param   end     the end offset of the digits
+     * @return  the result as a {@code long}
+     * @throws  NumberFormatException if any digit is invalid, or if the value is too big for a
+     *          {@code long}
+     */
+    private static long convertToLongSWAR(String s, int start, int end) {
+        long result = 0;
+        int i = start;
+        while (end - i >= SWAR_DIGITS) {
+            long packed = packDigits(s, i);
+            if (!isEightDigits(packed))
+                throw new NumberFormatException();
+            long chunk = convertEightDigits(packed);
+            if (result > (Long.MAX_VALUE - chunk) / SWAR_MULTIPLIER)
+                throw new NumberFormatException();
+            result = result * SWAR_MULTIPLIER + chunk;
+            i += SWAR_DIGITS;
+        }
+        while (i < end) {
+            int n = convertDecDigit(s.charAt(i++));
+            if (result > MAX_LONG_DIV_10 || result == MAX_LONG_DIV_10 && n > MAX_LONG_MOD_10)
+                throw new NumberFormatException();
+            result = result * 10 + n;
+        }
+        return result;
+    }
+
+    /**
+     * Convert a group of digits in a {@code char} array to a {@code long}, eight digits at a time.
+     *
+     * @param   chars   the {@code char} array
+     * @param   start   the start offset of the digits
+     * @param   end     the end offset of the digits
+     * @return  the result as a {@code long}
+     * @throws  NumberFormatException if any digit is invalid, or if the value is too big for a
+     *          {@code long}
+     */
+    private static long convertToLongSWAR(char[] chars, int start, int end) {
+        long result = 0;
+        int i = start;
+        while (end - i >= SWAR_DIGITS) {
+            long packed = packDigits(chars, i);
+            if (!isEightDigits(packed))
+                throw new NumberFormatException();
+            long chunk = convertEightDigits(packed);
+            if (result > (Long.MAX_VALUE - chunk) / SWAR_MULTIPLIER)
+                throw new NumberFormatException();
+            result = result * SWAR_MULTIPLIER + chunk;
+            i += SWAR_DIGITS;
+        }
+        while (i < end) {
+            int n = convertDecDigit(chars[i++]);
+            if (result > MAX_LONG_DIV_10 || result == MAX_LONG_DIV_10 && n > MAX_LONG_MOD_10)
+                throw new NumberFormatException();
+            result = result * 10 + n;
+        }
+        return result;
+    }
+
+    /**
+     * Convert a group of digits in a {@code byte} array to a {@code long}, eight digits at a time.
+     *
+     * @param   bytes   the {@code byte} array
+     * @param   start   the start offset of the digits
+     * @param   end     the end offset of the digits
+     * @return  the result as a {@code long}
+     * @throws  NumberFormatException if any digit is invalid, or if the value is too big for a
+     *          {@code long}
+     */
+    private static long convertToLongSWAR(byte[] bytes, int start, int end) {
+        long result = 0;
+        int i = start;
+        while (end - i >= SWAR_DIGITS) {
+            long packed = packBytes(bytes, i);
+            if (!isEightDigits(packed))
+                throw new NumberFormatException();
+            long chunk = convertEightDigits(packed);
+            if (result > (Long.MAX_VALUE - chunk) / SWAR_MULTIPLIER)
+                throw new NumberFormatException();
+            result = result * SWAR_MULTIPLIER + chunk;
+            i += SWAR_DIGITS;
+        }
+        while (i < end) {
+            int n = convertDecDigit((char)(bytes[i++] & 0xFF));
+            if (result > MAX_LONG_DIV_10 || result == MAX_LONG_DIV_10 && n > MAX_LONG_MOD_10)
+                throw new NumberFormatException();
+            result = result * 10 + n;
+        }
+        return result;
+    }
+
+    /**
+     * Convert a group of digits in a {@link ByteBuffer} to a {@code long}, eight digits at a
+     * time.  Each group is read as a single {@code long}, which is byte-swapped if necessary so
+     * that the first byte is in the least significant position.
+     *
+     * @param   byteBuffer  the {@link ByteBuffer}
+     * @param   start       the start offset of the digits
+     * @param   end         the end offset of the digits
+     * @return  the result as a {@code long}
+     * @throws  NumberFormatException if any digit is invalid, or if the value is too big for a
+     *          {@code long}
+     */
+    private static long convertToLongSWAR(ByteBuffer byteBuffer, int start, int end) {
+        boolean bigEndian = byteBuffer.order() == ByteOrder.BIG_ENDIAN;
+        long result = 0;
+        int i = start;
+        while (end - i >= SWAR_DIGITS) {
+            long packed = byteBuffer.getLong(i);
+            if (bigEndian)
+                packed = Long.reverseBytes(packed);
+            if (!isEightDigits(packed))
+                throw new NumberFormatException();
+            long chunk = convertEightDigits(packed);
+            if (result > (Long.MAX_VALUE - chunk) / SWAR_MULTIPLIER)
+                throw new NumberFormatException();
+            result = result * SWAR_MULTIPLIER + chunk;
+            i += SWAR_DIGITS;
+        }
+        while (i < end) {
+            int n = convertDecDigit((char)(byteBuffer.get(i++) & 0xFF));
+            if (result > MAX_LONG_DIV_10 || result == MAX_LONG_DIV_10 && n > MAX_LONG_MOD_10)
+                throw new NumberFormatException();
+            result = result * 10 + n;
+        }
+        return result;
+    }
+
+    /**
+     * Pack eight characters from a {@link String} into a {@code long}, one per byte with the
+     * first character in the least significant byte.  If any character is outside the range
+     * 0 to 255, the result will be -1 (which will fail the {@link #isEightDigits(long)} test).
+     *
+     * @param   s       the {@link String}
+     * @param   i       the index of the first character
+     * @return          the packed characters
+     */
+    private static long packDigits(String s, int i) {
+        long result = 0;
+        int check = 0;
+        for (int j = SWAR_DIGITS - 1; j >= 0; j--) {
+            char ch = s.charAt(i + j);
+            check |= ch;
+            result = result << 8 | ch;
+        }
+        return check > 0xFF ? -1L : result;
+    }
+
+    /**
+     * Pack eight characters from a {@code char} array into a {@code long}.
+     *
+     * @param   chars   the {@code char} array
+     * @param   i       the index of the first character
+     * @return          the packed characters
+     * @see     #packDigits(String, int)
+     */
+    private static long packDigits(char[] chars, int i) {
+        long result = 0;
+        int check = 0;
+        for (int j = SWAR_DIGITS - 1; j >= 0; j--) {
+            char ch = chars[i + j];
+            check |= ch;
+            result = result << 8 | ch;
+        }
+        return check > 0xFF ? -1L : result;
+    }
+
+    /**
+     * Pack eight bytes from a {@code byte} array into a {@code long}, with the first byte in
+     * the least significant position.
+     *
+     * @param   bytes   the {@code byte} array
+     * @param   i       the index of the first byte
+     * @return          the packed bytes
+     * @see     #packDigits(String, int)
+     */
+    private static long packBytes(byte[] bytes, int i) {
+        return (bytes[i] & 0xFFL) | (bytes[i + 1] & 0xFFL) << 8 | (bytes[i + 2] & 0xFFL) << 16 |
+                (bytes[i + 3] & 0xFFL) << 24 | (bytes[i + 4] & 0xFFL) << 32 |
+                (bytes[i + 5] & 0xFFL) << 40 | (bytes[i + 6] & 0xFFL) << 48 |
+                (bytes[i + 7] & 0xFFL) << 56;
+    }
+
+    /**
+     * Test whether all eight bytes of a packed {@code long} are ASCII digits.  Each byte must
+     * have a high nibble of 3, and adding 6 to each byte must not carry into the high nibble.
+     *
+     * @param   packed  the packed characters
+     * @return          {@code true} if all eight characters are digits
+     */
+    private static boolean isEightDigits(long packed) {
+        return ((packed & 0xF0F0F0F0F0F0F0F0L) |
+                (((packed + 0x0606060606060606L) & 0xF0F0F0F0F0F0F0F0L) >>> 4)) ==
+                0x3333333333333333L;
+    }
+
+    /**
+     * Convert eight packed ASCII digits to their numeric value.  Adjacent digits are combined
+     * into pairs, then the pairs into groups of four, and finally the two groups of four.
+     *
+     * @param   packed  the packed characters (already validated)
+     * @return          the numeric value (0 - 99999999)
+     */
+    private static int convertEightDigits(long packed) {
+        long val = packed - 0x3030303030303030L;
+        val = val * 10 + (val >>> 8);
+        val = ((val & 0x000000FF000000FFL) * (100 + (1000000L << 32)) +
+                ((val >>> 16) & 0x000000FF000000FFL) * (1 + (10000L << 32))) >>> 32;
+        return (int)val;
+    }
+
+    /**
+     * Check that a {@code long} value is within the range of an {@code int}.
+     *
+     * @param   n       the value
+     * @return          the value as an {@code int}
+     * @throws  NumberFormatException if the value is too big for an {@code int}
+     */
+    private static int toIntRange(long n) {
+        if (n > Integer.MAX_VALUE)
+            throw new NumberFormatException();
+        return (int)n;
+    }
+
+    /**
+     * Convert a decimal number in a {@link CharSequence} to a {@code double}.  The number
+     * consists of an optional sign, a sequence of digits optionally including a decimal point,
+     * and an optional exponent ("e" or "E" followed by an optionally-signed integer), as in
+     * JSON.
+     *
+     * <p>Where the number has no more than 18 significant digits, the mantissa is less than
+     * 2<sup>53</sup> and the decimal exponent is in the range -22 to 22, the result is
+     * calculated exactly using a single floating point operation, with no object allocation.
+     * Other numbers are converted using {@link Double#parseDouble(String)}.</p>
+     *
+     * @param   text    the {@link CharSequence}
+     * @param   start   the start offset of the number
+     * @param   end     the end offset of the number
+     * @return  the result as a {@code double}
+     * @throws  IndexOutOfBoundsException if start or end invalid
+     * @throws  NumberFormatException if the number is invalid, or if the value is too big for
+     *          a {@code double}
+     */
+    public static double convertToDouble(CharSequence text, int start, int end) {
+        if (start < 0 || end > text.length() || start >= end)
+            throw new IndexOutOfBoundsException();
+        int i = start;
+        boolean negative = false;
+        char ch = text.charAt(i);
+        if (ch == '-' || ch == '+') {
+            negative = ch == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        boolean truncated = false;
+        boolean digitsSeen = false;
+        int exponent = 0;
+        while (i < end && (ch = text.charAt(i)) >= '0' && ch <= '9') {
+            digitsSeen = true;
+            if (significantDigits < MAX_LONG_DIGITS) {
+                mantissa = mantissa * 10 + (ch - '0');
+                if (mantissa != 0)
+                    significantDigits++;
+            }
+            else
+                truncated = true;
+            i++;
+        }
+        if (i < end && text.charAt(i) == '.') {
+            i++;
+            while (i < end && (ch = text.charAt(i)) >= '0' && ch <= '9') {
+                digitsSeen = true;
+                if (significantDigits < MAX_LONG_DIGITS) {
+                    mantissa = mantissa * 10 + (ch - '0');
+                    if (mantissa != 0)
+                        significantDigits++;
+                    exponent--;
+                }
+                else
+                    truncated = true;
+                i++;
+            }
+        }
+        if (!digitsSeen)
+            throw new NumberFormatException();
+        if (i < end && ((ch = text.charAt(i)) == 'e' || ch == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && ((ch = text.charAt(i)) == '-' || ch == '+')) {
+                negativeExponent = ch == '-';
+                i++;
+            }
+            if (i >= end)
+                throw new NumberFormatException();
+            int explicitExponent = 0;
+            while (i < end && (ch = text.charAt(i)) >= '0' && ch <= '9') {
+                if (explicitExponent < MAX_EXPONENT)
+                    explicitExponent = explicitExponent * 10 + (ch - '0');
+                i++;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
         }
-        return result;
+        if (i != end)
+            throw new NumberFormatException();
+        double result;
+        if (!truncated && mantissa == 0)
+            result = 0.0;
+        else if (!truncated && mantissa <= maxExactMantissa && exponent >= -maxExactPowerOf10 &&
+                exponent <= maxExactPowerOf10)
+            result = exponent >= 0 ? mantissa * doublePowersOf10[exponent] :
+                    mantissa / doublePowersOf10[-exponent];
+        else {
+            result = Math.abs(Double.parseDouble(text.subSequence(start, end).toString()));
+            if (Double.isInfinite(result))
+                throw new NumberFormatException();
+        }
+        return negative ? -result : result;
     }
 
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int MAX_EXPONENT = 100000;
+
     /**
      * Convert a decimal digit to the integer value of the digit.
      *
@@ -2029,6 +3452,143 @@ public class Strings {
         return trimTrailing(cs, Character::isWhitespace);
     }
 
+    /**
+     * Find the bounds of a portion of a {@link CharSequence} after trimming leading and
+     * trailing characters that match a supplied {@link IntPredicate} function.  The result is
+     * returned as a {@code long} containing the start and end indices (see
+     * {@link #bounds(int, int)}), so that no object is created.
+     *
+     * @param   cs          the {@link CharSequence}
+     * @param   start       the start index of the portion to be trimmed
+     * @param   end         the end index of the portion to be trimmed
+     * @param   test        the test function
+     * @return              the trimmed bounds, packed into a {@code long}
+     * @throws  NullPointerException if the {@link CharSequence} or the test is {@code null}
+     * @throws  IndexOutOfBoundsException if the start or end index is invalid
+     */
+    public static long trimBounds(CharSequence cs, int start, int end, IntPredicate test) {
+        Objects.requireNonNull(test);
+        if (start < 0 || end < start || end > cs.length())
+            throw new IndexOutOfBoundsException();
+        while (start < end && test.test(cs.charAt(start)))
+            start++;
+        while (end > start && test.test(cs.charAt(end - 1)))
+            end--;
+        return bounds(start, end);
+    }
+
+    /**
+     * Find the bounds of a {@link CharSequence} after trimming leading and trailing characters
+     * that match a supplied {@link IntPredicate} function.
+     *
+     * @param   cs          the {@link CharSequence}
+     * @param   test        the test function
+     * @return              the trimmed bounds, packed into a {@code long}
+     * @throws  NullPointerException if either argument is {@code null}
+     */
+    public static long trimBounds(CharSequence cs, IntPredicate test) {
+        return trimBounds(cs, 0, cs.length(), test);
+    }
+
+    /**
+     * Find the bounds of a {@link CharSequence} after trimming leading and trailing whitespace,
+     * where white space is determined by {@link Character#isWhitespace(char)}.
+     *
+     * @param   cs          the {@link CharSequence}
+     * @return              the trimmed bounds, packed into a {@code long}
+     * @throws  NullPointerException if the input {@link CharSequence} is {@code null}
+     */
+    public static long trimBounds(CharSequence cs) {
+        return trimBounds(cs, 0, cs.length(), Character::isWhitespace);
+    }
+
+    /**
+     * Trim a set of portions of a {@link CharSequence}, where each portion is described by a
+     * pair of start and end indices packed into a {@code long}.  The array is updated in
+     * place.
+     *
+     * @param   cs          the {@link CharSequence}
+     * @param   boundsArray the array of packed bounds
+     * @param   count       the number of entries in the array to be trimmed
+     * @param   test        the test function
+     * @throws  NullPointerException if any argument is {@code null}
+     * @throws  IndexOutOfBoundsException if any of the bounds is invalid
+     */
+    public static void trimBounds(CharSequence cs, long[] boundsArray, int count,
+            IntPredicate test) {
+        for (int i = 0; i < count; i++) {
+            long b = boundsArray[i];
+            boundsArray[i] = trimBounds(cs, boundsStart(b), boundsEnd(b), test);
+        }
+    }
+
+    /**
+     * Pack a start and end index into a {@code long}.
+     *
+     * @param   start       the start index
+     * @param   end         the end index
+     * @return              the packed bounds
+     */
+    public static long bounds(int start, int end) {
+        return ((long)start << 32) | (end & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Get the start index from a packed bounds value.
+     *
+     * @param   bounds      the packed bounds
+     * @return              the start index
+     */
+    public static int boundsStart(long bounds) {
+        return (int)(bounds >>> 32);
+    }
+
+    /**
+     * Get the end index from a packed bounds value.
+     *
+     * @param   bounds      the packed bounds
+     * @return              the end index
+     */
+    public static int boundsEnd(long bounds) {
+        return (int)bounds;
+    }
+
+    /**
+     * Trim leading and trailing characters from each string in an array, where those
+     * characters match a supplied {@link IntPredicate} function.  The array is updated in
+     * place; strings that do not need to be trimmed are left unchanged.
+     *
+     * @param   fields      the array of strings
+     * @param   test        the test function
+     * @return              the array (for chaining)
+     * @throws  NullPointerException if either argument, or any array element, is {@code null}
+     */
+    public static String[] trimAll(String[] fields, IntPredicate test) {
+        Objects.requireNonNull(test);
+        for (int i = 0, n = fields.length; i < n; i++) {
+            String s = fields[i];
+            int len = s.length();
+            long b = trimBounds(s, 0, len, test);
+            int start = boundsStart(b);
+            int end = boundsEnd(b);
+            if (start != 0 || end != len)
+                fields[i] = start == end ? emptyString : s.substring(start, end);
+        }
+        return fields;
+    }
+
+    /**
+     * Trim leading and trailing whitespace from each string in an array, where white space is
+     * determined by {@link Character#isWhitespace(char)}.  The array is updated in place.
+     *
+     * @param   fields      the array of strings
+     * @return              the array (for chaining)
+     * @throws  NullPointerException if the array, or any array element, is {@code null}
+     */
+    public static String[] trimAll(String[] fields) {
+        return trimAll(fields, Character::isWhitespace);
+    }
+
     /**
      * Trim leading and trailing code points from a UTF16 string, where those code points match
      * a supplied {@link IntPredicate} function.
@@ -2245,93 +3805,517 @@ public class Strings {
     };
 
     /**
-     * Append an {@code int} to an {@link Appendable}.  This method outputs the digits left to
-     * right, avoiding the need to allocate a separate buffer.
+     * Append an {@code int} to an {@link Appendable}.  If the {@link Appendable} is a
+     * {@link StringBuilder}, the value is appended using {@link StringBuilder#append(int)};
+     * otherwise the number is formatted into a small temporary array by
+     * {@link #formatInt(char[], int, int)}, which is then appended in a single operation.
      *
      * @param   a   the {@link Appendable}
      * @param   i   the {@code int}
      * @throws  IOException if thrown by the {@link Appendable}
      */
     public static void appendInt(Appendable a, int i) throws IOException {
-        if (i < 0) {
-            if (i == Integer.MIN_VALUE) {
-                a.append("-2147483648");
-                return;
-            }
-            a.append('-');
-            appendPositiveInt(a, -i);
+        if (a instanceof StringBuilder)
+            ((StringBuilder)a).append(i);
+        else {
+            char[] buf = new char[MAX_INT_LENGTH];
+            appendChars(a, buf, formatInt(buf, 0, i));
         }
-        else
-            appendPositiveInt(a, i);
     }
 
     /**
-     * Append a positive {@code int} to an {@link Appendable}.  This method outputs the digits
-     * left to right, avoiding the need to allocate a separate buffer.
+     * Append a positive {@code int} to an {@link Appendable}.  If the {@link Appendable} is a
+     * {@link StringBuilder}, the value is appended using {@link StringBuilder#append(int)};
+     * otherwise the number is formatted into a small temporary array by
+     * {@link #formatInt(char[], int, int)}, which is then appended in a single operation.
      *
      * @param   a   the {@link Appendable}
      * @param   i   the {@code int}
      * @throws  IOException if thrown by the {@link Appendable}
      */
     public static void appendPositiveInt(Appendable a, int i) throws IOException {
-        if (i >= 100) {
-            int n = i / 100;
-            appendPositiveInt(a, n);
-            i -= n * 100;
-            a.append(tensDigits[i]);
-            a.append(digits[i]);
-        }
-        else if (i >= 10) {
-            a.append(tensDigits[i]);
-            a.append(digits[i]);
-        }
-        else
-            a.append(digits[i]);
+        appendInt(a, i);
     }
 
     /**
-     * Append a {@code long} to an {@link Appendable}.  This method outputs the digits left to
-     * right, avoiding the need to allocate a separate buffer.
+     * Append a {@code long} to an {@link Appendable}.  If the {@link Appendable} is a
+     * {@link StringBuilder}, the value is appended using {@link StringBuilder#append(long)};
+     * otherwise the number is formatted into a small temporary array by
+     * {@link #formatLong(char[], int, long)}, which is then appended in a single operation.
      *
      * @param   a   the {@link Appendable}
      * @param   n   the {@code long}
      * @throws  IOException if thrown by the {@link Appendable}
      */
     public static void appendLong(Appendable a, long n) throws IOException {
+        if (a instanceof StringBuilder)
+            ((StringBuilder)a).append(n);
+        else {
+            char[] buf = new char[MAX_LONG_LENGTH];
+            appendChars(a, buf, formatLong(buf, 0, n));
+        }
+    }
+
+    /**
+     * Append a positive {@code long} to an {@link Appendable}.  If the {@link Appendable} is a
+     * {@link StringBuilder}, the value is appended using {@link StringBuilder#append(long)};
+     * otherwise the number is formatted into a small temporary array by
+     * {@link #formatLong(char[], int, long)}, which is then appended in a single operation.
+     *
+     * @param   a   the {@link Appendable}
+     * @param   n   the {@code long}
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    public static void appendPositiveLong(Appendable a, long n) throws IOException {
+        appendLong(a, n);
+    }
+
+    private static final int MAX_INT_LENGTH = 11;
+    private static final int MAX_LONG_LENGTH = 20;
+
+    private static final int[] intPowersOf10 = { 10, 100, 1000, 10000, 100000, 1000000,
+            10000000, 100000000, 1000000000 };
+    private static final long[] longPowersOf10 = { 10L, 100L, 1000L, 10000L, 100000L, 1000000L,
+            10000000L, 100000000L, 1000000000L, 10000000000L, 100000000000L, 1000000000000L,
+            10000000000000L, 100000000000000L, 1000000000000000L, 10000000000000000L,
+            100000000000000000L, 1000000000000000000L };
+    private static final String intMinValue = "-2147483648";
+    private static final String longMinValue = "-9223372036854775808";
+
+    /**
+     * Get the number of characters in the decimal representation of an {@code int}, including
+     * the minus sign if the number is negative.
+     *
+     * @param   i   the {@code int}
+     * @return      the number of characters
+     */
+    public static int decimalLength(int i) {
+        if (i < 0)
+            return i == Integer.MIN_VALUE ? MAX_INT_LENGTH : positiveDecimalLength(-i) + 1;
+        return positiveDecimalLength(i);
+    }
+
+    /**
+     * Get the number of characters in the decimal representation of a {@code long}, including
+     * the minus sign if the number is negative.
+     *
+     * @param   n   the {@code long}
+     * @return      the number of characters
+     */
+    public static int decimalLength(long n) {
+        if (n < 0)
+            return n == Long.MIN_VALUE ? MAX_LONG_LENGTH : positiveDecimalLength(-n) + 1;
+        return positiveDecimalLength(n);
+    }
+
+    /**
+     * Get the number of digits in a positive {@code int}.
+     *
+     * @param   i   the {@code int}
+     * @return      the number of digits
+     */
+    private static int positiveDecimalLength(int i) {
+        int len = 1;
+        while (len < intPowersOf10.length + 1 && i >= intPowersOf10[len - 1])
+            len++;
+        return len;
+    }
+
+    /**
+     * Get the number of digits in a positive {@code long}.
+     *
+     * @param   n   the {@code long}
+     * @return      the number of digits
+     */
+    private static int positiveDecimalLength(long n) {
+        if (n <= Integer.MAX_VALUE)
+            return positiveDecimalLength((int)n);
+        int len = 10;
+        while (len < longPowersOf10.length + 1 && n >= longPowersOf10[len - 1])
+            len++;
+        return len;
+    }
+
+    /**
+     * Format an {@code int} into a {@code char} array.  The number of digits is determined
+     * first, and the digits are then stored two at a time from right to left.
+     *
+     * @param   buf     the {@code char} array
+     * @param   offset  the offset at which to store the number
+     * @param   i       the {@code int}
+     * @return          the offset following the number
+     * @throws  ArrayIndexOutOfBoundsException if the array is too small (see
+     *          {@link #decimalLength(int)})
+     */
+    public static int formatInt(char[] buf, int offset, int i) {
+        if (i < 0) {
+            if (i == Integer.MIN_VALUE) {
+                intMinValue.getChars(0, MAX_INT_LENGTH, buf, offset);
+                return offset + MAX_INT_LENGTH;
+            }
+            buf[offset++] = '-';
+            i = -i;
+        }
+        int end = offset + positiveDecimalLength(i);
+        storeDigits(buf, end, i);
+        return end;
+    }
+
+    /**
+     * Format a {@code long} into a {@code char} array.
+     *
+     * @param   buf     the {@code char} array
+     * @param   offset  the offset at which to store the number
+     * @param   n       the {@code long}
+     * @return          the offset following the number
+     * @throws  ArrayIndexOutOfBoundsException if the array is too small (see
+     *          {@link #decimalLength(long)})
+     * @see     #formatInt(char[], int, int)
+     */
+    public static int formatLong(char[] buf, int offset, long n) {
         if (n < 0) {
             if (n == Long.MIN_VALUE) {
-                a.append("-9223372036854775808");
-                return;
+                longMinValue.getChars(0, MAX_LONG_LENGTH, buf, offset);
+                return offset + MAX_LONG_LENGTH;
             }
-            a.append('-');
-            appendPositiveLong(a, -n);
+            buf[offset++] = '-';
+            n = -n;
         }
-        else
-            appendPositiveLong(a, n);
+        int end = offset + positiveDecimalLength(n);
+        int i = end;
+        while (n > Integer.MAX_VALUE) {
+            long q = n / 100;
+            int r = (int)(n - q * 100);
+            n = q;
+            buf[--i] = digits[r];
+            buf[--i] = tensDigits[r];
+        }
+        storeDigits(buf, i, (int)n);
+        return end;
+    }
+
+    /**
+     * Format an {@code int} into a {@code byte} array, as ASCII characters.
+     *
+     * @param   buf     the {@code byte} array
+     * @param   offset  the offset at which to store the number
+     * @param   i       the {@code int}
+     * @return          the offset following the number
+     * @throws  ArrayIndexOutOfBoundsException if the array is too small (see
+     *          {@link #decimalLength(int)})
+     * @see     #formatInt(char[], int, int)
+     */
+    public static int formatInt(byte[] buf, int offset, int i) {
+        if (i < 0) {
+            if (i == Integer.MIN_VALUE)
+                return storeASCII(buf, offset, intMinValue);
+            buf[offset++] = '-';
+            i = -i;
+        }
+        int end = offset + positiveDecimalLength(i);
+        storeDigits(buf, end, i);
+        return end;
+    }
+
+    /**
+     * Format a {@code long} into a {@code byte} array, as ASCII characters.
+     *
+     * @param   buf     the {@code byte} array
+     * @param   offset  the offset at which to store the number
+     * @param   n       the {@code long}
+     * @return          the offset following the number
+     * @throws  ArrayIndexOutOfBoundsException if the array is too small (see
+     *          {@link #decimalLength(long)})
+     * @see     #formatInt(char[], int, int)
+     */
+    public static int formatLong(byte[] buf, int offset, long n) {
+        if (n < 0) {
+            if (n == Long.MIN_VALUE)
+                return storeASCII(buf, offset, longMinValue);
+            buf[offset++] = '-';
+            n = -n;
+        }
+        int end = offset + positiveDecimalLength(n);
+        int i = end;
+        while (n > Integer.MAX_VALUE) {
+            long q = n / 100;
+            int r = (int)(n - q * 100);
+            n = q;
+            buf[--i] = (byte)digits[r];
+            buf[--i] = (byte)tensDigits[r];
+        }
+        storeDigits(buf, i, (int)n);
+        return end;
     }
 
+    private static final int MAX_DOUBLE_LENGTH = 24;
+
+    private static final double[] doublePowersOf10 = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7,
+            1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21,
+            1e22 };
+    private static final int maxExactPowerOf10 = 22;
+    private static final int maxFastDigits = 15;
+    private static final long maxExactMantissa = 1L << 53;
+
     /**
-     * Append a positive {@code long} to an {@link Appendable}.  This method outputs the digits
-     * left to right, avoiding the need to allocate a separate buffer.
+     * Append a {@code double} to an {@link Appendable}.  The output is in the same form as that
+     * of {@link Double#toString(double)}, but the digits are (for the great majority of values)
+     * the shortest sequence that will convert back to the same value.  The number is
+     * formatted into a small temporary array, which is then appended in a single operation.
      *
      * @param   a   the {@link Appendable}
-     * @param   n   the {@code long}
+     * @param   d   the {@code double}
      * @throws  IOException if thrown by the {@link Appendable}
+     * @see     #formatDouble(char[], int, double)
      */
-    public static void appendPositiveLong(Appendable a, long n) throws IOException {
-        if (n >= 100) {
-            long m = n / 100;
-            appendPositiveLong(a, m);
-            int i = (int)(n - m * 100);
-            a.append(tensDigits[i]);
-            a.append(digits[i]);
+    public static void appendDouble(Appendable a, double d) throws IOException {
+        char[] buf = new char[MAX_DOUBLE_LENGTH];
+        appendChars(a, buf, formatDouble(buf, 0, d));
+    }
+
+    /**
+     * Format a {@code double} into a {@code char} array.  The layout is the same as that of
+     * {@link Double#toString(double)} (plain notation for magnitudes from 10<sup>-3</sup> up to
+     * but not including 10<sup>7</sup>, and scientific notation otherwise), but the digits are
+     * the shortest sequence that will convert back to the same value, where that sequence can
+     * be found by the method described below.
+     *
+     * <p>For values of up to 15 significant digits with a decimal exponent in the range
+     * -22 to 22 (which covers most values encountered in practice), each candidate digit
+     * sequence is verified using exact floating point arithmetic, with no object allocation.
+     * Other values are converted using {@link Double#toString(double)}.  The 15-digit candidate
+     * is checked first, so a value that needs 16 or 17 significant digits (as is common for the
+     * results of calculations) costs one trial before falling back, not fifteen.</p>
+     *
+     * @param   buf     the {@code char} array
+     * @param   offset  the offset at which to store the number
+     * @param   d       the {@code double}
+     * @return          the offset following the number
+     * @throws  ArrayIndexOutOfBoundsException if the array is too small (at most 24 characters
+     *          are required)
+     */
+    public static int formatDouble(char[] buf, int offset, double d) {
+        if (Double.isNaN(d) || Double.isInfinite(d) || d == 0.0)
+            return storeChars(buf, offset, Double.toString(d));
+        double abs = Math.abs(d);
+        int e10 = (int)Math.floor(Math.log10(abs));
+        int maxScale = maxFastDigits - 1 - e10;
+        if (maxScale < -maxExactPowerOf10 ||
+                maxScale <= maxExactPowerOf10 && exactMantissa(abs, maxScale) == 0)
+            return storeChars(buf, offset, Double.toString(d));
+        for (int p = 1; p <= maxFastDigits; p++) {
+            int scale = p - 1 - e10;
+            if (scale < -maxExactPowerOf10)
+                continue;
+            if (scale > maxExactPowerOf10)
+                break;
+            long m = exactMantissa(abs, scale);
+            if (m == 0)
+                continue;
+            if (d < 0)
+                buf[offset++] = '-';
+            return formatDecimal(buf, offset, m, scale);
+        }
+        return storeChars(buf, offset, Double.toString(d));
+    }
+
+    /**
+     * Find a decimal mantissa <i>m</i> such that <i>m</i> &times; 10<sup>-scale</sup> converts
+     * exactly to the given (positive) {@code double}.
+     *
+     * @param   abs     the {@code double}
+     * @param   scale   the scale (the negated decimal exponent, in the range -22 to 22)
+     * @return          the mantissa, or 0 if there is none at this scale
+     */
+    private static long exactMantissa(double abs, int scale) {
+        double scaled = scale >= 0 ? abs * doublePowersOf10[scale] :
+                abs / doublePowersOf10[-scale];
+        long m = Math.round(scaled);
+        if (isExactDecimal(m, scale, abs))
+            return m;
+        if (isExactDecimal(m - 1, scale, abs))
+            return m - 1;
+        if (isExactDecimal(m + 1, scale, abs))
+            return m + 1;
+        return 0;
+    }
+
+    /**
+     * Test whether a decimal value of the form <i>m</i> &times; 10<sup>-scale</sup> converts
+     * to the given {@code double}.  The conversion is exact because both operands are exactly
+     * representable and only a single rounding takes place.
+     *
+     * @param   m       the decimal mantissa
+     * @param   scale   the scale (the negated decimal exponent)
+     * @param   d       the {@code double}
+     * @return          {@code true} if the decimal value converts to the {@code double}
+     */
+    private static boolean isExactDecimal(long m, int scale, double d) {
+        if (m <= 0 || m > maxExactMantissa)
+            return false;
+        return (scale >= 0 ? m / doublePowersOf10[scale] : m * doublePowersOf10[-scale]) == d;
+    }
+
+    /**
+     * Store a decimal value of the form <i>m</i> &times; 10<sup>-scale</sup> in the layout
+     * used by {@link Double#toString(double)}.
+     *
+     * @param   buf     the {@code char} array
+     * @param   offset  the offset at which to store the number
+     * @param   m       the decimal mantissa (positive)
+     * @param   scale   the scale (the negated decimal exponent)
+     * @return          the offset following the number
+     */
+    private static int formatDecimal(char[] buf, int offset, long m, int scale) {
+        while (m % 10 == 0) {
+            m /= 10;
+            scale--;
+        }
+        int numDigits = positiveDecimalLength(m);
+        int exponent = numDigits - 1 - scale;
+        if (exponent >= -3 && exponent < 7) {
+            if (exponent < 0) {
+                buf[offset++] = '0';
+                buf[offset++] = '.';
+                for (int i = exponent + 1; i < 0; i++)
+                    buf[offset++] = '0';
+                return formatLong(buf, offset, m);
+            }
+            int intDigits = exponent + 1;
+            if (numDigits <= intDigits) {
+                offset = formatLong(buf, offset, m);
+                for (int i = numDigits; i < intDigits; i++)
+                    buf[offset++] = '0';
+                buf[offset++] = '.';
+                buf[offset++] = '0';
+                return offset;
+            }
+            return formatPointed(buf, offset, m, intDigits);
+        }
+        if (numDigits == 1) {
+            buf[offset++] = digits[(int)m];
+            buf[offset++] = '.';
+            buf[offset++] = '0';
+        }
+        else
+            offset = formatPointed(buf, offset, m, 1);
+        buf[offset++] = 'E';
+        return formatInt(buf, offset, exponent);
+    }
+
+    /**
+     * Store a positive {@code long} with a decimal point following the specified number of
+     * integer digits.  The digits are stored directly in the array, and the fractional digits
+     * are then moved one place to the right to make room for the decimal point.
+     *
+     * @param   buf         the {@code char} array
+     * @param   offset      the offset at which to store the number
+     * @param   m           the value (positive, with more than {@code intDigits} digits)
+     * @param   intDigits   the number of digits before the decimal point
+     * @return              the offset following the number
+     */
+    private static int formatPointed(char[] buf, int offset, long m, int intDigits) {
+        int end = formatLong(buf, offset, m);
+        int point = offset + intDigits;
+        System.arraycopy(buf, point, buf, point + 1, end - point);
+        buf[point] = '.';
+        return end + 1;
+    }
+
+    /**
+     * Store a string into a {@code char} array.
+     *
+     * @param   buf     the {@code char} array
+     * @param   offset  the offset at which to store the string
+     * @param   s       the string
+     * @return          the offset following the string
+     */
+    private static int storeChars(char[] buf, int offset, String s) {
+        int n = s.length();
+        s.getChars(0, n, buf, offset);
+        return offset + n;
+    }
+
+    /**
+     * Store the digits of a positive {@code int} into a {@code char} array, working backwards
+     * from the end index.
+     *
+     * @param   buf     the {@code char} array
+     * @param   end     the end index (exclusive)
+     * @param   i       the {@code int}
+     */
+    private static void storeDigits(char[] buf, int end, int i) {
+        while (i >= 100) {
+            int q = i / 100;
+            int r = i - q * 100;
+            i = q;
+            buf[--end] = digits[r];
+            buf[--end] = tensDigits[r];
+        }
+        if (i >= 10) {
+            buf[--end] = digits[i];
+            buf[--end] = tensDigits[i];
+        }
+        else
+            buf[--end] = digits[i];
+    }
+
+    /**
+     * Store the digits of a positive {@code int} into a {@code byte} array, working backwards
+     * from the end index.
+     *
+     * @param   buf     the {@code byte} array
+     * @param   end     the end index (exclusive)
+     * @param   i       the {@code int}
+     */
+    private static void storeDigits(byte[] buf, int end, int i) {
+        while (i >= 100) {
+            int q = i / 100;
+            int r = i - q * 100;
+            i = q;
+            buf[--end] = (byte)digits[r];
+            buf[--end] = (byte)tensDigits[r];
         }
-        else if (n >= 10) {
-            a.append(tensDigits[(int)n]);
-            a.append(digits[(int)n]);
+        if (i >= 10) {
+            buf[--end] = (byte)digits[i];
+            buf[--end] = (byte)tensDigits[i];
         }
         else
-            a.append(digits[(int)n]);
+            buf[--end] = (byte)digits[i];
+    }
+
+    /**
+     * Store an ASCII string into a {@code byte} array.
+     *
+     * @param   buf     the {@code byte} array
+     * @param   offset  the offset at which to store the string
+     * @param   s       the string
+     * @return          the offset following the string
+     */
+    private static int storeASCII(byte[] buf, int offset, String s) {
+        for (int i = 0, n = s.length(); i < n; i++)
+            buf[offset++] = (byte)s.charAt(i);
+        return offset;
+    }
+
+    /**
+     * Append characters from a {@code char} array to an {@link Appendable}, using a bulk
+     * operation where the {@link Appendable} provides one.
+     *
+     * @param   a       the {@link Appendable}
+     * @param   buf     the {@code char} array
+     * @param   len     the number of characters
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    private static void appendChars(Appendable a, char[] buf, int len) throws IOException {
+        if (a instanceof StringBuilder)
+            ((StringBuilder)a).append(buf, 0, len);
+        else if (a instanceof Writer)
+            ((Writer)a).write(buf, 0, len);
+        else if (a instanceof CharBuffer)
+            ((CharBuffer)a).put(buf, 0, len);
+        else
+            a.append(CharBuffer.wrap(buf, 0, len));
     }
 
     /**
@@ -2374,4 +4358,80 @@ public class Strings {
         a.append(digits[i]);
     }
 
+    /**
+     * The intermediate state of a {@link #joiningTo(Appendable, CharSequence)} operation.
+     */
+    private static class JoinTarget<A extends Appendable> {
+
+        private final A target;
+        private final CharSequence separator;
+        private final boolean direct;
+        private final Appendable out;
+        private StringBuilder sb;
+        private int directStart;
+        private boolean empty;
+
+        JoinTarget(A target, CharSequence separator, AtomicBoolean claimed) {
+            this.target = target;
+            this.separator = separator;
+            direct = claimed.compareAndSet(false, true);
+            if (direct) {
+                out = target;
+                if (target instanceof StringBuilder)
+                    directStart = ((StringBuilder)target).length();
+            }
+            else
+                out = sb = new StringBuilder();
+            empty = true;
+        }
+
+        void add(CharSequence item) {
+            try {
+                if (empty)
+                    empty = false;
+                else
+                    out.append(separator);
+                out.append(item);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        JoinTarget<A> merge(JoinTarget<A> other) {
+            if (other.empty)
+                return this;
+            if (empty)
+                return other;
+            if (other.direct) {
+                if (!(target instanceof StringBuilder))
+                    throw new IllegalStateException(
+                            "joiningTo() with a parallel stream requires a StringBuilder");
+                sb.append(separator);
+                ((StringBuilder)target).insert(other.directStart, sb);
+                return other;
+            }
+            try {
+                out.append(separator).append(other.sb);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return this;
+        }
+
+        A finish() {
+            if (!direct) {
+                try {
+                    target.append(sb);
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return target;
+        }
+
+    }
+
 }
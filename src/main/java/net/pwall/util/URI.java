@@ -25,34 +25,62 @@
 
 package net.pwall.util;
 
+import java.io.IOException;
+
 /**
  * A set of static methods to assist with URIs.
  *
+ * <p>The percent-encoding functions use a pre-computed table of the 256 possible "%xx"
+ * sequences, and non-ASCII characters are encoded as the percent-encoded form of their UTF-8
+ * representation without the creation of intermediate objects.  The decoding functions
+ * similarly convert sequences of "%xx" representing UTF-8 bytes directly to the corresponding
+ * characters.</p>
+ *
  * @author Peter Wall
  */
 public class URI {
 
     public static final String errorMessage = "URI %xx sequence invalid";
 
+    private static final String[] percentEncoded = new String[256];
+    private static final byte[] hexDigitBytes = { '0', '1', '2', '3', '4', '5', '6', '7', '8',
+            '9', 'A', 'B', 'C', 'D', 'E', 'F' };
+    private static final byte[] hexValues = new byte[128];
+    private static final long[] unreservedBits = new long[2];
+
+    static {
+        for (int i = 0; i < 256; i++)
+            percentEncoded[i] = new String(new char[] { '%', (char)hexDigitBytes[i >> 4],
+                    (char)hexDigitBytes[i & 0xF] });
+        for (int i = 0; i < 128; i++) {
+            hexValues[i] = (byte)(i >= '0' && i <= '9' ? i - '0' : i >= 'A' && i <= 'F' ?
+                    i - 'A' + 10 : i >= 'a' && i <= 'f' ? i - 'a' + 10 : -1);
+            if (isUnreserved(i))
+                unreservedBits[i >> 6] |= 1L << i;
+        }
+    }
+
     /** A {@link CharMapper} for use with {@link Strings#escape(String, CharMapper)} etc. */
     public static final CharMapper charMapper = cp -> {
-        if (cp > 0x7F) {
-            StringBuilder sb = new StringBuilder();
-            ByteArrayBuilder bab = new ByteArrayBuilder();
-            Strings.appendUTF8(bab, cp);
-            for (int i = 0; i < bab.length(); i++)
-                sb.append(CharMapper.hexMapping(bab.get(i), 2, "%"));
-            return sb.toString();
-        }
-        if (cp == ' ')
-            return "+";
-        if (!isUnreserved(cp))
-            return CharMapper.hexMapping(cp, 2, "%", null);
-        return null;
+        if (cp < 0x80) {
+            if (cp == ' ')
+                return "+";
+            return isUnreservedASCII((char)cp) ? null : percentEncoded[cp];
+        }
+        StringBuilder sb = new StringBuilder(12);
+        try {
+            appendPercentUTF8(sb, cp);
+        }
+        catch (IOException e) {
+            // can't happen - StringBuilder.append() does not throw IOException
+        }
+        return sb.toString();
     };
 
     /** A {@link CharUnmapper} for use with {@link Strings#unescape(String, CharUnmapper)}
-        etc. */
+        etc.  A "%xx" sequence representing the first byte of a multi-byte UTF-8 sequence will
+        be combined with the following "%xx" sequences to form a single character (or
+        surrogate pair). */
     public static final CharUnmapper charUnmapper = new CharUnmapper() {
         @Override
         public boolean isEscape(CharSequence s, int offset) {
@@ -65,11 +93,17 @@ public class URI {
                 sb.append(' ');
                 return 1;
             }
-            if (offset + 3 <= s.length()) {
-                sb.append((char)Strings.convertHexToInt(s, offset + 1, offset + 3));
-                return 3;
+            try {
+                return appendPercentSequence(sb, s, offset, s.length()) - offset;
             }
-            throw new IllegalArgumentException(errorMessage);
+            catch (IOException e) {
+                // can't happen - StringBuilder.append() does not throw IOException
+                return 0;
+            }
+        }
+        @Override
+        public String getTriggerChars() {
+            return "%+";
         }
     };
 
@@ -95,25 +129,354 @@ public class URI {
                 cp == '-' || cp == '.' || cp == '_' || cp == '~';
     }
 
+    /**
+     * Test whether a character is an unreserved ASCII character, using the pre-computed bit
+     * set.
+     *
+     * @param   ch  the character
+     * @return      {@code true} if the character is unreserved
+     */
+    private static boolean isUnreservedASCII(char ch) {
+        return ch < 0x80 && (unreservedBits[ch >> 6] & (1L << ch)) != 0;
+    }
+
     /**
      * Escape a string for use in a URI.  Only subcomponents of a URI (e.g. path elements,
-     * parameter names and values etc.) should be encoded, NOT the URI as a whole.
+     * parameter names and values etc.) should be encoded, NOT the URI as a whole.  If the
+     * string contains no characters requiring escaping, the original string is returned
+     * unmodified.
      *
      * @param   s   the string to be escaped
      * @return      the escaped string
      */
     public static String escape(String s) {
-        return Strings.escape(s, charMapper);
+        int i = 0;
+        int n = s.length();
+        while (i < n && isUnreservedASCII(s.charAt(i)))
+            i++;
+        if (i == n)
+            return s;
+        StringBuilder sb = new StringBuilder(n + (n >> 1) + 8);
+        sb.append(s, 0, i);
+        try {
+            appendEscaped(sb, s, i, n);
+        }
+        catch (IOException e) {
+            // can't happen - StringBuilder.append() does not throw IOException
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Append a portion of a {@link CharSequence} to an {@link Appendable}, escaping it for use
+     * in a URI.  Runs of unreserved characters are appended in a single operation; other
+     * characters are converted to "%xx" sequences of their UTF-8 representation (or "+" in
+     * the case of space).
+     *
+     * @param   a       the {@link Appendable}
+     * @param   s       the {@link CharSequence}
+     * @param   index   the start index
+     * @param   end     the end index
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    public static void appendEscaped(Appendable a, CharSequence s, int index, int end)
+            throws IOException {
+        int runStart = index;
+        while (index < end) {
+            char ch = s.charAt(index);
+            if (isUnreservedASCII(ch)) {
+                index++;
+                continue;
+            }
+            if (index > runStart)
+                a.append(s, runStart, index);
+            index++;
+            if (ch == ' ')
+                a.append('+');
+            else if (ch < 0x80)
+                a.append(percentEncoded[ch]);
+            else {
+                char ch2;
+                if (Character.isHighSurrogate(ch) && index < end &&
+                        Character.isLowSurrogate(ch2 = s.charAt(index))) {
+                    appendPercentUTF8(a, Character.toCodePoint(ch, ch2));
+                    index++;
+                }
+                else
+                    appendPercentUTF8(a, ch);
+            }
+            runStart = index;
+        }
+        if (index > runStart)
+            a.append(s, runStart, index);
+    }
+
+    /**
+     * Append a {@link CharSequence} to an {@link Appendable}, escaping it for use in a URI.
+     *
+     * @param   a       the {@link Appendable}
+     * @param   s       the {@link CharSequence}
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    public static void appendEscaped(Appendable a, CharSequence s) throws IOException {
+        appendEscaped(a, s, 0, s.length());
+    }
+
+    /**
+     * Append a portion of a {@link CharSequence} to a {@link ByteArrayBuilder}, escaping it for
+     * use in a URI.  Since the output of the escaping operation is always ASCII, the bytes
+     * may be used directly in, for example, an HTTP request.
+     *
+     * @param   bab     the {@link ByteArrayBuilder}
+     * @param   s       the {@link CharSequence}
+     * @param   index   the start index
+     * @param   end     the end index
+     */
+    public static void appendEscaped(ByteArrayBuilder bab, CharSequence s, int index, int end) {
+        while (index < end) {
+            char ch = s.charAt(index++);
+            if (isUnreservedASCII(ch))
+                bab.append(ch);
+            else if (ch == ' ')
+                bab.append('+');
+            else if (ch < 0x80)
+                appendPercent(bab, ch);
+            else {
+                char ch2;
+                if (Character.isHighSurrogate(ch) && index < end &&
+                        Character.isLowSurrogate(ch2 = s.charAt(index))) {
+                    appendPercentUTF8(bab, Character.toCodePoint(ch, ch2));
+                    index++;
+                }
+                else
+                    appendPercentUTF8(bab, ch);
+            }
+        }
+    }
+
+    /**
+     * Append the percent-encoded UTF-8 form of a non-ASCII code point to an
+     * {@link Appendable}.
+     *
+     * @param   a       the {@link Appendable}
+     * @param   cp      the code point (must be greater than 0x7F)
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    private static void appendPercentUTF8(Appendable a, int cp) throws IOException {
+        if (cp <= 0x7FF)
+            a.append(percentEncoded[(cp >> 6) | 0xC0]);
+        else {
+            if (cp <= 0xFFFF)
+                a.append(percentEncoded[(cp >> 12) | 0xE0]);
+            else {
+                a.append(percentEncoded[((cp >> 18) & 0x7) | 0xF0]);
+                a.append(percentEncoded[((cp >> 12) & 0x3F) | 0x80]);
+            }
+            a.append(percentEncoded[((cp >> 6) & 0x3F) | 0x80]);
+        }
+        a.append(percentEncoded[(cp & 0x3F) | 0x80]);
     }
 
     /**
-     * Unescape a string from a URI.
+     * Append the percent-encoded UTF-8 form of a non-ASCII code point to a
+     * {@link ByteArrayBuilder}.
+     *
+     * @param   bab     the {@link ByteArrayBuilder}
+     * @param   cp      the code point (must be greater than 0x7F)
+     */
+    private static void appendPercentUTF8(ByteArrayBuilder bab, int cp) {
+        if (cp <= 0x7FF)
+            appendPercent(bab, (cp >> 6) | 0xC0);
+        else {
+            if (cp <= 0xFFFF)
+                appendPercent(bab, (cp >> 12) | 0xE0);
+            else {
+                appendPercent(bab, ((cp >> 18) & 0x7) | 0xF0);
+                appendPercent(bab, ((cp >> 12) & 0x3F) | 0x80);
+            }
+            appendPercent(bab, ((cp >> 6) & 0x3F) | 0x80);
+        }
+        appendPercent(bab, (cp & 0x3F) | 0x80);
+    }
+
+    /**
+     * Append a "%xx" sequence to a {@link ByteArrayBuilder}.
+     *
+     * @param   bab     the {@link ByteArrayBuilder}
+     * @param   b       the byte value
+     */
+    private static void appendPercent(ByteArrayBuilder bab, int b) {
+        bab.append('%');
+        bab.append(hexDigitBytes[(b >> 4) & 0xF]);
+        bab.append(hexDigitBytes[b & 0xF]);
+    }
+
+    /**
+     * Unescape a string from a URI.  Sequences of "%xx" representing UTF-8 multi-byte
+     * sequences are converted to the corresponding character.  If the string contains no
+     * escape sequences, the original string is returned unmodified.
      *
      * @param   s   the string to be converted
      * @return      the "unescaped" string
+     * @throws      IllegalArgumentException if the string contains an invalid "%xx" sequence
+     *              or the sequences do not form valid UTF-8
      */
     public static String unescape(String s) {
-        return Strings.unescape(s, charUnmapper);
+        int n = s.length();
+        int i = 0;
+        for (;;) {
+            if (i >= n)
+                return s;
+            char ch = s.charAt(i);
+            if (ch == '%' || ch == '+')
+                break;
+            i++;
+        }
+        StringBuilder sb = new StringBuilder(n);
+        sb.append(s, 0, i);
+        try {
+            appendUnescaped(sb, s, i, n);
+        }
+        catch (IOException e) {
+            // can't happen - StringBuilder.append() does not throw IOException
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Unescape a portion of a {@link CharSequence} from a URI, returning the result as a
+     * {@link String}.
+     *
+     * @param   s       the {@link CharSequence}
+     * @param   start   the start index
+     * @param   end     the end index
+     * @return          the "unescaped" string
+     * @throws          IllegalArgumentException if the sequence contains an invalid "%xx"
+     *                  sequence or the sequences do not form valid UTF-8
+     */
+    public static String unescape(CharSequence s, int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        try {
+            appendUnescaped(sb, s, start, end);
+        }
+        catch (IOException e) {
+            // can't happen - StringBuilder.append() does not throw IOException
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Append a portion of a {@link CharSequence} to an {@link Appendable}, unescaping it from
+     * a URI.  Runs of characters not requiring conversion are appended in a single operation,
+     * and sequences of "%xx" are decoded as UTF-8 in the same pass.
+     *
+     * @param   a       the {@link Appendable}
+     * @param   s       the {@link CharSequence}
+     * @param   index   the start index
+     * @param   end     the end index
+     * @throws  IOException if thrown by the {@link Appendable}
+     * @throws  IllegalArgumentException if the sequence contains an invalid "%xx" sequence or
+     *          the sequences do not form valid UTF-8
+     */
+    public static void appendUnescaped(Appendable a, CharSequence s, int index, int end)
+            throws IOException {
+        int runStart = index;
+        while (index < end) {
+            char ch = s.charAt(index);
+            if (ch == '%' || ch == '+') {
+                if (index > runStart)
+                    a.append(s, runStart, index);
+                if (ch == '+') {
+                    a.append(' ');
+                    index++;
+                }
+                else
+                    index = appendPercentSequence(a, s, index, end);
+                runStart = index;
+            }
+            else
+                index++;
+        }
+        if (index > runStart)
+            a.append(s, runStart, index);
+    }
+
+    /**
+     * Decode a "%xx" sequence, along with any following "%xx" sequences required to complete a
+     * UTF-8 multi-byte sequence, and append the resulting character to an {@link Appendable}.
+     * Overlong encodings, surrogate code points and values above {@code U+10FFFF} are rejected.
+     *
+     * @param   a       the {@link Appendable}
+     * @param   s       the {@link CharSequence}
+     * @param   index   the index of the initial "%"
+     * @param   end     the end index
+     * @return          the index following the decoded sequence
+     * @throws  IOException if thrown by the {@link Appendable}
+     * @throws  IllegalArgumentException if the sequence is invalid
+     */
+    private static int appendPercentSequence(Appendable a, CharSequence s, int index, int end)
+            throws IOException {
+        int b = percentByte(s, index, end);
+        index += 3;
+        if (b < 0x80) {
+            a.append((char)b);
+            return index;
+        }
+        int codePoint;
+        int remaining;
+        int minimum;
+        if ((b & 0xE0) == 0xC0) {
+            codePoint = b & 0x1F;
+            remaining = 1;
+            minimum = 0x80;
+        }
+        else if ((b & 0xF0) == 0xE0) {
+            codePoint = b & 0x0F;
+            remaining = 2;
+            minimum = 0x800;
+        }
+        else if ((b & 0xF8) == 0xF0) {
+            codePoint = b & 0x07;
+            remaining = 3;
+            minimum = 0x10000;
+        }
+        else
+            throw new IllegalArgumentException(errorMessage);
+        do {
+            if (index >= end || s.charAt(index) != '%')
+                throw new IllegalArgumentException(errorMessage);
+            b = percentByte(s, index, end);
+            if ((b & 0xC0) != 0x80)
+                throw new IllegalArgumentException(errorMessage);
+            codePoint = (codePoint << 6) | (b & 0x3F);
+            index += 3;
+        } while (--remaining > 0);
+        // reject overlong encodings, surrogates and values beyond the Unicode range
+        if (codePoint < minimum || codePoint > Character.MAX_CODE_POINT ||
+                codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)
+            throw new IllegalArgumentException(errorMessage);
+        Strings.appendUTF16(a, codePoint);
+        return index;
+    }
+
+    /**
+     * Get the byte value of a "%xx" sequence.
+     *
+     * @param   s       the {@link CharSequence}
+     * @param   index   the index of the "%"
+     * @param   end     the end index
+     * @return          the byte value (0 - 255)
+     * @throws  IllegalArgumentException if the sequence is invalid
+     */
+    private static int percentByte(CharSequence s, int index, int end) {
+        if (index + 3 > end)
+            throw new IllegalArgumentException(errorMessage);
+        char hi = s.charAt(index + 1);
+        char lo = s.charAt(index + 2);
+        int result;
+        if (hi >= 0x80 || lo >= 0x80 || (result = hexValues[hi] << 4 | hexValues[lo]) < 0)
+            throw new IllegalArgumentException(errorMessage);
+        return result;
     }
 
 }
@@ -0,0 +1,278 @@
+/*
+ * @(#) UTF8Decoder.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Objects;
+
+/**
+ * An incremental UTF-8 decoder.  Bytes are supplied in successive blocks, and a multi-byte
+ * sequence may be split between blocks; the partial sequence is held in the decoder until the
+ * next block completes it.  The decoded characters are appended to an {@link Appendable} (for
+ * example, a {@link StringBuilder} or a {@link CharBuffer}).
+ *
+ * <p>The decoder keeps a count of the bytes processed, and when an invalid sequence is
+ * detected the exception message includes the offset of the start of the sequence (counting
+ * from the first byte supplied after construction or {@link #reset()}).  The validation rules
+ * are the same as those of {@link Strings#decodeUTF8(byte[], int, int, char[], int)}.</p>
+ *
+ * <p>For example, in non-blocking I/O:</p>
+ * <pre>
+ *     UTF8Decoder decoder = new UTF8Decoder(sb);
+ *     while (channel.read(byteBuffer) &gt; 0) {
+ *         byteBuffer.flip();
+ *         decoder.decode(byteBuffer);
+ *         byteBuffer.clear();
+ *     }
+ *     decoder.finish();
+ * </pre>
+ *
+ * @author  Peter Wall
+ */
+public class UTF8Decoder {
+
+    public static final int bufferSize = 1024;
+
+    private final Appendable output;
+    private final char[] chars;
+    private byte[] scratch;
+    private int charCount;
+    private long position;
+    private long sequenceStart;
+    private int codePoint;
+    private int remaining;
+    private int minimum;
+
+    /**
+     * Construct a {@code UTF8Decoder} to append to the specified {@link Appendable}.
+     *
+     * @param   output  the {@link Appendable}
+     * @throws  NullPointerException if the {@link Appendable} is {@code null}
+     */
+    public UTF8Decoder(Appendable output) {
+        this.output = Objects.requireNonNull(output);
+        chars = new char[bufferSize];
+        reset();
+    }
+
+    /**
+     * Get the output {@link Appendable}.
+     *
+     * @return  the {@link Appendable}
+     */
+    public Appendable getOutput() {
+        return output;
+    }
+
+    /**
+     * Get the number of bytes processed since construction or the last {@link #reset()}.
+     *
+     * @return  the number of bytes
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Test whether the decoder is holding a partial sequence.
+     *
+     * @return  {@code true} if a multi-byte sequence has been started but not completed
+     */
+    public boolean isPartial() {
+        return remaining > 0;
+    }
+
+    /**
+     * Reset the decoder, discarding any partial sequence and setting the position to zero.
+     *
+     * @return  {@code this} (for chaining)
+     */
+    public UTF8Decoder reset() {
+        charCount = 0;
+        position = 0;
+        remaining = 0;
+        return this;
+    }
+
+    /**
+     * Decode a block of bytes.
+     *
+     * @param   bytes   the byte array
+     * @return          {@code this} (for chaining)
+     * @throws  IOException if thrown by the {@link Appendable}
+     * @throws  IllegalArgumentException if the bytes contain an invalid UTF-8 sequence
+     */
+    public UTF8Decoder decode(byte[] bytes) throws IOException {
+        return decode(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Decode a portion of a byte array.
+     *
+     * @param   bytes   the byte array
+     * @param   start   the start index
+     * @param   end     the end index
+     * @return          {@code this} (for chaining)
+     * @throws  IOException if thrown by the {@link Appendable}
+     * @throws  IllegalArgumentException if the bytes contain an invalid UTF-8 sequence
+     * @throws  IndexOutOfBoundsException if {@code start} or {@code end} is invalid
+     */
+    public UTF8Decoder decode(byte[] bytes, int start, int end) throws IOException {
+        if (start < 0 || start > end || end > bytes.length)
+            throw new IndexOutOfBoundsException();
+        int i = start;
+        try {
+            while (i < end) {
+                int b = bytes[i];
+                if (remaining == 0) {
+                    if (b >= 0) {
+                        // ASCII - copy as many as possible without further state checks
+                        do {
+                            if (charCount == bufferSize)
+                                flush();
+                            chars[charCount++] = (char)b;
+                        } while (++i < end && (b = bytes[i]) >= 0);
+                        continue;
+                    }
+                    sequenceStart = position + i - start;
+                    if ((b & 0xE0) == 0xC0) {
+                        codePoint = b & 0x1F;
+                        remaining = 1;
+                        minimum = 0x80;
+                    }
+                    else if ((b & 0xF0) == 0xE0) {
+                        codePoint = b & 0x0F;
+                        remaining = 2;
+                        minimum = 0x800;
+                    }
+                    else if ((b & 0xF8) == 0xF0) {
+                        codePoint = b & 0x07;
+                        remaining = 3;
+                        minimum = 0x10000;
+                    }
+                    else
+                        throw error("Illegal character in UTF-8 bytes");
+                }
+                else {
+                    if ((b & 0xC0) != 0x80)
+                        throw error("Illegal character in UTF-8 bytes");
+                    codePoint = (codePoint << 6) | (b & 0x3F);
+                    if (--remaining == 0) {
+                        if (codePoint < minimum || codePoint > Character.MAX_CODE_POINT)
+                            throw error("Illegal character in UTF-8 bytes");
+                        if (charCount > bufferSize - 2)
+                            flush();
+                        if (codePoint < 0x10000)
+                            chars[charCount++] = (char)codePoint;
+                        else {
+                            chars[charCount++] = Character.highSurrogate(codePoint);
+                            chars[charCount++] = Character.lowSurrogate(codePoint);
+                        }
+                    }
+                }
+                i++;
+            }
+        }
+        finally {
+            position += i - start;
+        }
+        flush();
+        return this;
+    }
+
+    /**
+     * Decode the bytes in a {@link ByteBuffer} from the current position to the limit.  The
+     * position is advanced to the limit.
+     *
+     * @param   byteBuffer  the {@link ByteBuffer}
+     * @return              {@code this} (for chaining)
+     * @throws  IOException if thrown by the {@link Appendable}
+     * @throws  IllegalArgumentException if the bytes contain an invalid UTF-8 sequence
+     */
+    public UTF8Decoder decode(ByteBuffer byteBuffer) throws IOException {
+        if (byteBuffer.hasArray()) {
+            int start = byteBuffer.arrayOffset() + byteBuffer.position();
+            int end = start + byteBuffer.remaining();
+            byteBuffer.position(byteBuffer.limit());
+            return decode(byteBuffer.array(), start, end);
+        }
+        if (scratch == null)
+            scratch = new byte[bufferSize];
+        while (byteBuffer.hasRemaining()) {
+            int n = Math.min(scratch.length, byteBuffer.remaining());
+            byteBuffer.get(scratch, 0, n);
+            decode(scratch, 0, n);
+        }
+        return this;
+    }
+
+    /**
+     * Signal the end of the input.  If a partial sequence is held, an exception is thrown.
+     *
+     * @throws  IllegalArgumentException if the input ended with an incomplete sequence
+     */
+    public void finish() {
+        if (remaining > 0) {
+            remaining = 0;
+            throw new IllegalArgumentException("Incomplete sequence in UTF-8 bytes at offset " +
+                    sequenceStart);
+        }
+    }
+
+    /**
+     * Create an exception for an invalid sequence.  The characters decoded before the error are
+     * appended to the output, and the partial sequence is discarded.
+     *
+     * @param   message     the message
+     * @return              the exception
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    private IllegalArgumentException error(String message) throws IOException {
+        flush();
+        remaining = 0;
+        return new IllegalArgumentException(message + " at offset " + sequenceStart);
+    }
+
+    /**
+     * Append the decoded characters held in the buffer to the output.
+     *
+     * @throws  IOException if thrown by the {@link Appendable}
+     */
+    private void flush() throws IOException {
+        if (charCount > 0) {
+            if (output instanceof StringBuilder)
+                ((StringBuilder)output).append(chars, 0, charCount);
+            else if (output instanceof CharBuffer)
+                ((CharBuffer)output).put(chars, 0, charCount);
+            else
+                output.append(CharBuffer.wrap(chars, 0, charCount));
+            charCount = 0;
+        }
+    }
+
+}
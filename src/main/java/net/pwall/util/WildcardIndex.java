@@ -0,0 +1,301 @@
+/*
+ * @(#) WildcardIndex.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index for matching a single target against a large number of wildcard patterns.  The
+ * patterns use the same syntax as {@link Strings#multiWildcardCompare(String, CharSequence)},
+ * and each is identified by its position in the list supplied to the constructor.
+ *
+ * <p>For each alternative of each pattern, the longest literal fragment (a sequence of
+ * characters containing no <code>*</code> or <code>?</code>) is selected, and the fragments are
+ * compiled into an Aho-Corasick automaton.  A single pass of the automaton over the target
+ * finds all the fragments present, and only the alternatives keyed on those fragments are then
+ * verified in full.  Alternatives with no literal content (for example, <code>*</code> or
+ * <code>?*</code>) are always verified.</p>
+ *
+ * <p>Instances are immutable and may be shared between threads.</p>
+ *
+ * @author  Peter Wall
+ * @see     WildcardPattern
+ */
+public class WildcardIndex {
+
+    private static final int[] noEntries = new int[0];
+
+    private final WildcardPattern[] patterns;
+    private final char[][] keys;
+    private final int[][] next;
+    private final int[] fail;
+    private final int[] outputLink;
+    private final int[] fragment;
+    private final int[][] fragmentEntries;
+    private final int[] unindexedEntries;
+
+    /**
+     * Construct a {@code WildcardIndex} from a collection of patterns.
+     *
+     * @param   patterns    the pattern strings
+     */
+    public WildcardIndex(Collection<String> patterns) {
+        this(patterns.toArray(new String[patterns.size()]));
+    }
+
+    /**
+     * Construct a {@code WildcardIndex} from an array of patterns.
+     *
+     * @param   patterns    the pattern strings
+     */
+    public WildcardIndex(String ... patterns) {
+        int n = patterns.length;
+        this.patterns = new WildcardPattern[n];
+        Map<String, Integer> fragmentIds = new HashMap<>();
+        List<IntList> entryLists = new ArrayList<>();
+        IntList unindexed = new IntList();
+        List<char[]> keyList = new ArrayList<>();
+        List<int[]> nextList = new ArrayList<>();
+        IntList fragmentList = new IntList();
+        keyList.add(new char[0]);
+        nextList.add(noEntries);
+        fragmentList.add(-1);
+        for (int i = 0; i < n; i++) {
+            WildcardPattern pattern = WildcardPattern.compile(patterns[i]);
+            this.patterns[i] = pattern;
+            for (int j = 0, m = pattern.getAlternativeCount(); j < m; j++) {
+                String longest = "";
+                for (String s : pattern.getLiteralFragments(j))
+                    if (s.length() > longest.length())
+                        longest = s;
+                if (longest.isEmpty()) {
+                    unindexed.add(i);
+                    unindexed.add(j);
+                    continue;
+                }
+                Integer id = fragmentIds.get(longest);
+                if (id == null) {
+                    id = entryLists.size();
+                    fragmentIds.put(longest, id);
+                    entryLists.add(new IntList());
+                    int state = 0;
+                    for (int k = 0, len = longest.length(); k < len; k++) {
+                        char ch = longest.charAt(k);
+                        int target = findTransition(keyList.get(state), nextList.get(state), ch);
+                        if (target < 0) {
+                            target = keyList.size();
+                            keyList.add(new char[0]);
+                            nextList.add(noEntries);
+                            fragmentList.add(-1);
+                            int count = keyList.get(state).length;
+                            char[] stateKeys = Arrays.copyOf(keyList.get(state), count + 1);
+                            int[] stateNext = Arrays.copyOf(nextList.get(state), count + 1);
+                            stateKeys[count] = ch;
+                            stateNext[count] = target;
+                            keyList.set(state, stateKeys);
+                            nextList.set(state, stateNext);
+                        }
+                        state = target;
+                    }
+                    fragmentList.set(state, id);
+                }
+                IntList entries = entryLists.get(id);
+                entries.add(i);
+                entries.add(j);
+            }
+        }
+        int states = keyList.size();
+        keys = keyList.toArray(new char[states][]);
+        next = nextList.toArray(new int[states][]);
+        fragment = fragmentList.toArray();
+        fragmentEntries = new int[entryLists.size()][];
+        for (int i = 0, m = entryLists.size(); i < m; i++)
+            fragmentEntries[i] = entryLists.get(i).toArray();
+        unindexedEntries = unindexed.toArray();
+        fail = new int[states];
+        outputLink = new int[states];
+        outputLink[0] = -1;
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int child : next[0]) {
+            outputLink[child] = -1;
+            queue[tail++] = child;
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            char[] stateKeys = keys[state];
+            for (int i = 0; i < stateKeys.length; i++) {
+                char ch = stateKeys[i];
+                int child = next[state][i];
+                int f = fail[state];
+                int target;
+                for (;;) {
+                    target = findTransition(keys[f], next[f], ch);
+                    if (target >= 0 || f == 0)
+                        break;
+                    f = fail[f];
+                }
+                f = target >= 0 ? target : 0;
+                fail[child] = f;
+                outputLink[child] = fragment[f] >= 0 ? f : outputLink[f];
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    /**
+     * Get the number of patterns in the index.
+     *
+     * @return  the number of patterns
+     */
+    public int size() {
+        return patterns.length;
+    }
+
+    /**
+     * Get a pattern from the index.
+     *
+     * @param   id      the pattern id (the index in the original list)
+     * @return          the {@link WildcardPattern}
+     * @throws  IndexOutOfBoundsException if the id is not valid
+     */
+    public WildcardPattern getPattern(int id) {
+        return patterns[id];
+    }
+
+    /**
+     * Find all the patterns that match a target.
+     *
+     * @param   target  the target {@link CharSequence}
+     * @return          the ids of the matching patterns, in ascending order
+     */
+    public int[] findAll(CharSequence target) {
+        BitSet matched = new BitSet();
+        BitSet seen = new BitSet();
+        int state = 0;
+        for (int i = 0, n = target.length(); i < n; i++) {
+            state = step(state, target.charAt(i));
+            for (int s = fragment[state] >= 0 ? state : outputLink[state]; s >= 0;
+                    s = outputLink[s]) {
+                int id = fragment[s];
+                if (!seen.get(id)) {
+                    seen.set(id);
+                    verify(fragmentEntries[id], target, matched);
+                }
+            }
+        }
+        verify(unindexedEntries, target, matched);
+        return matched.stream().toArray();
+    }
+
+    /**
+     * Test whether a target matches any of the patterns in the index.
+     *
+     * @param   target  the target {@link CharSequence}
+     * @return          {@code true} if the target matches any pattern
+     */
+    public boolean matchesAny(CharSequence target) {
+        BitSet matched = new BitSet();
+        verify(unindexedEntries, target, matched);
+        if (!matched.isEmpty())
+            return true;
+        BitSet seen = new BitSet();
+        int state = 0;
+        for (int i = 0, n = target.length(); i < n; i++) {
+            state = step(state, target.charAt(i));
+            for (int s = fragment[state] >= 0 ? state : outputLink[state]; s >= 0;
+                    s = outputLink[s]) {
+                int id = fragment[s];
+                if (!seen.get(id)) {
+                    seen.set(id);
+                    verify(fragmentEntries[id], target, matched);
+                    if (!matched.isEmpty())
+                        return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int step(int state, char ch) {
+        for (;;) {
+            int target = findTransition(keys[state], next[state], ch);
+            if (target >= 0)
+                return target;
+            if (state == 0)
+                return 0;
+            state = fail[state];
+        }
+    }
+
+    private void verify(int[] entries, CharSequence target, BitSet matched) {
+        for (int i = 0; i < entries.length; i += 2) {
+            int patternIndex = entries[i];
+            if (!matched.get(patternIndex) &&
+                    patterns[patternIndex].matchesAlternative(entries[i + 1], target))
+                matched.set(patternIndex);
+        }
+    }
+
+    private static int findTransition(char[] stateKeys, int[] stateNext, char ch) {
+        for (int i = 0; i < stateKeys.length; i++)
+            if (stateKeys[i] == ch)
+                return stateNext[i];
+        return -1;
+    }
+
+    /**
+     * A minimal growable list of {@code int}, used while building the index.
+     */
+    private static class IntList {
+
+        private int[] array = new int[4];
+        private int size;
+
+        public void add(int value) {
+            if (size == array.length)
+                array = Arrays.copyOf(array, size * 2);
+            array[size++] = value;
+        }
+
+        public void set(int index, int value) {
+            array[index] = value;
+        }
+
+        public int[] toArray() {
+            return Arrays.copyOf(array, size);
+        }
+
+    }
+
+}
@@ -0,0 +1,292 @@
+/*
+ * @(#) WildcardPattern.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A compiled wildcard pattern.  The pattern uses the same syntax as
+ * {@link Strings#multiWildcardCompare(String, CharSequence)}: <code>?</code> matches a single
+ * character, <code>*</code> matches zero or more characters, and <code>|</code> separates
+ * alternatives.  The pattern is parsed once, into a set of alternatives each consisting of
+ * a fixed head, a number of intermediate segments and a fixed tail, so that matching does not
+ * need to re-scan the pattern.  Segments without <code>?</code> are located using
+ * {@link String#indexOf(String, int)} when the target is a {@link String}.
+ *
+ * <p>Instances are immutable and may be shared between threads.</p>
+ *
+ * @author  Peter Wall
+ * @see     WildcardPatternSet
+ */
+public class WildcardPattern {
+
+    private final String pattern;
+    private final Alternative[] alternatives;
+
+    private WildcardPattern(String pattern, Alternative[] alternatives) {
+        this.pattern = pattern;
+        this.alternatives = alternatives;
+    }
+
+    /**
+     * Compile a wildcard pattern.
+     *
+     * @param   pattern the pattern string
+     * @return          the compiled {@code WildcardPattern}
+     * @throws          NullPointerException if the pattern is {@code null}
+     */
+    public static WildcardPattern compile(String pattern) {
+        Objects.requireNonNull(pattern);
+        List<Alternative> list = new ArrayList<>();
+        int start = 0;
+        for (;;) {
+            int i = pattern.indexOf('|', start);
+            if (i < 0)
+                break;
+            list.add(new Alternative(pattern, start, i));
+            start = i + 1;
+        }
+        list.add(new Alternative(pattern, start, pattern.length()));
+        return new WildcardPattern(pattern, list.toArray(new Alternative[list.size()]));
+    }
+
+    /**
+     * Get the original pattern string.
+     *
+     * @return  the pattern string
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Test whether a target matches the pattern (that is, whether it matches any of the
+     * alternatives).
+     *
+     * @param   target  the target {@link CharSequence}
+     * @return          {@code true} if the target matches the pattern
+     */
+    public boolean matches(CharSequence target) {
+        for (Alternative alternative : alternatives)
+            if (alternative.matches(target))
+                return true;
+        return false;
+    }
+
+    /**
+     * Get the number of alternatives in the pattern.
+     *
+     * @return  the number of alternatives
+     */
+    int getAlternativeCount() {
+        return alternatives.length;
+    }
+
+    /**
+     * Get the literal prefix of an alternative, that is, the characters before the first
+     * wildcard character.
+     *
+     * @param   index   the index of the alternative
+     * @return          the literal prefix
+     */
+    String getLiteralPrefix(int index) {
+        return alternatives[index].literalPrefix;
+    }
+
+    /**
+     * Test whether a target matches a single alternative.
+     *
+     * @param   index   the index of the alternative
+     * @param   target  the target {@link CharSequence}
+     * @return          {@code true} if the target matches the alternative
+     */
+    boolean matchesAlternative(int index, CharSequence target) {
+        return alternatives[index].matches(target);
+    }
+
+    /**
+     * Get the literal fragments of an alternative, that is, the sequences of characters
+     * containing no wildcard characters.  Any string matching the alternative must contain all
+     * of these fragments.
+     *
+     * @param   index   the index of the alternative
+     * @return          the literal fragments (possibly empty)
+     */
+    List<String> getLiteralFragments(int index) {
+        List<String> result = new ArrayList<>();
+        Alternative alternative = alternatives[index];
+        alternative.head.addFragments(result);
+        for (Segment segment : alternative.middle)
+            segment.addFragments(result);
+        if (alternative.tail != null)
+            alternative.tail.addFragments(result);
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || obj instanceof WildcardPattern &&
+                pattern.equals(((WildcardPattern)obj).pattern);
+    }
+
+    @Override
+    public int hashCode() {
+        return pattern.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    /**
+     * A single alternative of a pattern.  If the alternative contains no <code>*</code>, the
+     * whole alternative is held as the head and the tail is {@code null}.
+     */
+    private static class Alternative {
+
+        private final Segment head;
+        private final Segment[] middle;
+        private final Segment tail;
+        private final int minLength;
+        private final String literalPrefix;
+
+        public Alternative(String pattern, int start, int end) {
+            int i = pattern.indexOf('*', start);
+            if (i < 0 || i >= end) {
+                head = new Segment(pattern.substring(start, end));
+                middle = new Segment[0];
+                tail = null;
+                minLength = end - start;
+            }
+            else {
+                head = new Segment(pattern.substring(start, i));
+                int length = i - start;
+                List<Segment> segments = new ArrayList<>();
+                int segmentStart = i + 1;
+                for (;;) {
+                    i = pattern.indexOf('*', segmentStart);
+                    if (i < 0 || i >= end)
+                        break;
+                    if (i > segmentStart) {
+                        segments.add(new Segment(pattern.substring(segmentStart, i)));
+                        length += i - segmentStart;
+                    }
+                    segmentStart = i + 1;
+                }
+                middle = segments.toArray(new Segment[segments.size()]);
+                tail = new Segment(pattern.substring(segmentStart, end));
+                minLength = length + end - segmentStart;
+            }
+            String headText = head.text;
+            int q = headText.indexOf('?');
+            literalPrefix = q < 0 ? headText : headText.substring(0, q);
+        }
+
+        public boolean matches(CharSequence target) {
+            int n = target.length();
+            if (tail == null)
+                return n == minLength && head.matchesAt(target, 0);
+            if (n < minLength || !head.matchesAt(target, 0))
+                return false;
+            int tailStart = n - tail.length;
+            int index = head.length;
+            for (Segment segment : middle) {
+                int found = segment.find(target, index, tailStart);
+                if (found < 0)
+                    return false;
+                index = found + segment.length;
+            }
+            return tail.matchesAt(target, tailStart);
+        }
+
+    }
+
+    /**
+     * A segment of a pattern, which may contain <code>?</code> but not <code>*</code>.
+     */
+    private static class Segment {
+
+        private final String text;
+        private final int length;
+        private final boolean hasWildcard;
+
+        public Segment(String text) {
+            this.text = text;
+            length = text.length();
+            hasWildcard = text.indexOf('?') >= 0;
+        }
+
+        public boolean matchesAt(CharSequence target, int index) {
+            if (!hasWildcard && target instanceof String)
+                return ((String)target).startsWith(text, index);
+            for (int i = 0; i < length; i++) {
+                char ch = text.charAt(i);
+                if (ch != '?' && ch != target.charAt(index + i))
+                    return false;
+            }
+            return true;
+        }
+
+        /**
+         * Find the first occurrence of the segment in the target, such that the segment lies
+         * entirely within the range specified.
+         *
+         * @param   target  the target
+         * @param   from    the start index of the range
+         * @param   limit   the end index of the range
+         * @return          the index of the occurrence, or -1 if not found
+         */
+        public int find(CharSequence target, int from, int limit) {
+            int last = limit - length;
+            if (!hasWildcard && target instanceof String) {
+                int i = ((String)target).indexOf(text, from);
+                return i <= last ? i : -1;
+            }
+            for (int i = from; i <= last; i++)
+                if (matchesAt(target, i))
+                    return i;
+            return -1;
+        }
+
+        public void addFragments(List<String> fragments) {
+            int start = 0;
+            for (;;) {
+                int i = text.indexOf('?', start);
+                int end = i < 0 ? length : i;
+                if (end > start)
+                    fragments.add(text.substring(start, end));
+                if (i < 0)
+                    break;
+                start = i + 1;
+            }
+        }
+
+    }
+
+}
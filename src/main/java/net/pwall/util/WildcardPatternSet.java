@@ -0,0 +1,221 @@
+/*
+ * @(#) WildcardPatternSet.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A set of {@link WildcardPattern}s, to be tested against a single target.  The alternatives
+ * of each pattern are stored in a trie keyed on the literal prefix of the alternative (the
+ * characters before the first wildcard character), so that only those alternatives whose
+ * prefix matches the start of the target need to be tested in full.
+ *
+ * <p>The set may be added to at any time, but it is not thread-safe while being modified.</p>
+ *
+ * @author  Peter Wall
+ */
+public class WildcardPatternSet {
+
+    private final List<WildcardPattern> patterns;
+    private final Node root;
+
+    /**
+     * Construct an empty {@code WildcardPatternSet}.
+     */
+    public WildcardPatternSet() {
+        patterns = new ArrayList<>();
+        root = new Node();
+    }
+
+    /**
+     * Construct a {@code WildcardPatternSet} containing the specified patterns.
+     *
+     * @param   patterns    the pattern strings
+     */
+    public WildcardPatternSet(String ... patterns) {
+        this();
+        for (String pattern : patterns)
+            add(pattern);
+    }
+
+    /**
+     * Add a pattern to the set.
+     *
+     * @param   pattern the pattern string
+     * @return          {@code this} (for chaining)
+     */
+    public WildcardPatternSet add(String pattern) {
+        return add(WildcardPattern.compile(pattern));
+    }
+
+    /**
+     * Add a compiled pattern to the set.
+     *
+     * @param   pattern the {@link WildcardPattern}
+     * @return          {@code this} (for chaining)
+     */
+    public WildcardPatternSet add(WildcardPattern pattern) {
+        int patternIndex = patterns.size();
+        patterns.add(pattern);
+        for (int i = 0, n = pattern.getAlternativeCount(); i < n; i++) {
+            String prefix = pattern.getLiteralPrefix(i);
+            Node node = root;
+            for (int j = 0, m = prefix.length(); j < m; j++)
+                node = node.getOrAddChild(prefix.charAt(j));
+            node.addEntry(patternIndex, i);
+        }
+        return this;
+    }
+
+    /**
+     * Get the number of patterns in the set.
+     *
+     * @return  the number of patterns
+     */
+    public int size() {
+        return patterns.size();
+    }
+
+    /**
+     * Get a pattern from the set.
+     *
+     * @param   index   the index of the pattern (in order of addition)
+     * @return          the {@link WildcardPattern}
+     * @throws  IndexOutOfBoundsException if the index is not valid
+     */
+    public WildcardPattern get(int index) {
+        return patterns.get(index);
+    }
+
+    /**
+     * Test whether a target matches any of the patterns in the set.
+     *
+     * @param   target  the target {@link CharSequence}
+     * @return          {@code true} if the target matches any pattern
+     */
+    public boolean matchesAny(CharSequence target) {
+        Node node = root;
+        int index = 0;
+        int n = target.length();
+        for (;;) {
+            for (int i = 0; i < node.entryCount; i++)
+                if (patterns.get(node.patternIndices[i]).matchesAlternative(
+                        node.alternativeIndices[i], target))
+                    return true;
+            if (index >= n || (node = node.getChild(target.charAt(index++))) == null)
+                return false;
+        }
+    }
+
+    /**
+     * Find the first pattern (in order of addition) that matches a target.
+     *
+     * @param   target  the target {@link CharSequence}
+     * @return          the index of the first matching pattern, or -1 if none match
+     */
+    public int findFirst(CharSequence target) {
+        BitSet matched = findMatches(target);
+        return matched.nextSetBit(0);
+    }
+
+    /**
+     * Find all the patterns that match a target.
+     *
+     * @param   target  the target {@link CharSequence}
+     * @return          the matching patterns, in order of addition
+     */
+    public List<WildcardPattern> findAll(CharSequence target) {
+        BitSet matched = findMatches(target);
+        List<WildcardPattern> result = new ArrayList<>(matched.cardinality());
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1))
+            result.add(patterns.get(i));
+        return result;
+    }
+
+    private BitSet findMatches(CharSequence target) {
+        BitSet matched = new BitSet(patterns.size());
+        Node node = root;
+        int index = 0;
+        int n = target.length();
+        for (;;) {
+            for (int i = 0; i < node.entryCount; i++) {
+                int patternIndex = node.patternIndices[i];
+                if (!matched.get(patternIndex) && patterns.get(patternIndex).matchesAlternative(
+                        node.alternativeIndices[i], target))
+                    matched.set(patternIndex);
+            }
+            if (index >= n || (node = node.getChild(target.charAt(index++))) == null)
+                return matched;
+        }
+    }
+
+    /**
+     * A node in the prefix trie.  Children are held in parallel arrays, searched linearly
+     * (the number of children of any node is expected to be small).
+     */
+    private static class Node {
+
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int[] patternIndices = new int[0];
+        private int[] alternativeIndices = new int[0];
+        private int entryCount;
+
+        public Node getChild(char ch) {
+            for (int i = 0, n = keys.length; i < n; i++)
+                if (keys[i] == ch)
+                    return children[i];
+            return null;
+        }
+
+        public Node getOrAddChild(char ch) {
+            Node child = getChild(ch);
+            if (child == null) {
+                int n = keys.length;
+                keys = Arrays.copyOf(keys, n + 1);
+                children = Arrays.copyOf(children, n + 1);
+                keys[n] = ch;
+                child = children[n] = new Node();
+            }
+            return child;
+        }
+
+        public void addEntry(int patternIndex, int alternativeIndex) {
+            if (entryCount == patternIndices.length) {
+                int newLength = entryCount == 0 ? 2 : entryCount * 2;
+                patternIndices = Arrays.copyOf(patternIndices, newLength);
+                alternativeIndices = Arrays.copyOf(alternativeIndices, newLength);
+            }
+            patternIndices[entryCount] = patternIndex;
+            alternativeIndices[entryCount++] = alternativeIndex;
+        }
+
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * @(#) TestByteParseText.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ByteParseText}.
+ */
+public class TestByteParseText {
+
+    private static final String header = "HTTP/1.1 200 OK\r\nContent-Length: 1234\r\n" +
+            "X-Hex: 7fFF\r\nX-Name: café\r\n\r\n";
+
+    private static ByteParseText[] allForms(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        byte[] padded = new byte[bytes.length + 6];
+        System.arraycopy(bytes, 0, padded, 3, bytes.length);
+        ByteBuffer heap = ByteBuffer.wrap(padded, 1, bytes.length + 4).slice();
+        heap.position(2);
+        heap.limit(bytes.length + 2);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length + 2);
+        direct.position(2);
+        direct.put(bytes);
+        direct.position(2);
+        return new ByteParseText[] { new ByteParseText(bytes), new ByteParseText(padded, 3,
+                bytes.length + 3), new ByteParseText(heap), new ByteParseText(direct) };
+    }
+
+    @Test
+    public void testParseHTTPHeader() throws IOException {
+        for (ByteParseText bpt : allForms(header)) {
+            assertTrue(bpt.match("HTTP/"));
+            assertTrue(bpt.matchDec());
+            assertEquals(1, bpt.getResultInt());
+            assertTrue(bpt.match('.'));
+            assertTrue(bpt.matchDec());
+            assertTrue(bpt.matchSpaces());
+            assertTrue(bpt.matchDec(3, 3));
+            assertEquals(200, bpt.getResultInt());
+            bpt.skipSpaces();
+            bpt.skipTo("\r\n");
+            assertEquals("OK", bpt.getResultString());
+            assertTrue(bpt.match("\r\n"));
+            assertTrue(bpt.matchIgnoreCase("content-length"));
+            assertTrue(bpt.match(':'));
+            bpt.skipSpaces();
+            assertTrue(bpt.matchDec());
+            assertEquals(1234L, bpt.getResultLong());
+            assertEquals(4, bpt.getResultLength());
+            assertTrue(bpt.match("\r\n"));
+            assertFalse(bpt.match("X-Name"));
+            assertTrue(bpt.match("X-Hex: "));
+            assertTrue(bpt.matchHex());
+            assertEquals(0x7FFF, bpt.getResultHexInt());
+            assertEquals(0x7FFFL, bpt.getResultHexLong());
+            bpt.skipTo('\n').skip(1);
+            assertTrue(bpt.matchName());
+            assertEquals("X", bpt.getResultString());
+            bpt.skipTo(':').skip(1).skipSpaces();
+            bpt.skipTo('\r');
+            assertEquals("café", bpt.getResultString());
+            assertEquals("café", bpt.appendResultTo(new StringBuilder()).toString());
+            bpt.skipToEnd();
+            assertTrue(bpt.isExhausted());
+            bpt.revert();
+            assertTrue(bpt.match("\r\n\r\n"));
+            assertTrue(bpt.isExhausted());
+            bpt.reset();
+            assertEquals(bpt.getTextStart(), bpt.getIndex());
+            assertEquals('H', bpt.getByte());
+        }
+    }
+
+    @Test
+    public void testFailMatchesWithoutMovingIndex() {
+        for (ByteParseText bpt : allForms("abc 99")) {
+            int index = bpt.getIndex();
+            assertFalse(bpt.match('x'));
+            assertFalse(bpt.match("abd"));
+            assertFalse(bpt.matchDec());
+            assertFalse(bpt.matchSpaces());
+            assertEquals(index, bpt.getIndex());
+            assertTrue(bpt.matchRange('a', 'c'));
+            assertTrue(bpt.matchAnyOf("xyzb"));
+            assertTrue(bpt.matchIgnoreCase('C'));
+            bpt.skipToSpace();
+            assertEquals(0, bpt.getResultLength());
+            bpt.skipPast(b -> b == ' ');
+            bpt.skipTo(b -> b == '9');
+            assertEquals(0, bpt.getResultLength());
+            assertTrue(bpt.matchDec(1));
+            assertTrue(bpt.available(1));
+            assertFalse(bpt.available(2));
+            assertThrows(IndexOutOfBoundsException.class, () -> bpt.skip(2));
+            assertTrue(bpt.matchDec());
+            assertTrue(bpt.isExhausted());
+        }
+    }
+
+    @Test
+    public void testRejectInvalidNumbers() {
+        for (ByteParseText bpt : allForms("99999999999 x")) {
+            assertTrue(bpt.matchDec());
+            assertThrows(NumberFormatException.class, bpt::getResultInt);
+            assertEquals(99999999999L, bpt.getResultLong());
+            bpt.skipToEnd();
+            assertThrows(NumberFormatException.class, bpt::getResultInt);
+        }
+    }
+
+    @Test
+    public void testCreateDebugString() {
+        ByteParseText bpt = new ByteParseText("abc".getBytes(StandardCharsets.US_ASCII));
+        bpt.skip(1);
+        assertEquals("[~a^bc]", bpt.toString());
+        bpt.skipTo('c');
+        assertEquals("[a~b^c]", bpt.toString());
+    }
+
+    @Test
+    public void testSkipToHighByte() {
+        for (ByteParseText bpt : allForms("abc\u00E9xyz")) {
+            int origin = bpt.getIndex();
+            bpt.skipTo((char)0xC3);
+            assertEquals(origin + 3, bpt.getIndex());
+            assertTrue(bpt.match((char)0xC3));
+            assertTrue(bpt.match((char)0xA9));
+            assertEquals("\u00E9", bpt.getString(origin + 3, origin + 5));
+        }
+    }
+
+    @Test
+    public void testRejectStringOutsideText() {
+        for (ByteParseText bpt : allForms("abc")) {
+            int origin = bpt.getIndex();
+            assertEquals("abc", bpt.getString(origin, origin + 3));
+            assertThrows(IllegalArgumentException.class, () -> bpt.getString(origin - 1, origin));
+            assertThrows(IllegalArgumentException.class,
+                    () -> bpt.getString(origin, origin + 4));
+            assertThrows(IllegalArgumentException.class,
+                    () -> bpt.getString(origin + 2, origin + 1));
+        }
+    }
+
+}
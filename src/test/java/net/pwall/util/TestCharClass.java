@@ -0,0 +1,115 @@
+/*
+ * @(#) TestCharClass.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link CharClass}.
+ *
+ * @author  Peter Wall
+ */
+public class TestCharClass {
+
+    @Test
+    public void testMatchCharacters() {
+        CharClass cc = CharClass.of(",;:|é—");
+        assertTrue(cc.test(','));
+        assertTrue(cc.test('|'));
+        assertTrue(cc.contains('é'));
+        assertTrue(cc.contains('—'));
+        assertFalse(cc.test('a'));
+        assertFalse(cc.test('–'));
+        assertFalse(cc.test(-1));
+        assertTrue(CharClass.of('a', 'b').test('b'));
+    }
+
+    @Test
+    public void testMatchRanges() {
+        CharClass cc = CharClass.parse("A-Za-z0-9_Α-ΩĀ-ſ");
+        for (char ch = 0; ch < 0x500; ch++) {
+            boolean expected = ch >= 'A' && ch <= 'Z' || ch >= 'a' && ch <= 'z' ||
+                    ch >= '0' && ch <= '9' || ch == '_' || ch >= 0x391 && ch <= 0x3A9 ||
+                    ch >= 0x100 && ch <= 0x17F;
+            assertEquals(expected, cc.contains(ch), Integer.toHexString(ch));
+        }
+        CharClass wide = CharClass.range('ð', 'Đ');
+        assertTrue(wide.contains('ÿ'));
+        assertTrue(wide.contains('Ā'));
+        assertTrue(wide.contains('Đ'));
+        assertFalse(wide.contains('đ'));
+        assertThrows(IllegalArgumentException.class, () -> CharClass.range('z', 'a'));
+    }
+
+    @Test
+    public void testParseSpecialCases() {
+        CharClass cc = CharClass.parse("-a\\-z+-");
+        assertTrue(cc.contains('-'));
+        assertTrue(cc.contains('a'));
+        assertTrue(cc.contains('z'));
+        assertTrue(cc.contains('+'));
+        assertFalse(cc.contains('b'));
+        assertThrows(IllegalArgumentException.class, () -> CharClass.parse("z-a"));
+        assertThrows(IllegalArgumentException.class, () -> CharClass.parse("a\\"));
+    }
+
+    @Test
+    public void testNegateAndCombine() {
+        CharClass digits = CharClass.range('0', '9');
+        CharClass notDigits = digits.negate();
+        assertFalse(notDigits.contains('5'));
+        assertTrue(notDigits.contains('x'));
+        assertTrue(notDigits.contains('一'));
+        CharClass union = digits.union(CharClass.of("一"));
+        assertTrue(union.contains('7'));
+        assertTrue(union.contains('一'));
+        assertFalse(union.contains('丁'));
+        CharClass all = notDigits.union(digits);
+        assertTrue(all.contains('3'));
+        assertTrue(all.contains('￿'));
+        assertFalse(notDigits.negate().contains('一'));
+    }
+
+    @Test
+    public void testWorkWithParseText() {
+        CharClass delimiters = CharClass.of(" ,;=");
+        ParseText pt = new ParseText("key=value; other , last");
+        pt.skipTo(delimiters);
+        assertEquals("key", pt.getResultString());
+        assertTrue(pt.match(delimiters));
+        pt.skipTo(delimiters);
+        assertEquals("value", pt.getResultString());
+        pt.skipPast(delimiters);
+        assertEquals("; ", pt.getResultString());
+        pt.skipTo(delimiters);
+        assertEquals("other", pt.getResultString());
+        pt.skipPast(delimiters).skipTo(delimiters);
+        assertEquals("last", pt.getResultString());
+        assertFalse(pt.match(delimiters));
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * @(#) TestCompiledCharMapper.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link CompiledCharMapper}.
+ *
+ * @author  Peter Wall
+ */
+public class TestCompiledCharMapper {
+
+    private static final CharMapper htmlMapper = cp -> {
+        if (cp == '<')
+            return "&lt;";
+        if (cp == '>')
+            return "&gt;";
+        if (cp == '&')
+            return "&amp;";
+        if (cp > 0x7F)
+            return CharMapper.decimalMapping(cp, "&#", ";");
+        return null;
+    };
+
+    private static final CompiledCharMapper compiledMapper = new CompiledCharMapper(htmlMapper);
+
+    @Test
+    public void test_map() {
+        for (int i = 0; i < 0x2000; i++)
+            assertEquals(htmlMapper.map(i), compiledMapper.map(i));
+    }
+
+    @Test
+    public void test_isEscaped() {
+        assertTrue(compiledMapper.isEscaped('<'));
+        assertTrue(compiledMapper.isEscaped('é'));
+        assertTrue(compiledMapper.isEscaped('—'));
+        assertFalse(compiledMapper.isEscaped('a'));
+        assertFalse(compiledMapper.isEscaped(' '));
+    }
+
+    @Test
+    public void test_escape_unchanged() {
+        String s = "nothing to escape here";
+        assertSame(s, compiledMapper.escape(s));
+        assertSame(s, Strings.escape(s, compiledMapper));
+        assertEquals("", compiledMapper.escape(""));
+    }
+
+    @Test
+    public void test_escape() {
+        assertEquals("a &lt;b&gt; &amp; c", compiledMapper.escape("a <b> & c"));
+        assertEquals("&lt;&gt;", compiledMapper.escape("<>"));
+        assertEquals("caf&#233;", compiledMapper.escape("café"));
+        assertEquals("x&#8212;y", Strings.escape("x—y", compiledMapper));
+        assertEquals("a &lt;b&gt;", Strings.escape(new StringBuilder("a <b>"), compiledMapper)
+                .toString());
+    }
+
+    @Test
+    public void test_escape_matches_uncompiled() {
+        String s = "<html>© 2020 & été 中文</html>";
+        assertEquals(Strings.escape(s, htmlMapper), Strings.escape(s, compiledMapper));
+    }
+
+    @Test
+    public void test_appendEscaped() throws IOException {
+        StringWriter sw = new StringWriter();
+        Strings.appendEscaped(sw, "0123<5>789", 2, 8, compiledMapper);
+        assertEquals("23&lt;5&gt;7", sw.toString());
+        sw = new StringWriter();
+        Strings.appendEscaped(sw, "0123<5>789", 2, 8, htmlMapper);
+        assertEquals("23&lt;5&gt;7", sw.toString());
+    }
+
+    @Test
+    public void test_Java_quote() {
+        assertEquals("\"abc\"", Java.quote("abc"));
+        assertEquals("\"a\\\"b\\\\c\\n\\u00E9\"", Java.quote("a\"b\\c\né"));
+        assertEquals("'\\''", Java.quoteCharacter('\''));
+    }
+
+}
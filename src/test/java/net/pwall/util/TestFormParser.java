@@ -0,0 +1,113 @@
+/*
+ * @(#) TestFormParser.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link FormParser}.
+ *
+ * @author  Peter Wall
+ */
+public class TestFormParser {
+
+    @Test
+    public void test_parseToMap() {
+        ListMap<String, String> map = new FormParser().parse("a=1&b=hello+world&c=%E2%82%AC&&d&e=");
+        assertEquals(5, map.size());
+        assertEquals("1", map.get("a"));
+        assertEquals("hello world", map.get("b"));
+        assertEquals("€", map.get("c"));
+        assertTrue(map.containsKey("d"));
+        assertNull(map.get("d"));
+        assertEquals("", map.get("e"));
+        assertEquals(0, new FormParser().parse("").size());
+    }
+
+    @Test
+    public void test_parseHandler() {
+        List<String> names = new ArrayList<>();
+        List<CharSequence> raw = new ArrayList<>();
+        new FormParser().parse("x%20y=a%2Bb&id=27", field -> {
+            names.add(field.getName());
+            raw.add(field.getRawValue().toString());
+            if (field.nameEquals("id"))
+                assertEquals("27", field.getValue());
+        });
+        assertEquals(2, names.size());
+        assertEquals("x y", names.get(0));
+        assertEquals("a%2Bb", raw.get(0));
+        assertEquals("id", names.get(1));
+    }
+
+    @Test
+    public void test_nameEquals() {
+        new FormParser().parse("ab=1", field -> {
+            assertTrue(field.nameEquals("ab"));
+            assertFalse(field.nameEquals("a"));
+            assertFalse(field.nameEquals("abc"));
+            assertTrue(field.hasValue());
+        });
+        new FormParser().parse("a%62", field -> {
+            assertTrue(field.nameEquals("ab"));
+            assertFalse(field.hasValue());
+            assertNull(field.getRawValue());
+        });
+    }
+
+    @Test
+    public void test_parseReader() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            if (i > 0)
+                sb.append('&');
+            sb.append("field").append(i).append('=').append("value+").append(i);
+        }
+        ListMap<String, String> map = new FormParser(0, 32).parse(new StringReader(sb.toString()));
+        assertEquals(2000, map.size());
+        assertEquals("value 0", map.get("field0"));
+        assertEquals("value 1999", map.get("field1999"));
+    }
+
+    @Test
+    public void test_limits() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new FormParser(2, 0).parse("a=1&b=2&c=3"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FormParser(0, 4).parse("a=1&bcde=2"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FormParser(0, 4).parse(new StringReader("a=1&bcdefghijkl")));
+        assertThrows(IllegalArgumentException.class, () -> new FormParser(-1, 0));
+        assertEquals(2, new FormParser(2, 3).parse("a=1&b=2").size());
+    }
+
+}
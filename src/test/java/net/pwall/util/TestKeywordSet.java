@@ -0,0 +1,109 @@
+/*
+ * @(#) TestKeywordSet.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link KeywordSet}.
+ *
+ * @author  Peter Wall
+ */
+public class TestKeywordSet {
+
+    private static final String[] keywords = { "in", "int", "integer", "if", "interface", "i",
+            "for", "format", "int" };
+
+    @Test
+    public void testSelectLongestMatch() {
+        KeywordSet ks = new KeywordSet(keywords);
+        assertEquals(9, ks.size());
+        assertEquals(1, ks.match("int x", 0, 5));
+        assertEquals(2, ks.match("integers", 0, 8));
+        assertEquals(1, ks.match("integers", 0, 5));
+        assertEquals(1, ks.match("inter", 0, 5));
+        assertEquals(0, ks.match("inx", 0, 3));
+        assertEquals(5, ks.match("ix", 0, 2));
+        assertEquals(6, ks.match("forma", 0, 5));
+        assertEquals(7, ks.match("x format", 2, 8));
+        assertEquals(-1, ks.match("while", 0, 5));
+        assertEquals(-1, ks.match("", 0, 0));
+        assertEquals("integer", ks.getKeyword(2));
+        assertFalse(ks.isIgnoreCase());
+    }
+
+    @Test
+    public void testIgnoreCase() {
+        KeywordSet ks = new KeywordSet(true, "Select", "FROM", "where", "selected");
+        assertTrue(ks.isIgnoreCase());
+        assertEquals(0, ks.match("SELECT *", 0, 8));
+        assertEquals(3, ks.match("SeLeCtEd", 0, 8));
+        assertEquals(1, ks.match("from", 0, 4));
+        assertEquals(-1, new KeywordSet("FROM").match("from", 0, 4));
+    }
+
+    @Test
+    public void testMatchInParseText() {
+        KeywordSet ks = new KeywordSet(Arrays.asList(keywords));
+        ParseText pt = new ParseText("interface integer if x");
+        assertEquals(4, pt.matchKeyword(ks));
+        assertEquals("interface", pt.getResultString());
+        pt.skipSpaces();
+        assertTrue(pt.match(ks));
+        assertEquals("integer", pt.getResultString());
+        pt.skipSpaces();
+        assertEquals(3, pt.matchKeyword(ks));
+        pt.skipSpaces();
+        int index = pt.getIndex();
+        assertEquals(-1, pt.matchKeyword(ks));
+        assertEquals(index, pt.getIndex());
+        assertFalse(pt.match(ks));
+    }
+
+    @Test
+    public void testMatchSameAsLongestOfMatchAnyOf() {
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < 500; i++)
+            list.add("kw" + Integer.toString(i * 7, 36));
+        KeywordSet ks = new KeywordSet(list);
+        for (String s : new String[] { "kw1", "kw1z", "kw9y", "kwx", "kw", "kw3h1" }) {
+            int expected = -1;
+            for (int i = 0; i < list.size(); i++) {
+                String keyword = list.get(i);
+                if (s.startsWith(keyword) && (expected < 0 ||
+                        keyword.length() > list.get(expected).length()))
+                    expected = i;
+            }
+            assertEquals(expected, ks.match(s, 0, s.length()), s);
+        }
+    }
+
+}
@@ -63,6 +63,82 @@ public class TestParseText {
         assertThrows(NullPointerException.class, () -> new ParseText(null));
     }
 
+    @Test
+    public void testResultBoundsAndCharArray() {
+        ParseText[] forms = { new ParseText("  token rest"),
+                new ParseText(new StringBuilder("  token rest")),
+                new ParseText("").setChars("  token rest".toCharArray()) };
+        StringCache cache = new StringCache();
+        String previous = null;
+        for (ParseText pt : forms) {
+            pt.skipSpaces();
+            assertTrue(pt.matchName());
+            assertEquals(2, pt.getStart());
+            assertEquals(7, pt.getResultEnd());
+            assertEquals(Strings.bounds(2, 7), pt.getResultBounds());
+            char[] array = new char[8];
+            array[0] = '<';
+            int offset = pt.appendResultTo(array, 1);
+            assertEquals(6, offset);
+            assertEquals("<token", new String(array, 0, offset));
+            assertThrows(IndexOutOfBoundsException.class, () -> pt.appendResultTo(array, 4));
+            String result = pt.getResultString(cache);
+            assertEquals("token", result);
+            if (previous != null)
+                assertSame(previous, result);
+            previous = result;
+        }
+    }
+
+    @Test
+    public void testSetChars() {
+        char[] array = "  alpha 123 beta".toCharArray();
+        ParseText pt = new ParseText("").setChars(array);
+        assertEquals(16, pt.length());
+        assertEquals("  alpha 123 beta", pt.getText().toString());
+        assertTrue(pt.matchSpaces());
+        assertTrue(pt.matchName());
+        assertEquals("alpha", pt.getResultString());
+        assertEquals("alpha", pt.appendResultTo(new StringBuilder()).toString());
+        pt.skipSpaces();
+        assertTrue(pt.matchDec());
+        assertEquals(123, pt.getResultInt());
+        assertEquals(123L, pt.getResultLong());
+        pt.skipSpaces();
+        assertTrue(pt.match("beta"));
+        assertTrue(pt.isExhausted());
+        pt.setChars(array, 8);
+        assertEquals(8, pt.getIndex());
+        assertEquals('1', pt.getChar());
+        assertThrows(NullPointerException.class, () -> pt.setChars(null));
+        assertThrows(StringIndexOutOfBoundsException.class, () -> pt.setChars(array, 17));
+    }
+
+    @Test
+    public void testSameResultsForAllTextForms() {
+        String s = "name1 = 0x7F, other_name=42;";
+        ParseText[] forms = { new ParseText(s), new ParseText(new StringBuilder(s)),
+                new ParseText("").setChars(s.toCharArray()) };
+        for (ParseText pt : forms) {
+            assertTrue(pt.matchName());
+            assertEquals("name1", pt.getResultString());
+            pt.skipSpaces();
+            assertTrue(pt.match('='));
+            pt.skipSpaces();
+            assertTrue(pt.match("0x"));
+            assertTrue(pt.matchHex());
+            assertEquals(0x7F, pt.getResultHexInt());
+            pt.skipTo('o');
+            assertTrue(pt.matchName());
+            assertEquals("other_name", pt.getResultString());
+            assertTrue(pt.match('='));
+            assertTrue(pt.matchDec());
+            assertEquals(42, pt.getResultInt());
+            assertEquals("[name1 = 0x7F, other_name=~42^;]", pt.toString());
+            assertEquals(forms[0], pt);
+        }
+    }
+
     @Test
     public void testSetText() {
         ParseText pt = new ParseText(str1);
@@ -205,6 +281,26 @@ public class TestParseText {
         });
     }
 
+    @Test
+    public void testUseFastConversion() {
+        ParseText standard = new ParseText("x1234567890") {
+            @Override
+            protected boolean useFastConversion() {
+                return true;
+            }
+        };
+        assertEquals(1234567890, standard.getInt(1, 11));
+        assertEquals(1234567890L, standard.getLong(1, 11));
+        ParseText fullWidth = new ParseText("\uFF11\uFF12\uFF13") {
+            @Override
+            public int convertDecDigit(char ch) {
+                return ch >= '\uFF10' && ch <= '\uFF19' ? ch - '\uFF10' : super.convertDecDigit(ch);
+            }
+        };
+        assertEquals(123, fullWidth.getInt(0, 3));
+        assertEquals(123L, fullWidth.getLong(0, 3));
+    }
+
     @Test
     public void testGetResultInt() {
         ParseText pt = new ParseText(str2);
@@ -0,0 +1,250 @@
+/*
+ * @(#) TestReaderParseText.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link ReaderParseText}.
+ */
+public class TestReaderParseText {
+
+    /**
+     * A {@link Reader} generating a large number of lines of the form "key123 = 0x7B;\n",
+     * without holding them in memory.
+     */
+    private static class LineReader extends Reader {
+
+        private final int lines;
+        private int line;
+        private String current = "";
+        private int offset;
+
+        public LineReader(int lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) {
+            if (offset >= current.length()) {
+                if (line >= lines)
+                    return -1;
+                current = "key" + line + " = 0x" + Integer.toHexString(line) + ";\n";
+                line++;
+                offset = 0;
+            }
+            int n = Math.min(len, current.length() - offset);
+            current.getChars(offset, offset + n, cbuf, off);
+            offset += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+
+    }
+
+    @Test
+    public void testParseLargeInputInSmallBuffer() throws IOException {
+        int lines = 20000;
+        try (ReaderParseText rpt = new ReaderParseText(new LineReader(lines), 16, 64)) {
+            int count = 0;
+            while (!rpt.isExhausted()) {
+                assertTrue(rpt.match("key"));
+                assertTrue(rpt.matchDec());
+                assertEquals(count, rpt.getResultInt());
+                rpt.skipSpaces();
+                assertTrue(rpt.match('='));
+                rpt.skipSpaces();
+                assertTrue(rpt.matchIgnoreCase("0X"));
+                assertTrue(rpt.matchHex());
+                assertEquals(count, rpt.getResultHexInt());
+                assertTrue(rpt.match(";\n"));
+                count++;
+            }
+            assertEquals(lines, count);
+            assertTrue(rpt.getRetainedStart() > 0);
+        }
+    }
+
+    @Test
+    public void testRevertAndGoBack() throws IOException {
+        ReaderParseText rpt = new ReaderParseText(new StringReader("alpha beta, gamma"), 4, 32);
+        assertTrue(rpt.matchName());
+        assertEquals("alpha", rpt.getResultString());
+        assertEquals(5, rpt.getResultLength());
+        rpt.revert();
+        assertEquals(0, rpt.getIndex());
+        assertTrue(rpt.match("alpha"));
+        rpt.back(2);
+        assertTrue(rpt.match("ha "));
+        assertFalse(rpt.match("gamma"));
+        rpt.skipTo(',');
+        assertEquals("beta", rpt.getResultString());
+        assertEquals("beta", rpt.appendResultTo(new StringBuilder()).toString());
+        rpt.skip(1).skipSpaces();
+        rpt.skipToSpace();
+        assertEquals("gamma", rpt.getResultString());
+        assertTrue(rpt.isExhausted());
+        assertFalse(rpt.available(1));
+        assertThrows(IndexOutOfBoundsException.class, rpt::getChar);
+    }
+
+    @Test
+    public void testSkipToSequence() throws IOException {
+        ReaderParseText rpt = new ReaderParseText(new StringReader("a-b--c---d"), 2, 16);
+        rpt.skipTo("--");
+        assertEquals("a-b", rpt.getResultString());
+        assertTrue(rpt.match("--"));
+        rpt.skipTo("---");
+        assertEquals("c", rpt.getResultString());
+        rpt.skip(3);
+        rpt.skipTo("--");
+        assertEquals("d", rpt.getResultString());
+        assertEquals(10, rpt.getIndex());
+        assertTrue(rpt.isExhausted());
+    }
+
+    @Test
+    public void testDiscardConsumedData() throws IOException {
+        ReaderParseText rpt = new ReaderParseText(new LineReader(1000), 8, 32);
+        for (int i = 0; i < 1000; i++) {
+            rpt.skipTo('\n');
+            assertTrue(rpt.match('\n'));
+        }
+        assertTrue(rpt.isExhausted());
+        assertThrows(IndexOutOfBoundsException.class, () -> rpt.back(100));
+    }
+
+    @Test
+    public void testSkipBeyondMaximumBufferSize() throws IOException {
+        ReaderParseText rpt = new ReaderParseText(new LineReader(1000), 8, 32);
+        rpt.skipTo("key999 ");
+        assertTrue(rpt.match("key999"));
+        assertEquals(999, Integer.parseInt(rpt.getResultString().substring(3)));
+        rpt.revert();
+        rpt.skip(1);
+        rpt.skipTo('#');
+        assertTrue(rpt.isExhausted());
+        assertTrue(rpt.getResultLength() <= 32);
+        ReaderParseText rpt2 = new ReaderParseText(new LineReader(1000), 8, 32);
+        rpt2.skip(10000);
+        assertEquals(10000, rpt2.getIndex());
+        rpt2.skipTo('\n');
+        assertTrue(rpt2.match("\nkey"));
+        rpt2.skipPast(c -> c != '=');
+        assertTrue(rpt2.match('='));
+        rpt2.skipToSpace();
+        rpt2.skipSpaces();
+        assertTrue(rpt2.match("0x"));
+    }
+
+    @Test
+    public void testThrowWhenBufferExceeded() throws IOException {
+        ReaderParseText rpt = new ReaderParseText(new StringReader("0123456789012345678901"), 4,
+                16);
+        assertThrows(IllegalStateException.class, rpt::matchDec);
+    }
+
+    @Test
+    public void testRejectInvalidSizes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReaderParseText(new StringReader(""), 0, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReaderParseText(new StringReader(""), 10, 5));
+        assertThrows(NullPointerException.class, () -> new ReaderParseText(null));
+    }
+
+    @Test
+    public void testMatchAnyOfAndSkipToAnyOf() throws IOException {
+        ReaderParseText rpt = new ReaderParseText(new StringReader("abc;def,ghi"));
+        assertFalse(rpt.matchAnyOf('x', 'y'));
+        assertTrue(rpt.matchAnyOf('x', 'a'));
+        assertEquals("a", rpt.getResultString());
+        rpt.skipToAnyOf(',', ';');
+        assertEquals("bc", rpt.getResultString());
+        assertTrue(rpt.match(';'));
+        rpt.skipToAnyOf(",");
+        assertEquals("def", rpt.getResultString());
+        rpt.skipToAnyOf('!');
+        assertTrue(rpt.isExhausted());
+        assertThrows(IllegalArgumentException.class, () -> rpt.matchAnyOf());
+        assertThrows(IllegalArgumentException.class, () -> rpt.skipToAnyOf(""));
+    }
+
+    @Test
+    public void testMatchNameTarget() throws IOException {
+        ReaderParseText rpt = new ReaderParseText(new StringReader("nullable null)"));
+        assertFalse(rpt.matchName("null"));
+        assertTrue(rpt.matchName("nullable"));
+        rpt.skipSpaces();
+        assertTrue(rpt.matchName("null"));
+        assertTrue(rpt.match(')'));
+    }
+
+    @Test
+    public void testCodePoints() throws IOException {
+        ReaderParseText rpt = new ReaderParseText(new StringReader("\uD83D\uDE00a\uD83D\uDE00"));
+        assertEquals(0x1F600, rpt.getCodePoint());
+        assertEquals('a', rpt.getCodePoint());
+        assertFalse(rpt.match(0x1F601));
+        assertTrue(rpt.match(0x1F600));
+        assertTrue(rpt.isExhausted());
+        assertThrows(IndexOutOfBoundsException.class, rpt::getCodePoint);
+    }
+
+    @Test
+    public void testOverriddenDigitDefinition() throws IOException {
+        ReaderParseText rpt = new ReaderParseText(new StringReader("\u0661\u0662\u0663")) {
+            @Override
+            public boolean isDigit(char ch) {
+                return ch >= '\u0660' && ch <= '\u0669';
+            }
+            @Override
+            public int convertDecDigit(char ch) {
+                return ch - '\u0660';
+            }
+        };
+        assertTrue(rpt.matchDec());
+        assertEquals(123, rpt.getResultInt());
+        assertEquals(123L, rpt.getResultLong());
+    }
+
+    @Test
+    public void testResultOverflow() throws IOException {
+        ReaderParseText rpt = new ReaderParseText(new StringReader("2147483648")) {};
+        assertTrue(rpt.matchDec());
+        assertThrows(NumberFormatException.class, rpt::getResultInt);
+        assertEquals(2147483648L, rpt.getResultLong());
+    }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * @(#) TestSplitCursor.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link SplitCursor}.
+ *
+ * @author  Peter Wall
+ */
+public class TestSplitCursor {
+
+    private static final String[] inputs = { "", ",", "a", "a,b,c", " a , b ,, c ", ",a,", "  ,  ",
+            "abc,,def, ghi ,", ",,," };
+
+    @Test
+    public void test_sameAsSplit() {
+        IntPredicate[] spaceTests = { null, Character::isWhitespace };
+        for (String input : inputs) {
+            for (IntPredicate spaceTest : spaceTests) {
+                for (boolean skipEmpty : new boolean[] { false, true }) {
+                    SplitCursor cursor = new SplitCursor(',', skipEmpty, spaceTest);
+                    assertArrayEquals(Strings.split(input, ',', skipEmpty, spaceTest),
+                            collect(cursor.reset(input)), input);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_portion() {
+        SplitCursor cursor = new SplitCursor(',', false, null);
+        String s = "xx,a,b,yy";
+        assertArrayEquals(new String[] { "", "a", "b", "" }, collect(cursor.reset(s, 2, 7)));
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.reset(s, 5, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> cursor.reset(s, 0, 10));
+    }
+
+    @Test
+    public void test_fields() {
+        SplitCursor cursor = new SplitCursor('|');
+        StringBuilder sb = new StringBuilder("first | second|third ");
+        cursor.reset(sb);
+        assertTrue(cursor.next());
+        assertEquals(0, cursor.getStart());
+        assertEquals(5, cursor.getEnd());
+        assertTrue(cursor.fieldEquals("first"));
+        assertTrue(cursor.next());
+        assertEquals(6, cursor.getLength());
+        assertFalse(cursor.fieldEquals("secon"));
+        assertTrue(cursor.next());
+        assertEquals("third", cursor.getSequence().toString());
+        assertSame(sb, cursor.getText());
+        assertFalse(cursor.next());
+        assertFalse(cursor.next());
+    }
+
+    private static String[] collect(SplitCursor cursor) {
+        List<String> list = new ArrayList<>();
+        while (cursor.next())
+            list.add(cursor.getString());
+        return list.toArray(new String[0]);
+    }
+
+}
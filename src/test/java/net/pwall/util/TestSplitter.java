@@ -0,0 +1,126 @@
+/*
+ * @(#) TestSplitter.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link Splitter}.
+ *
+ * @author  Peter Wall
+ */
+public class TestSplitter {
+
+    @Test
+    public void test_anyOf() {
+        Splitter splitter = Splitter.anyOf(",; ");
+        assertArrayEquals(new String[] { "a", "b", "c", "d" }, splitter.split(" a ; b,,c d "));
+        assertArrayEquals(new String[0], splitter.split(" , "));
+        splitter = Splitter.anyOf(",;", false, null);
+        assertArrayEquals(new String[] { "a", "b", "", "c " }, splitter.split("a;b,,c "));
+        assertEquals(Arrays.asList("", ""), splitter.splitToList(";"));
+        assertTrue(splitter.isSeparator(';'));
+        assertFalse(splitter.isSeparator('a'));
+        assertThrows(IllegalArgumentException.class, () -> Splitter.anyOf(""));
+    }
+
+    @Test
+    public void test_sameAsSplitChar() {
+        String[] inputs = { "", ",", "a,b,c", " a , b ,, c ", ",a,", "abc,,def, ghi ," };
+        for (String input : inputs) {
+            assertArrayEquals(Strings.split(input, ','), Splitter.anyOf(",").split(input));
+            assertArrayEquals(Strings.split(input, ',', false, null),
+                    Splitter.anyOf(",", false, null).split(input));
+        }
+    }
+
+    @Test
+    public void test_onString() {
+        String[] inputs = { "", "::", "a::b", "a:::b", "::a::b::", "abc", "a:b::c:::::d",
+                "ababab" };
+        String[] separators = { "::", "ab", "aba", "b" };
+        for (String separator : separators) {
+            Splitter splitter = Splitter.onString(separator);
+            for (String input : inputs)
+                assertArrayEquals(Strings.split(input, separator), splitter.split(input),
+                        input + " / " + separator);
+        }
+        Splitter splitter = Splitter.onString("ŁĀ", true, Character::isWhitespace);
+        assertArrayEquals(new String[] { "x", "y" }, splitter.split(" x ŁĀŁĀ y"));
+        assertThrows(IllegalArgumentException.class, () -> Splitter.onString(""));
+    }
+
+    @Test
+    public void test_cursor() {
+        SplitCursor cursor = Splitter.onString(" | ").cursor();
+        StringBuilder sb = new StringBuilder("one | two | three");
+        cursor.reset(sb);
+        assertTrue(cursor.next());
+        assertTrue(cursor.next());
+        assertEquals(6, cursor.getStart());
+        assertEquals(9, cursor.getEnd());
+        assertTrue(cursor.next());
+        assertTrue(cursor.fieldEquals("three"));
+        assertFalse(cursor.next());
+        cursor.reset("x | y | z", 0, 5);
+        assertTrue(cursor.next());
+        assertEquals("x", cursor.getString());
+        assertTrue(cursor.next());
+        assertEquals("y", cursor.getString());
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    public void test_parallelSplit() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++)
+            sb.append(i % 11 == 0 ? "" : "item").append(i).append(i % 13 == 0 ? ",," : ", ");
+        String s = sb.toString();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Splitter[] splitters = { Splitter.anyOf(","), Splitter.anyOf(", ", false, null),
+                    Splitter.onString(", "), Splitter.onString(",,") };
+            for (Splitter splitter : splitters) {
+                String[] expected = splitter.split(s);
+                assertEquals(Arrays.asList(expected), splitter.parallelSplit(s, pool, 1000));
+                assertEquals(Arrays.asList(expected), splitter.parallelSplit(s, pool, 7));
+                assertEquals(Arrays.asList(expected), splitter.parallelSplit(s));
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+        assertEquals(Arrays.asList("", ""), Splitter.anyOf(",", false, null).parallelSplit(",",
+                ForkJoinPool.commonPool(), 1));
+        assertThrows(IllegalArgumentException.class, () -> Splitter.anyOf(",").parallelSplit(s,
+                ForkJoinPool.commonPool(), 0));
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * @(#) TestStringCache.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link StringCache}.
+ *
+ * @author  Peter Wall
+ */
+public class TestStringCache {
+
+    @Test
+    public void testReturnCachedString() {
+        StringCache cache = new StringCache();
+        String text = "Content-Type: text/plain\r\nContent-Type: text/html";
+        String first = cache.get(text, 0, 12);
+        assertEquals("Content-Type", first);
+        assertSame(first, cache.get(text, 26, 38));
+        assertSame(first, cache.get(new StringBuilder(text), 26, 38));
+        assertSame(first, cache.get(text.toCharArray(), 26, 38));
+        assertSame(first, cache.get(new String("Content-Type")));
+        assertEquals("text", cache.get(text, 14, 18));
+    }
+
+    @Test
+    public void testNotConfuseDifferentStrings() {
+        StringCache cache = new StringCache(1, 64);
+        assertEquals("abc", cache.get("xabcx", 1, 4));
+        assertEquals("abd", cache.get("abd", 0, 3));
+        assertEquals("Aa", cache.get("Aa", 0, 2));
+        assertEquals("BB", cache.get("BB", 0, 2)); // same hash code as "Aa"
+        assertEquals("", cache.get("xyz", 1, 1));
+    }
+
+    @Test
+    public void testNotCacheLongStrings() {
+        StringCache cache = new StringCache(16, 4);
+        String s1 = cache.get("xabcdefgh", 1, 9);
+        assertEquals("abcdefgh", s1);
+        assertNotSame(s1, cache.get("xabcdefgh", 1, 9));
+        String s2 = cache.get("xabcd", 1, 5);
+        assertSame(s2, cache.get("abcd".toCharArray(), 0, 4));
+        cache.clear();
+        assertNotSame(s2, cache.get("xabcd", 1, 5));
+    }
+
+    @Test
+    public void testRejectInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new StringCache(0, 10));
+    }
+
+}
@@ -25,11 +25,20 @@
 
 package net.pwall.util;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
@@ -237,6 +246,59 @@ public class TestStrings {
         assertEquals("--- abcdef ", Strings.trimTrailing(sb1, ch -> ch == '-').toString());
     }
 
+    @Test
+    public void test_trimBounds() {
+        String s = "  abc def  ";
+        long b = Strings.trimBounds(s);
+        assertEquals(2, Strings.boundsStart(b));
+        assertEquals(9, Strings.boundsEnd(b));
+        b = Strings.trimBounds(s, 5, 7, Character::isWhitespace);
+        assertEquals(6, Strings.boundsStart(b));
+        assertEquals(7, Strings.boundsEnd(b));
+        b = Strings.trimBounds("    ");
+        assertEquals(Strings.boundsStart(b), Strings.boundsEnd(b));
+        assertEquals(Strings.bounds(0, 3), Strings.trimBounds("abc"));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> Strings.trimBounds(s, 5, 20, Character::isWhitespace));
+        long[] array = { Strings.bounds(0, 5), Strings.bounds(5, 11), Strings.bounds(3, 3) };
+        Strings.trimBounds(s, array, 3, Character::isWhitespace);
+        assertArrayEquals(new long[] { Strings.bounds(2, 5), Strings.bounds(6, 9),
+                Strings.bounds(3, 3) }, array);
+    }
+
+    @Test
+    public void test_trimAll() {
+        String abc = "abc";
+        String[] fields = { " a ", abc, "   ", "", "b  " };
+        assertSame(fields, Strings.trimAll(fields));
+        assertArrayEquals(new String[] { "a", "abc", "", "", "b" }, fields);
+        assertSame(abc, fields[1]);
+        assertArrayEquals(new String[] { "b", "" }, Strings.trimAll(new String[] { "xbx", "xx" },
+                ch -> ch == 'x'));
+    }
+
+    @Test
+    public void test_MutableSubSequence() {
+        MutableSubSequence view = new MutableSubSequence();
+        assertEquals(0, view.length());
+        StringBuilder sb = new StringBuilder(" alpha , beta ");
+        view.set(sb, 0, 7).trim();
+        assertEquals("alpha", view.toString());
+        assertTrue(view.contentEquals("alpha"));
+        assertEquals('l', view.charAt(1));
+        assertEquals("ph", view.subSequence(2, 4).toString());
+        assertEquals(Strings.bounds(1, 6), view.getBounds());
+        view.setBounds(Strings.bounds(8, 14)).trim();
+        assertEquals("beta", view.toString());
+        assertSame(sb, view.getSequence());
+        assertEquals(9, view.getStart());
+        assertEquals(13, view.getEnd());
+        view.set("xyz").trim(ch -> ch == 'x');
+        assertEquals("yz", view.toString());
+        assertThrows(StringIndexOutOfBoundsException.class, () -> view.charAt(2));
+        assertThrows(IllegalArgumentException.class, () -> view.set("abc", 2, 1));
+    }
+
     @Test
     public void test_split_S_S() {
         String s1 = "the quick brown fox jumps over the lazy dog";
@@ -493,4 +555,455 @@ public class TestStrings {
                         Character::isWhitespace));
     }
 
+    @Test
+    public void test_escapeUTF8() {
+        assertArrayEquals(new byte[] { 'a', 'b', 'c' },
+                Strings.escapeUTF8("abc", Java.stringMapper));
+        assertArrayEquals(Strings.toUTF8("a\\\"b\\nc"),
+                Strings.escapeUTF8("a\"b\nc", Java.stringMapper));
+        String s = "caf\u00E9 \uD83D\uDE02";
+        assertArrayEquals(Strings.toUTF8(s), Strings.escapeUTF8(s, cp -> null));
+        assertArrayEquals(Strings.toUTF8(Strings.escapeUTF16(s, Java.stringMapper)),
+                Strings.escapeUTF8(s, Java.stringMapper));
+        assertThrows(IllegalArgumentException.class,
+                () -> Strings.escapeUTF8("\uD83Dx", cp -> null));
+    }
+
+    @Test
+    public void test_writeEscapedUTF8() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 3000; i++)
+            sb.append(i % 7 == 0 ? "<\uD83D\uDE02>" : "abc\u00E9");
+        String s = sb.toString();
+        CharMapper mapper = cp -> cp == '<' ? "&lt;" : cp == '>' ? "&gt;" : null;
+        byte[] expected = Strings.toUTF8(Strings.escapeUTF16(s, mapper));
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Strings.writeEscapedUTF8(baos, s, mapper);
+        assertArrayEquals(expected, baos.toByteArray());
+        ByteBuffer byteBuffer = ByteBuffer.allocate(expected.length);
+        Strings.putEscapedUTF8(byteBuffer, s, mapper);
+        assertFalse(byteBuffer.hasRemaining());
+        assertArrayEquals(expected, byteBuffer.array());
+        CharMapper compiled = new CompiledCharMapper(mapper);
+        baos.reset();
+        Strings.writeEscapedUTF8(baos, s, compiled);
+        assertArrayEquals(expected, baos.toByteArray());
+    }
+
+    @Test
+    public void test_unescapeTriggers() {
+        String s = "abc";
+        assertSame(s, Strings.unescape(s, URI.charUnmapper));
+        assertEquals("a b/c", Strings.unescape("a+b%2Fc", URI.charUnmapper));
+        assertEquals("a b/c",
+                Strings.unescape(new StringBuilder("a+b%2Fc"), URI.charUnmapper).toString());
+        CharUnmapper unmapper = new CharUnmapper() {
+            @Override
+            public boolean isEscape(CharSequence s, int offset) {
+                return s.charAt(offset) == '\\' && offset + 1 < s.length() &&
+                        s.charAt(offset + 1) == 'n';
+            }
+            @Override
+            public int unmap(StringBuilder sb, CharSequence s, int offset) {
+                sb.append('\n');
+                return 2;
+            }
+            @Override
+            public String getTriggerChars() {
+                return "\\";
+            }
+        };
+        s = "a\\b";
+        assertSame(s, Strings.unescape(s, unmapper));
+        assertEquals("a\\b\nc\n", Strings.unescape("a\\b\\nc\\n", unmapper));
+        assertEquals("a\\b\nc",
+                Strings.unescape(new StringBuilder("a\\b\\nc"), unmapper).toString());
+    }
+
+    @Test
+    public void test_joinPresized() {
+        List<String> list = Arrays.asList("abc", "de", "", "f");
+        assertEquals("abcdef", Strings.join(list));
+        assertEquals("abc,de,,f", Strings.join(list, ','));
+        assertEquals("abc, de, , f", Strings.join(list, ", "));
+        List<Object> mixed = Arrays.asList("a", 1, null, new StringBuilder("b"));
+        assertEquals("a|1|null|b", Strings.join(mixed, '|'));
+        assertEquals("", Strings.join(Collections.emptyList(), ", "));
+        assertEquals("x-y", Strings.join(new CharSequence[] { "x", new StringBuilder("y") }, '-'));
+    }
+
+    @Test
+    public void test_joinTo() throws IOException {
+        StringWriter sw = new StringWriter();
+        assertSame(sw, Strings.joinTo(sw, Arrays.asList("a", 2, new StringBuilder("c")), ", "));
+        assertEquals("a, 2, c", sw.toString());
+        StringBuilder sb = new StringBuilder("[");
+        Strings.joinTo(sb, new Integer[] { 1, 2, 3 }, "").append(']');
+        assertEquals("[123]", sb.toString());
+        assertEquals("",
+                Strings.joinTo(new StringBuilder(), Collections.emptyList(), ",").toString());
+    }
+
+    @Test
+    public void test_joiningTo() {
+        StringWriter sw = Stream.of("a", "b", "c").collect(
+                Strings.joiningTo(new StringWriter(), "; "));
+        assertEquals("a; b; c", sw.toString());
+        assertEquals("", Stream.<String>empty().collect(
+                Strings.joiningTo(new StringBuilder(), ",")).toString());
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            list.add(String.valueOf(i));
+        StringBuilder sb = list.parallelStream().collect(
+                Strings.joiningTo(new StringBuilder(), ","));
+        assertEquals(String.join(",", list), sb.toString());
+        for (int i = 0; i < 20; i++) {
+            StringBuilder prefixed = list.parallelStream().collect(
+                    Strings.joiningTo(new StringBuilder("list: "), ","));
+            assertEquals("list: " + String.join(",", list), prefixed.toString());
+        }
+    }
+
+    @Test
+    public void test_joiningToAppendsDirectly() {
+        List<String> calls = new ArrayList<>();
+        Appendable a = new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) {
+                calls.add(csq.toString());
+                return this;
+            }
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) {
+                return append(csq.subSequence(start, end));
+            }
+            @Override
+            public Appendable append(char c) {
+                return append(String.valueOf(c));
+            }
+        };
+        assertSame(a, Stream.of("a", "b", "c").collect(Strings.joiningTo(a, "; ")));
+        assertEquals(Arrays.asList("a", "; ", "b", "; ", "c"), calls);
+    }
+
+    @Test
+    public void test_joinCollection() {
+        List<Object> list = new ArrayList<>();
+        assertEquals("", Strings.join(list, ", "));
+        list.add("abc");
+        list.add(123);
+        list.add(new StringBuilder("xyz"));
+        assertEquals("abc123xyz", Strings.join(list));
+        assertEquals("abc|123|xyz", Strings.join(list, '|'));
+        assertEquals("abc, 123, xyz", Strings.join(list, ", "));
+    }
+
+    @Test
+    public void test_formatInt() {
+        int[] values = { 0, 1, 9, 10, 99, 100, 12345, 999999999, 1000000000, Integer.MAX_VALUE, -1,
+                -10, -123456, Integer.MIN_VALUE, Integer.MIN_VALUE + 1 };
+        char[] chars = new char[13];
+        byte[] bytes = new byte[13];
+        for (int value : values) {
+            String expected = Integer.toString(value);
+            assertEquals(expected.length(), Strings.decimalLength(value));
+            int end = Strings.formatInt(chars, 2, value);
+            assertEquals(expected, new String(chars, 2, end - 2));
+            end = Strings.formatInt(bytes, 1, value);
+            assertEquals(expected, new String(bytes, 1, end - 1, StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    public void test_formatLong() {
+        long[] values = { 0, 7, 42, 2147483647L, 2147483648L, 99999999999L, 1000000000000000000L,
+                Long.MAX_VALUE, -1, -2147483649L, Long.MIN_VALUE, Long.MIN_VALUE + 1 };
+        char[] chars = new char[20];
+        byte[] bytes = new byte[20];
+        for (long value : values) {
+            String expected = Long.toString(value);
+            assertEquals(expected.length(), Strings.decimalLength(value));
+            assertEquals(expected, new String(chars, 0, Strings.formatLong(chars, 0, value)));
+            assertEquals(expected, new String(bytes, 0, Strings.formatLong(bytes, 0, value),
+                    StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    public void test_appendIntFastPath() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        Strings.appendInt(sb, -2024);
+        Strings.appendLong(sb, 9876543210L);
+        Strings.appendPositiveInt(sb, 77);
+        assertEquals("-2024987654321077", sb.toString());
+        StringWriter sw = new StringWriter();
+        Strings.appendLong(sw, Long.MIN_VALUE);
+        assertEquals("-9223372036854775808", sw.toString());
+    }
+
+    @Test
+    public void test_appendIntBulkToAppendable() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int[] calls = new int[1];
+        Appendable a = new Appendable() {
+            @Override
+            public Appendable append(CharSequence csq) {
+                calls[0]++;
+                sb.append(csq);
+                return this;
+            }
+            @Override
+            public Appendable append(CharSequence csq, int start, int end) {
+                return append(csq.subSequence(start, end));
+            }
+            @Override
+            public Appendable append(char c) {
+                throw new AssertionError("Per-character append");
+            }
+        };
+        Strings.appendInt(a, Integer.MIN_VALUE);
+        Strings.appendPositiveInt(a, 1234567);
+        Strings.appendLong(a, -9876543210L);
+        Strings.appendPositiveLong(a, 5L);
+        assertEquals("-21474836481234567-98765432105", sb.toString());
+        assertEquals(4, calls[0]);
+    }
+
+    @Test
+    public void test_formatDouble() throws IOException {
+        double[] values = { 0.0, -0.0, 1.0, -1.5, 0.1, 0.001, 0.0001, 123.456, 1234567.0, 1.0E7,
+                1.0E-5, 3.141592653589793, 1.0E22, 2.5E-300, Double.MAX_VALUE,
+                Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                100.0, 9999999.0, 12345678.9, 0.1 + 0.2, 1.0 / 3.0, 2.675, 123456789012345.0 };
+        char[] buf = new char[24];
+        for (double value : values)
+            assertEquals(Double.toString(value),
+                    new String(buf, 0, Strings.formatDouble(buf, 0, value)));
+        Random random = new Random(12345);
+        for (int i = 0; i < 10000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(40) - 20);
+            String s = new String(buf, 0, Strings.formatDouble(buf, 0, value));
+            assertEquals(value, Double.parseDouble(s));
+            assertTrue(s.length() <= Double.toString(value).length());
+        }
+        StringBuilder sb = new StringBuilder();
+        Strings.appendDouble(sb, 0.3);
+        assertEquals("0.3", sb.toString());
+        sb.setLength(0);
+        // some versions of Double.toString give 9.999999999999999E22
+        Strings.appendDouble(sb, 1.0E23);
+        assertEquals("1.0E23", sb.toString());
+    }
+
+    @Test
+    public void test_convertToDouble() {
+        String[] values = { "0", "-0", "1", "-1.5", "0.1", "1e10", "1E-5", "+2.5",
+                "123456789012345678", "1234567890123456789012", "0.000000000000000000000000001",
+                "1.7976931348623157e308", "4.9e-324", "3.141592653589793", "00012.50", ".5", "5.",
+                "1e-400" };
+        for (String value : values)
+            assertEquals(Double.parseDouble(value),
+                    Strings.convertToDouble(value, 0, value.length()), value);
+        assertEquals(Double.doubleToLongBits(-0.0),
+                Double.doubleToLongBits(Strings.convertToDouble("-0.0", 0, 4)));
+        assertEquals(2.5, Strings.convertToDouble("[2.5]", 1, 4));
+        String[] invalid = { "-", ".", "e5", "1e", "1e+", "1.2.3", "abc", "1x", "1e999", "NaN" };
+        for (String value : invalid)
+            assertThrows(NumberFormatException.class,
+                    () -> Strings.convertToDouble(value, 0, value.length()), value);
+        assertThrows(IndexOutOfBoundsException.class, () -> Strings.convertToDouble("1", 0, 2));
+    }
+
+    @Test
+    public void test_convertToLongSWAR() {
+        String[] values = { "0", "12345678", "123456789", "0000000000000000123", "2147483647",
+                "9223372036854775807", "1234567890123456", "99999999", "100000000" };
+        for (String value : values) {
+            long expected = Long.parseLong(value);
+            int n = value.length();
+            assertEquals(expected, Strings.convertToLong(value, 0, n));
+            assertEquals(expected, Strings.convertToLong(value.toCharArray(), 0, n));
+            byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(expected, Strings.convertToLong(bytes, 0, n));
+            if (expected <= Integer.MAX_VALUE) {
+                assertEquals((int)expected, Strings.convertToInt(value, 0, n));
+                assertEquals((int)expected, Strings.convertToInt(value.toCharArray(), 0, n));
+                assertEquals((int)expected, Strings.convertToInt(bytes, 0, n));
+            }
+            else {
+                assertThrows(NumberFormatException.class, () -> Strings.convertToInt(value, 0, n));
+                assertThrows(NumberFormatException.class,
+                        () -> Strings.convertToInt(value.toCharArray(), 0, n));
+            }
+        }
+        assertThrows(NumberFormatException.class,
+                () -> Strings.convertToLong("9223372036854775808", 0, 19));
+        assertThrows(NumberFormatException.class,
+                () -> Strings.convertToLong("99999999999999999999", 0, 20));
+        assertThrows(NumberFormatException.class, () -> Strings.convertToInt("2147483648", 0, 10));
+        String digits = "1234567890123456";
+        for (int i = 0; i < digits.length(); i++) {
+            for (char bad : new char[] { '/', ':', 'a', ' ', '\u0130', '\u0031' + 0x100 }) {
+                char[] chars = digits.toCharArray();
+                chars[i] = bad;
+                String s = new String(chars);
+                assertThrows(NumberFormatException.class,
+                        () -> Strings.convertToLong(s, 0, s.length()), s);
+                assertThrows(NumberFormatException.class,
+                        () -> Strings.convertToLong(chars, 0, chars.length));
+            }
+            byte[] bytes = digits.getBytes(StandardCharsets.US_ASCII);
+            bytes[i] = (byte)0xB1;
+            assertThrows(NumberFormatException.class,
+                    () -> Strings.convertToLong(bytes, 0, bytes.length));
+        }
+        byte[] bytes = "xx20240101123045yy".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(20240101123045L, Strings.convertToLong(bytes, 2, 16));
+        assertThrows(IndexOutOfBoundsException.class, () -> Strings.convertToLong(bytes, 2, 19));
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+            direct.order(order);
+            assertEquals(20240101123045L, Strings.convertToLong(direct, 2, 16));
+            assertEquals(2024010112, Strings.convertToInt(direct, 2, 12));
+            assertThrows(NumberFormatException.class, () -> Strings.convertToLong(direct, 1, 16));
+            assertThrows(NumberFormatException.class, () -> Strings.convertToInt(direct, 2, 14));
+        }
+        assertEquals(0, direct.position());
+        assertEquals(20240101123045L, Strings.convertToLong(ByteBuffer.wrap(bytes), 2, 16));
+        assertThrows(IndexOutOfBoundsException.class, () -> Strings.convertToLong(direct, 2, 19));
+    }
+
+    @Test
+    public void test_encodeDecodeUTF8() {
+        Random random = new Random(2026);
+        for (int i = 0; i < 1000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int n = random.nextInt(40);
+            for (int j = 0; j < n; j++) {
+                int type = random.nextInt(10);
+                if (type < 6)
+                    sb.append((char)(random.nextInt(0x60) + 0x20));
+                else if (type < 8)
+                    sb.append((char)(random.nextInt(0x700) + 0x80));
+                else if (type < 9)
+                    sb.append((char)(random.nextInt(0x1000) + 0x3000));
+                else
+                    sb.appendCodePoint(random.nextInt(0x1000) + 0x1F000);
+            }
+            String str = sb.toString();
+            byte[] expected = str.getBytes(StandardCharsets.UTF_8);
+            assertEquals(expected.length, Strings.utf8Length(str, 0, str.length()));
+            assertArrayEquals(expected, Strings.toUTF8(str));
+            byte[] bytes = new byte[expected.length + 2];
+            assertEquals(expected.length + 1, Strings.encodeUTF8(sb, 0, sb.length(), bytes, 1));
+            assertEquals(str, Strings.fromUTF8(expected));
+            char[] chars = new char[expected.length];
+            int end = Strings.decodeUTF8(bytes, 1, expected.length + 1, chars, 0);
+            assertEquals(str, new String(chars, 0, end));
+        }
+        String ascii = "The quick brown fox jumps over the lazy dog \u00E9 and ~DEL\u007F";
+        byte[] asciiBytes = ascii.getBytes(StandardCharsets.UTF_8);
+        char[] asciiChars = new char[asciiBytes.length];
+        assertEquals(ascii, new String(asciiChars, 0,
+                Strings.decodeUTF8(asciiBytes, 0, asciiBytes.length, asciiChars, 0)));
+    }
+
+    @Test
+    public void test_decodeUTF8Invalid() {
+        int[][] invalid = { { 0x80 }, { 0xC3 }, { 0xC0, 0x80 }, { 0xC1, 0xBF },
+                { 0xE0, 0x80, 0x80 }, { 0xE2, 0x82 }, { 0xE2, 0x28, 0xA1 },
+                { 0xF0, 0x80, 0x80, 0x80 }, { 0xF4, 0x90, 0x80, 0x80 },
+                { 0xF8, 0x88, 0x80, 0x80, 0x80 }, { 0xFF } };
+        for (int[] sequence : invalid) {
+            byte[] bytes = new byte[sequence.length + 9];
+            for (int i = 0; i < 9; i++)
+                bytes[i] = 'a';
+            for (int i = 0; i < sequence.length; i++)
+                bytes[i + 9] = (byte)sequence[i];
+            assertThrows(IllegalArgumentException.class, () -> Strings.fromUTF8(bytes));
+        }
+        assertThrows(IllegalArgumentException.class, () -> Strings.toUTF8("abc\uD800"));
+        assertThrows(IllegalArgumentException.class, () -> Strings.utf8Length("\uD800x", 0, 2));
+    }
+
+    @Test
+    public void test_decodeUTF8ByteBuffers() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 300; i++)
+            sb.append("ab\u00E9\u20AC\uD83D\uDE02");
+        String str = sb.toString();
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        assertEquals(str, Strings.fromUTF8(ByteBuffer.wrap(bytes)));
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        assertEquals(str, Strings.fromUTF8(direct));
+        assertFalse(direct.hasRemaining());
+        assertEquals(str, Strings.fromUTF8(ByteBuffer.wrap(bytes).asReadOnlyBuffer()));
+        for (int split = 0; split <= 12; split++) {
+            ByteBuffer[] buffers = { ByteBuffer.wrap(bytes, 0, split),
+                    ByteBuffer.wrap(bytes, split, 1),
+                    ByteBuffer.wrap(bytes, split + 1, bytes.length - split - 1) };
+            assertEquals(str, Strings.fromUTF8(buffers));
+        }
+        CharBuffer charBuffer = CharBuffer.allocate(str.length());
+        Strings.decodeUTF8(ByteBuffer.wrap(bytes), charBuffer);
+        charBuffer.flip();
+        assertEquals(str, charBuffer.toString());
+        charBuffer = CharBuffer.allocate(bytes.length + 1);
+        charBuffer.put('x');
+        Strings.decodeUTF8(ByteBuffer.wrap(bytes), charBuffer);
+        charBuffer.flip();
+        assertEquals("x" + str, charBuffer.toString());
+        direct.rewind();
+        sb.setLength(0);
+        Strings.decodeUTF8(direct, sb);
+        assertEquals(str, sb.toString());
+        ByteBuffer slice = ByteBuffer.wrap(bytes, 1, bytes.length - 1).slice();
+        assertEquals(str.substring(1), Strings.fromUTF8(slice));
+        assertEquals(0, slice.remaining());
+        ByteBuffer heapTruncated = ByteBuffer.wrap(new byte[] { 'a', (byte)0xE2 });
+        assertThrows(IllegalArgumentException.class, () -> Strings.fromUTF8(heapTruncated));
+        assertEquals(0, heapTruncated.position());
+        ByteBuffer directTruncated = ByteBuffer.allocateDirect(2);
+        directTruncated.put((byte)'a').put((byte)0xE2).flip();
+        assertThrows(IllegalArgumentException.class, () -> Strings.fromUTF8(directTruncated));
+        assertEquals(0, directTruncated.position());
+        assertThrows(IllegalArgumentException.class,
+                () -> Strings.decodeUTF8(directTruncated, new StringBuilder()));
+        ByteBuffer[] truncated = { ByteBuffer.wrap(new byte[] { 'a', (byte)0xE2 }),
+                ByteBuffer.wrap(new byte[] { (byte)0x82 }) };
+        assertThrows(IllegalArgumentException.class, () -> Strings.fromUTF8(truncated));
+    }
+
+    @Test
+    public void test_hexCodec() throws IOException {
+        byte[] bytes = new byte[1500];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = (byte)(i * 7);
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes)
+            sb.append(String.format("%02X", b & 0xFF));
+        String hex = sb.toString();
+        assertEquals(hex, Strings.toHex(bytes));
+        assertArrayEquals(bytes, Strings.fromHex(hex));
+        assertArrayEquals(bytes, Strings.fromHex(hex.toLowerCase()));
+        byte[] ascii = new byte[hex.length()];
+        assertEquals(ascii.length, Strings.encodeHex(bytes, 0, bytes.length, ascii, 0));
+        assertEquals(hex, new String(ascii, StandardCharsets.US_ASCII));
+        StringWriter sw = new StringWriter();
+        Strings.appendHex(sw, bytes, 0, bytes.length);
+        assertEquals(hex, sw.toString());
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Strings.decodeHex(hex, 0, hex.length(), baos);
+        assertArrayEquals(bytes, baos.toByteArray());
+        assertArrayEquals(new byte[] { 0x12, (byte)0xAB }, Strings.fromHex("x12aBy", 1, 5));
+        assertEquals("00410042", Strings.toHex("AB"));
+        assertEquals("0041:0042", Strings.toHex("AB", ':'));
+        assertThrows(IllegalArgumentException.class, () -> Strings.fromHex("123"));
+        assertThrows(NumberFormatException.class, () -> Strings.fromHex("1G"));
+        assertThrows(NumberFormatException.class, () -> Strings.fromHex("1\u00E9"));
+        assertEquals(0, Strings.fromHex("").length);
+    }
+
 }
@@ -0,0 +1,106 @@
+/*
+ * @(#) TestURI.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link URI}.
+ *
+ * @author  Peter Wall
+ */
+public class TestURI {
+
+    @Test
+    public void test_escape() {
+        String s = "simple-string_1.2~3";
+        assertSame(s, URI.escape(s));
+        assertEquals("a+b%26c%3Dd", URI.escape("a b&c=d"));
+        assertEquals("caf%C3%A9", URI.escape("café"));
+        assertEquals("%E2%82%AC10", URI.escape("€10"));
+        assertEquals("%F0%9F%98%82", URI.escape("😂"));
+        assertEquals("%2F%3F%25", URI.escape("/?%"));
+    }
+
+    @Test
+    public void test_escape_matches_charMapper() {
+        String s = "key=value & x/y?z é€";
+        assertEquals(Strings.escape(s, URI.charMapper), URI.escape(s));
+    }
+
+    @Test
+    public void test_appendEscaped() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        URI.appendEscaped(sb, "xa béx", 1, 5);
+        assertEquals("a+b%C3%A9", sb.toString());
+        ByteArrayBuilder bab = new ByteArrayBuilder();
+        URI.appendEscaped(bab, "a bé😂", 0, 6);
+        assertArrayEquals(Strings.toUTF8("a+b%C3%A9%F0%9F%98%82"), bab.toByteArray());
+    }
+
+    @Test
+    public void test_unescape() {
+        String s = "nothing-to-unescape";
+        assertSame(s, URI.unescape(s));
+        assertEquals("a b&c=d", URI.unescape("a+b%26c%3dd"));
+        assertEquals("café", URI.unescape("caf%C3%A9"));
+        assertEquals("€10", URI.unescape("%E2%82%AC10"));
+        assertEquals("😂", URI.unescape("%F0%9F%98%82"));
+        assertEquals("bé", URI.unescape("xxb%C3%A9xx", 2, 9));
+    }
+
+    @Test
+    public void test_unescape_roundTrip() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 0x800; i += 7)
+            sb.append((char)i);
+        sb.append("😂");
+        String s = sb.toString();
+        assertEquals(s, URI.unescape(URI.escape(s)));
+    }
+
+    @Test
+    public void test_unescape_invalid() {
+        assertThrows(IllegalArgumentException.class, () -> URI.unescape("abc%2"));
+        assertThrows(IllegalArgumentException.class, () -> URI.unescape("abc%G0"));
+        assertThrows(IllegalArgumentException.class, () -> URI.unescape("abc%C3"));
+        assertThrows(IllegalArgumentException.class, () -> URI.unescape("abc%C3%41"));
+        assertThrows(IllegalArgumentException.class, () -> URI.unescape("abc%FF"));
+        assertThrows(IllegalArgumentException.class, () -> URI.unescape("%C0%AF"));
+        assertThrows(IllegalArgumentException.class, () -> URI.unescape("%E0%80%AE"));
+        assertThrows(IllegalArgumentException.class, () -> URI.unescape("%ED%A0%80"));
+        assertThrows(IllegalArgumentException.class, () -> URI.unescape("%F4%90%80%80"));
+    }
+
+    @Test
+    public void test_charUnmapper() {
+        assertEquals("a café", Strings.unescape("a+caf%C3%A9", URI.charUnmapper));
+    }
+
+}
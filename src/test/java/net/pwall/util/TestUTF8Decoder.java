@@ -0,0 +1,102 @@
+/*
+ * @(#) TestUTF8Decoder.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link UTF8Decoder}.
+ *
+ * @author  Peter Wall
+ */
+public class TestUTF8Decoder {
+
+    private static final String testString = "abcé€😂xyz";
+
+    @Test
+    public void test_splitAtEveryPosition() throws IOException {
+        byte[] bytes = testString.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i <= bytes.length; i++) {
+            for (int j = i; j <= bytes.length; j++) {
+                StringBuilder sb = new StringBuilder();
+                UTF8Decoder decoder = new UTF8Decoder(sb);
+                decoder.decode(bytes, 0, i).decode(bytes, i, j).decode(bytes, j, bytes.length);
+                assertFalse(decoder.isPartial());
+                decoder.finish();
+                assertEquals(testString, sb.toString());
+                assertEquals(bytes.length, decoder.getPosition());
+            }
+        }
+    }
+
+    @Test
+    public void test_byteBuffer() throws IOException {
+        byte[] bytes = testString.getBytes(StandardCharsets.UTF_8);
+        CharBuffer charBuffer = CharBuffer.allocate(20);
+        UTF8Decoder decoder = new UTF8Decoder(charBuffer);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes, 0, 6).flip();
+        decoder.decode(direct);
+        assertTrue(decoder.isPartial());
+        direct.clear();
+        direct.put(bytes, 6, bytes.length - 6).flip();
+        decoder.decode(direct);
+        decoder.finish();
+        charBuffer.flip();
+        assertEquals(testString, charBuffer.toString());
+        StringWriter sw = new StringWriter();
+        new UTF8Decoder(sw).decode(ByteBuffer.wrap(bytes)).finish();
+        assertEquals(testString, sw.toString());
+    }
+
+    @Test
+    public void test_errors() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        UTF8Decoder decoder = new UTF8Decoder(sb);
+        decoder.decode(new byte[] { 'a', 'b', (byte)0xE2 });
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> decoder.decode(new byte[] { (byte)0x82, 'c' }));
+        assertEquals("Illegal character in UTF-8 bytes at offset 2", e.getMessage());
+        assertEquals("ab", sb.toString());
+        decoder.reset().decode(new byte[] { 'x', (byte)0xC0, (byte)0x80 }, 0, 1);
+        e = assertThrows(IllegalArgumentException.class,
+                () -> decoder.decode(new byte[] { (byte)0xC0, (byte)0x80 }));
+        assertEquals("Illegal character in UTF-8 bytes at offset 1", e.getMessage());
+        decoder.reset().decode(new byte[] { 'x', (byte)0xF0, (byte)0x9F });
+        e = assertThrows(IllegalArgumentException.class, decoder::finish);
+        assertEquals("Incomplete sequence in UTF-8 bytes at offset 1", e.getMessage());
+        assertThrows(IllegalArgumentException.class,
+                () -> decoder.reset().decode(new byte[] { (byte)0xFF }));
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * @(#) TestWildcardIndex.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link WildcardIndex}.
+ *
+ * @author  Peter Wall
+ */
+public class TestWildcardIndex {
+
+    private static final String[] patterns = { "", "*", "?", "abc", "a?c", "a*", "*c", "a*b*c",
+            "*b*", "?*?", "*a?c*", "ab*bc", "abc|def", "a*|*z", "*aa*aa", "a?*?a", "*.txt|*.log",
+            "/api/*/users/*", "/api/v?/*", "*users*", "*she*", "*he*", "*hers", "his*" };
+
+    private static final String[] targets = { "", "a", "c", "ab", "abc", "abbc", "axc", "abcbc",
+            "def", "aaaa", "aaaaa", "z", "file.txt", "file.log", "/api/v1/users/42",
+            "/api/v2/groups", "ushers", "his", "hers", "she", "bcb" };
+
+    @Test
+    public void test_sameAsMultiWildcardCompare() {
+        WildcardIndex index = new WildcardIndex(patterns);
+        assertEquals(patterns.length, index.size());
+        for (String target : targets) {
+            int[] ids = index.findAll(target);
+            assertArrayEquals(expected(patterns, target), ids, target);
+            assertEquals(ids.length > 0, index.matchesAny(target), target);
+        }
+    }
+
+    @Test
+    public void test_random() {
+        Random random = new Random(12345);
+        String chars = "ab*?";
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < 200; i++)
+            list.add(randomString(random, chars, 6));
+        String[] array = list.toArray(new String[list.size()]);
+        WildcardIndex index = new WildcardIndex(list);
+        for (int i = 0; i < 500; i++) {
+            String target = randomString(random, "abc", 10);
+            assertArrayEquals(expected(array, target), index.findAll(target), target);
+        }
+    }
+
+    @Test
+    public void test_getPattern() {
+        WildcardIndex index = new WildcardIndex(Arrays.asList("x*", "*y"));
+        assertEquals("*y", index.getPattern(1).getPattern());
+        assertArrayEquals(new int[] { 0, 1 }, index.findAll("xy"));
+        assertArrayEquals(new int[0], index.findAll("yx"));
+        assertFalse(new WildcardIndex().matchesAny("anything"));
+    }
+
+    private static int[] expected(String[] patterns, String target) {
+        return IntStream.range(0, patterns.length).filter(
+                i -> Strings.multiWildcardCompare(patterns[i], target)).toArray();
+    }
+
+    private static String randomString(Random random, String chars, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++)
+            sb.append(chars.charAt(random.nextInt(chars.length())));
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * @(#) TestWildcardPattern.java
+ *
+ * javautil Java Utility Library
+ * Copyright (c) 2026 Peter Wall
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package net.pwall.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link WildcardPattern} and {@link WildcardPatternSet}.
+ *
+ * @author  Peter Wall
+ */
+public class TestWildcardPattern {
+
+    private static final String[] patterns = { "", "*", "**", "?", "abc", "a?c", "a*", "*c",
+            "a*c", "a*b*c", "*b*", "a**c", "?*?", "*a?c*", "ab*bc", "abc|def", "a*|*z", "x|",
+            "*aa*aa", "a?*?a", "*.txt|*.log" };
+
+    private static final String[] targets = { "", "a", "c", "ab", "abc", "abbc", "axc", "abcbc",
+            "aXbYc", "def", "aaaa", "aaaaa", "z", "xyz", "x", "file.txt", "file.log", "file.dat",
+            "bcb", "abac" };
+
+    @Test
+    public void test_sameAsMultiWildcardCompare() {
+        for (String pattern : patterns) {
+            WildcardPattern compiled = WildcardPattern.compile(pattern);
+            for (String target : targets) {
+                boolean expected = Strings.multiWildcardCompare(pattern, target);
+                assertEquals(expected, compiled.matches(target), pattern + " : " + target);
+                assertEquals(expected, compiled.matches(new StringBuilder(target)),
+                        pattern + " : " + target);
+            }
+        }
+    }
+
+    @Test
+    public void test_getPattern() {
+        WildcardPattern compiled = WildcardPattern.compile("a*|b?");
+        assertEquals("a*|b?", compiled.getPattern());
+        assertEquals("a*|b?", compiled.toString());
+        assertEquals(WildcardPattern.compile("a*|b?"), compiled);
+        assertThrows(NullPointerException.class, () -> WildcardPattern.compile(null));
+    }
+
+    @Test
+    public void test_setMatchesAny() {
+        WildcardPatternSet set = new WildcardPatternSet(patterns);
+        assertEquals(patterns.length, set.size());
+        for (String target : targets) {
+            boolean expected = false;
+            for (String pattern : patterns)
+                expected |= Strings.multiWildcardCompare(pattern, target);
+            assertEquals(expected, set.matchesAny(target), target);
+        }
+    }
+
+    @Test
+    public void test_setFindAll() {
+        WildcardPatternSet set = new WildcardPatternSet(patterns);
+        for (String target : targets) {
+            int first = -1;
+            int count = 0;
+            for (int i = 0; i < patterns.length; i++) {
+                if (Strings.multiWildcardCompare(patterns[i], target)) {
+                    if (first < 0)
+                        first = i;
+                    count++;
+                }
+            }
+            assertEquals(first, set.findFirst(target), target);
+            assertEquals(count, set.findAll(target).size(), target);
+        }
+    }
+
+    @Test
+    public void test_setExample() {
+        WildcardPatternSet set = new WildcardPatternSet().add("*.txt").add("doc*").add("doc?.txt");
+        assertEquals(Arrays.asList(set.get(0), set.get(1), set.get(2)), set.findAll("doc1.txt"));
+        assertEquals(Collections.singletonList(set.get(1)), set.findAll("doc"));
+        assertEquals(-1, set.findFirst("readme.md"));
+        assertFalse(set.matchesAny("readme.md"));
+    }
+
+}